@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+public final class Datasets {
+    public enum Distribution {
+        UNIFORM,
+        POWER_LAW
+    }
+
+    private static final double POWER_LAW_ALPHA = 2.1;
+
+    private Datasets() {
+    }
+
+    public static int degree(SplittableRandom random, Distribution distribution, int mean, int max) {
+        if (distribution == Distribution.UNIFORM) {
+            return Math.min(max, random.nextInt(mean * 2 + 1));
+        }
+
+        double minimum = mean * (POWER_LAW_ALPHA - 2) / (POWER_LAW_ALPHA - 1);
+        double sample = minimum * Math.pow(1 - random.nextDouble(), -1 / (POWER_LAW_ALPHA - 1));
+        return (int) Math.min(max, Math.round(sample));
+    }
+
+    public static Film film(int number) {
+        Film film = new Film();
+        film.setName("Film " + number);
+        film.setDescription("Description of film " + number);
+        film.setReleaseDate(LocalDate.of(1950, 1, 1).plusDays(number % 25_000));
+        film.setDuration(60 + number % 120);
+        return film;
+    }
+
+    public static User user(int number) {
+        return new User(null, "user" + number + "@email.com", "user" + number, null,
+                LocalDate.of(1970, 1, 1).plusDays(number % 15_000));
+    }
+
+    public static InMemoryUserStorage users(int count) {
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        for (int i = 0; i < count; i++) {
+            userStorage.create(user(i));
+        }
+        return userStorage;
+    }
+
+    public static InMemoryFilmStorage films(int count, int likesPerFilm, Distribution distribution, int userCount,
+                                            SplittableRandom random) {
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        for (int i = 0; i < count; i++) {
+            long filmId = filmStorage.create(film(i)).getId();
+            int likes = degree(random, distribution, likesPerFilm, userCount);
+            for (int like = 0; like < likes; like++) {
+                filmStorage.addLike(filmId, random.nextLong(1, userCount + 1L));
+            }
+        }
+        return filmStorage;
+    }
+
+    public static void befriend(InMemoryUserStorage userStorage, int userCount, int meanDegree,
+                                Distribution distribution, SplittableRandom random) {
+        for (long userId = 1; userId <= userCount; userId++) {
+            int degree = degree(random, distribution, meanDegree, userCount - 1) / 2;
+            for (int i = 0; i < degree; i++) {
+                long friendId = random.nextLong(1, userCount + 1L);
+                if (friendId != userId) {
+                    userStorage.addFriend(userId, friendId);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+public class EdgeFootprintBenchmark {
+    private static final int SETS = 20_000;
+    private static final int EDGES_PER_SET = 50;
+
+    public static void main(String[] args) {
+        report("HashSet<Long>", HashSet::new);
+        report("ConcurrentHashMap.newKeySet()", ConcurrentHashMap::newKeySet);
+        report("LongSortedSet", LongSortedSet::new);
+    }
+
+    private static void report(String name, Supplier<Set<Long>> factory) {
+        Random random = new Random(42);
+        long before = usedHeap();
+        Object[] sets = new Object[SETS];
+        for (int i = 0; i < SETS; i++) {
+            Set<Long> set = factory.get();
+            while (set.size() < EDGES_PER_SET) {
+                set.add(random.nextLong(1, 10_000_000));
+            }
+            sets[i] = set;
+        }
+        long after = usedHeap();
+
+        double bytesPerEdge = (double) (after - before) / ((long) SETS * EDGES_PER_SET);
+        System.out.printf("%-30s %8.1f байт на связь%n", name, bytesPerEdge);
+        if (sets.length != SETS) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,133 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchQuery;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FilmSearchBenchmark {
+    private static final String[] CYRILLIC = {"ма", "тё", "ри", "ца", "ко", "смо", "зве", "здо", "ёж", "ик",
+        "ту", "ман", "во", "йна", "ми", "ро", "лю", "бо", "вь", "го"};
+    private static final String[] LATIN = {"st", "ar", "wa", "rs", "ca", "fé", "ni", "ght", "lo", "ve",
+        "dre", "am", "ci", "ty", "bl", "ue", "ro", "ad", "ki", "ng"};
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000000"})
+    private int filmCount;
+
+    private InMemoryFilmStorage filmStorage;
+    private String[] vocabulary;
+    private String rareToken;
+    private String commonToken;
+    private String secondCommonToken;
+    private String prefix;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            String[] syllables = i % 2 == 0 ? CYRILLIC : LATIN;
+            StringBuilder word = new StringBuilder();
+            for (int value = i / 2 + 1; value > 0; value /= syllables.length) {
+                word.append(syllables[value % syllables.length]);
+            }
+            vocabulary[i] = word.toString();
+        }
+
+        filmStorage = new InMemoryFilmStorage();
+        for (int i = 0; i < filmCount; i++) {
+            Film film = new Film();
+            film.setName(text(random, 2 + random.nextInt(3)));
+            film.setDescription(text(random, 5 + random.nextInt(20)));
+            film.setReleaseDate(LocalDate.of(1900, 1, 1).plusDays(random.nextInt(45_000)));
+            film.setDuration(30 + random.nextInt(180));
+            filmStorage.create(film);
+        }
+
+        rareToken = vocabulary[VOCABULARY_SIZE - 3].toUpperCase(Locale.ROOT);
+        commonToken = vocabulary[0];
+        secondCommonToken = vocabulary[1];
+        prefix = vocabulary[40].substring(0, 3);
+    }
+
+    private String text(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            double skew = random.nextDouble();
+            text.append(vocabulary[(int) (VOCABULARY_SIZE * skew * skew * skew)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private List<Film> search(String text, LocalDate from, LocalDate to, Integer minDuration) {
+        return filmStorage.search(new FilmSearchQuery(text, from, to, minDuration, 0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Film> rareToken() {
+        return search(rareToken, null, null, null);
+    }
+
+    @Benchmark
+    public List<Film> commonTokens() {
+        return search(commonToken + " " + secondCommonToken, null, null, null);
+    }
+
+    @Benchmark
+    public List<Film> prefix() {
+        return search(prefix, null, null, null);
+    }
+
+    @Benchmark
+    public List<Film> tokenWithRange() {
+        return search(commonToken, LocalDate.of(1990, 1, 1), LocalDate.of(1995, 1, 1), 120);
+    }
+
+    @Benchmark
+    public List<Film> selectiveRange() {
+        return search(null, LocalDate.of(1990, 1, 1), LocalDate.of(1990, 1, 10), null);
+    }
+
+    @Benchmark
+    public List<Film> wideRange() {
+        return search(null, LocalDate.of(1950, 1, 1), LocalDate.of(2000, 1, 1), null);
+    }
+
+    @Benchmark
+    public List<Film> longFilms() {
+        return search(null, null, null, 200);
+    }
+
+    @Benchmark
+    public List<Film> bruteForce() {
+        return filmStorage.findAll().stream()
+                .filter(film -> film.getName().contains(rareToken.toLowerCase(Locale.ROOT))
+                        || film.getDescription().contains(rareToken.toLowerCase(Locale.ROOT)))
+                .limit(PAGE_SIZE)
+                .toList();
+    }
+}
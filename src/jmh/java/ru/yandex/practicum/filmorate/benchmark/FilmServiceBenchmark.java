@@ -0,0 +1,122 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmRecommendationProperties;
+import ru.yandex.practicum.filmorate.service.FilmRecommender;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.stats.LikeStatistics;
+import ru.yandex.practicum.filmorate.stats.StatsProperties;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.trending.TrendingPipeline;
+import ru.yandex.practicum.filmorate.trending.TrendingProperties;
+import ru.yandex.practicum.filmorate.validator.ModelValidator;
+import ru.yandex.practicum.filmorate.validator.ValidationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilmServiceBenchmark {
+    private static final int TOGGLE_PAIRS = 1 << 16;
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    @Param({"10", "100"})
+    private int likesPerFilm;
+
+    @Param({"UNIFORM", "POWER_LAW"})
+    private Datasets.Distribution distribution;
+
+    private InMemoryFilmStorage filmStorage;
+    private FilmService filmService;
+    private FilmRecommender filmRecommender;
+    private TrendingPipeline trendingPipeline;
+    private int userCount;
+    private SplittableRandom random;
+    private long[] toggleFilmIds;
+    private long[] toggleUserIds;
+    private int toggleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        userCount = Math.max(1_000, catalogSize / 10);
+        InMemoryUserStorage userStorage = Datasets.users(userCount);
+        filmStorage = Datasets.films(catalogSize, likesPerFilm, distribution, userCount, random);
+        filmRecommender = new FilmRecommender(filmStorage,
+                new FilmRecommendationProperties(500, 1000, 200_000, 50, 100_000));
+        trendingPipeline = new TrendingPipeline(new TrendingProperties(65_536, 100, Duration.ofSeconds(1),
+                Duration.ofMillis(1)), new SimpleMeterRegistry(), System::currentTimeMillis);
+        trendingPipeline.start();
+        filmService = new FilmService(filmStorage, userStorage, filmRecommender, new ModelValidator(
+                Validation.buildDefaultValidatorFactory().getValidator(), new ValidationProperties(true)),
+                trendingPipeline, new LikeStatistics(new StatsProperties(14, 7, 0.0005, 0.99)));
+
+        toggleFilmIds = new long[TOGGLE_PAIRS];
+        toggleUserIds = new long[TOGGLE_PAIRS];
+        for (int i = 0; i < TOGGLE_PAIRS; ) {
+            long filmId = random.nextLong(1, catalogSize + 1L);
+            long userId = random.nextLong(1, userCount + 1L);
+            if (!filmStorage.findById(filmId).getUserLikes().contains(userId)) {
+                toggleFilmIds[i] = filmId;
+                toggleUserIds[i++] = userId;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        trendingPipeline.close();
+    }
+
+    @Benchmark
+    public List<Film> findPopular() {
+        return filmService.findPopular(10);
+    }
+
+    @Benchmark
+    public void toggleLike() {
+        int pair = toggleCursor;
+        toggleCursor = (pair + 1) & (TOGGLE_PAIRS - 1);
+        filmService.addLike(toggleFilmIds[pair], toggleUserIds[pair]);
+        filmService.removeLike(toggleFilmIds[pair], toggleUserIds[pair]);
+    }
+
+    @Benchmark
+    public long[] recommendFilms() {
+        return filmRecommender.recommend(random.nextLong(1, userCount + 1L), 10);
+    }
+
+    @Benchmark
+    public Film updateFilm() {
+        Film update = new Film();
+        update.setId(random.nextLong(1, catalogSize + 1L));
+        update.setDuration(90);
+        update.setDescription("Updated description");
+        return filmStorage.update(update);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.StorageJournal;
+import ru.yandex.practicum.filmorate.storage.film.HotLikesProperties;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotLikeBenchmark {
+    @Param({"locked", "buffered"})
+    private String mode;
+
+    @Param({"1000", "100000"})
+    private int existingLikes;
+
+    private InMemoryFilmStorage filmStorage;
+    private long filmId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean buffered = "buffered".equals(mode);
+        filmStorage = new InMemoryFilmStorage(StorageJournal.NOOP,
+                new HotLikesProperties(buffered, 32, Duration.ofSeconds(1), 16, 64, 1024));
+        long[] likers = new long[existingLikes];
+        for (int i = 0; i < existingLikes; i++) {
+            likers[i] = 2L * i + 1;
+        }
+        Film film = Datasets.film(0);
+        film.setUserLikes(LongSortedSet.of(likers, existingLikes));
+        filmId = filmStorage.create(film).getId();
+        if (buffered) {
+            filmStorage.markHot(filmId);
+        }
+    }
+
+    private boolean toggleLike() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long userId = random.nextLong(1, 2L * existingLikes + 1);
+        return random.nextBoolean() ? filmStorage.addLike(filmId, userId) : filmStorage.removeLike(filmId, userId);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean oneThread() {
+        return toggleLike();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean twoThreads() {
+        return toggleLike();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean fourThreads() {
+        return toggleLike();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean eightThreads() {
+        return toggleLike();
+    }
+}
@@ -0,0 +1,123 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookupMissBenchmark {
+    private static final int CATALOG_SIZE = 1_000;
+
+    @Param({"10", "100"})
+    private int stackDepth;
+
+    private InMemoryFilmStorage filmStorage;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        random = new SplittableRandom(42);
+        filmStorage = new InMemoryFilmStorage();
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            filmStorage.create(Datasets.film(i));
+        }
+    }
+
+    private long missingId() {
+        return CATALOG_SIZE + 1 + random.nextLong(1_000_000);
+    }
+
+    private <T> T atDepth(int depth, Supplier<T> action) {
+        return depth == 0 ? action.get() : atDepth(depth - 1, action);
+    }
+
+    private Film legacyFindById(long filmId) {
+        Film film = filmStorage.find(filmId).orElse(null);
+        if (film == null) {
+            throw new LegacyNotFoundException("Фильм с ID = " + filmId + " не найден");
+        }
+        return film;
+    }
+
+    @Benchmark
+    public Object legacyMiss() {
+        long filmId = missingId();
+        try {
+            return atDepth(stackDepth, () -> legacyFindById(filmId));
+        } catch (LegacyNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object legacyMissLogged() {
+        long filmId = missingId();
+        try {
+            return atDepth(stackDepth, () -> legacyFindById(filmId));
+        } catch (LegacyNotFoundException e) {
+            StringWriter trace = new StringWriter();
+            e.printStackTrace(new PrintWriter(trace));
+            return trace.toString();
+        }
+    }
+
+    @Benchmark
+    public Object stacklessMiss() {
+        long filmId = missingId();
+        try {
+            return atDepth(stackDepth, () -> filmStorage.findById(filmId));
+        } catch (NotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object stacklessMissLogged() {
+        long filmId = missingId();
+        try {
+            return atDepth(stackDepth, () -> filmStorage.findById(filmId));
+        } catch (NotFoundException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public Object optionalMiss() {
+        long filmId = missingId();
+        return atDepth(stackDepth, () -> filmStorage.find(filmId));
+    }
+
+    @Benchmark
+    public boolean existsMiss() {
+        long filmId = missingId();
+        return atDepth(stackDepth, () -> filmStorage.exists(filmId));
+    }
+
+    public static class LegacyNotFoundException extends RuntimeException {
+        public LegacyNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
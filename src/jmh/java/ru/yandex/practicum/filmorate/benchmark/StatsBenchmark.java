@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.stats.DailyLikers;
+import ru.yandex.practicum.filmorate.stats.FrequencyEstimate;
+import ru.yandex.practicum.filmorate.stats.LikeHistogram;
+import ru.yandex.practicum.filmorate.stats.LikeStatistics;
+import ru.yandex.practicum.filmorate.stats.LikeTotals;
+import ru.yandex.practicum.filmorate.stats.StatsProperties;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsBenchmark {
+    private static final int FILMS = 100_000;
+    private static final int USERS = 100_000;
+    private static final int LIKES_PER_FILM = 20;
+
+    private InMemoryFilmStorage filmStorage;
+    private LikeStatistics statistics;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        statistics = new LikeStatistics(new StatsProperties(14, 7, 0.0005, 0.99));
+        filmStorage = Datasets.films(FILMS, LIKES_PER_FILM, Datasets.Distribution.POWER_LAW, USERS, random);
+        filmStorage.forEach(film -> film.getUserLikes()
+                .forEachLong(userId -> statistics.likeAdded(film.getId(), userId)));
+    }
+
+    @Benchmark
+    public void recordLike() {
+        statistics.likeAdded(random.nextLong(1, FILMS + 1L), random.nextLong(1, USERS + 1L));
+    }
+
+    @Benchmark
+    public LikeTotals sketchTotals() {
+        return statistics.totals();
+    }
+
+    @Benchmark
+    public DailyLikers sketchLikersWeek() {
+        return statistics.likers(7);
+    }
+
+    @Benchmark
+    public FrequencyEstimate sketchFilmLikes() {
+        return statistics.filmLikes(random.nextLong(1, FILMS + 1L));
+    }
+
+    @Benchmark
+    public LikeHistogram sketchHistogram() {
+        return statistics.histogram();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int scanUniqueLikers() {
+        Set<Long> likers = new HashSet<>();
+        filmStorage.forEach(film -> film.getUserLikes().forEachLong(likers::add));
+        return likers.size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long scanTotalLikes() {
+        long[] total = new long[1];
+        filmStorage.forEach(film -> total[0] += film.getUserLikes().size());
+        return total[0];
+    }
+}
@@ -0,0 +1,139 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.storage.cache.CachingFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.JdbcFilmStorage;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageCacheBenchmark {
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int CACHE_SIZE = 10_000;
+    private static final int BATCH_SIZE = 20;
+    private static final int KEY_COUNT = 1 << 20;
+    private static final double ZIPF_EXPONENT = 0.9;
+
+    @Param({"direct", "cached"})
+    private String mode;
+
+    @Param({"zipf", "zipfWithScan"})
+    private String workload;
+
+    private SingleConnectionDataSource dataSource;
+    private FilmStorage filmStorage;
+    private SimpleMeterRegistry registry;
+    private long[] keys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:cache-benchmark;DB_CLOSE_DELAY=-1");
+        dataSource = new SingleConnectionDataSource(h2.getConnection(), true);
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        }
+
+        FilmStorage jdbcStorage = new JdbcFilmStorage(new NamedParameterJdbcTemplate(dataSource));
+        List<Film> films = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            films.add(Datasets.film(i));
+        }
+        jdbcStorage.createAll(films);
+
+        if ("cached".equals(mode)) {
+            CachingFilmStorage cached = new CachingFilmStorage(jdbcStorage, CACHE_SIZE);
+            registry = new SimpleMeterRegistry();
+            cached.bindTo(registry);
+            filmStorage = cached;
+        } else {
+            filmStorage = jdbcStorage;
+        }
+        keys = keys(new SplittableRandom(42), "zipfWithScan".equals(workload));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (registry != null) {
+            double hits = registry.get("filmorate.cache.gets").tag("result", "hit").functionCounter().count();
+            double misses = registry.get("filmorate.cache.gets").tag("result", "miss").functionCounter().count();
+            System.out.printf("%nДоля попаданий в кэш: %.3f%n", hits / (hits + misses));
+        }
+        dataSource.destroy();
+    }
+
+    private static long[] keys(SplittableRandom random, boolean withScan) {
+        double[] cumulative = new double[CATALOG_SIZE];
+        double total = 0;
+        for (int rank = 0; rank < CATALOG_SIZE; rank++) {
+            total += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = total;
+        }
+
+        long[] keys = new long[KEY_COUNT];
+        long scanned = 0;
+        for (int i = 0; i < KEY_COUNT; i++) {
+            if (withScan && i % 4 == 3) {
+                keys[i] = 1 + scanned++ % CATALOG_SIZE;
+                continue;
+            }
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            rank = rank >= 0 ? rank : -rank - 1;
+            keys[i] = 1 + Math.floorMod((long) rank * 7_919, CATALOG_SIZE);
+        }
+        return keys;
+    }
+
+    private long nextKey() {
+        long key = keys[cursor];
+        cursor = (cursor + 1) & (KEY_COUNT - 1);
+        return key;
+    }
+
+    @Benchmark
+    public Film findById() {
+        return filmStorage.findById(nextKey());
+    }
+
+    @Benchmark
+    public LookupResult<Film> findAllByIds() {
+        List<Long> ids = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ids.add(nextKey());
+        }
+        return filmStorage.findAllByIds(ids);
+    }
+}
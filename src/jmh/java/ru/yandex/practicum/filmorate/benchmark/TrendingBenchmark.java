@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.trending.Ranking;
+import ru.yandex.practicum.filmorate.trending.TrendingPipeline;
+import ru.yandex.practicum.filmorate.trending.TrendingProperties;
+import ru.yandex.practicum.filmorate.trending.TrendingWindow;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrendingBenchmark {
+    private static final int EVENTS = 1_000_000;
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    private TrendingPipeline pipeline;
+    private TrendingPipeline running;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        TrendingProperties properties = new TrendingProperties(1 << 16, 100, Duration.ofSeconds(1),
+                Duration.ofMillis(1));
+        pipeline = new TrendingPipeline(properties, new SimpleMeterRegistry(), System::currentTimeMillis);
+        for (int i = 0; i < EVENTS; i++) {
+            pipeline.likeAdded(Datasets.degree(random, Datasets.Distribution.POWER_LAW, catalogSize / 100,
+                    catalogSize - 1) + 1L);
+            if (i % 1024 == 0) {
+                pipeline.processPending();
+            }
+        }
+        pipeline.processPending();
+
+        running = new TrendingPipeline(properties, new SimpleMeterRegistry(), System::currentTimeMillis);
+        running.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        running.close();
+    }
+
+    @Benchmark
+    public void publishLike() {
+        running.likeAdded(random.nextLong(1, catalogSize + 1L));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Ranking refreshRankings() {
+        pipeline.refresh();
+        return pipeline.ranking(TrendingWindow.WEEK);
+    }
+
+    @Benchmark
+    public long[] readTrending() {
+        return pipeline.ranking(TrendingWindow.DAY).head(10);
+    }
+}
@@ -0,0 +1,110 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FriendRecommendationProperties;
+import ru.yandex.practicum.filmorate.service.FriendRecommender;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.stats.LikeStatistics;
+import ru.yandex.practicum.filmorate.stats.StatsProperties;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.trending.TrendingPipeline;
+import ru.yandex.practicum.filmorate.trending.TrendingProperties;
+import ru.yandex.practicum.filmorate.validator.ModelValidator;
+import ru.yandex.practicum.filmorate.validator.ValidationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+    @Param({"10000", "100000"})
+    private int userCount;
+
+    @Param({"20", "200"})
+    private int meanDegree;
+
+    @Param({"UNIFORM", "POWER_LAW"})
+    private Datasets.Distribution distribution;
+
+    private InMemoryUserStorage userStorage;
+    private UserService userService;
+    private FriendRecommender friendRecommender;
+    private SplittableRandom random;
+    private long hubId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        userStorage = Datasets.users(userCount);
+        Datasets.befriend(userStorage, userCount, meanDegree, distribution, random);
+        friendRecommender = new FriendRecommender(userStorage,
+                new FriendRecommendationProperties(500, 500, 100_000, 50, 0));
+        userService = new UserService(userStorage, new InMemoryFilmStorage(), friendRecommender, new ModelValidator(
+                Validation.buildDefaultValidatorFactory().getValidator(), new ValidationProperties(true)),
+                new TrendingPipeline(new TrendingProperties(1024, 10, Duration.ofSeconds(1), Duration.ofMillis(1)),
+                        new SimpleMeterRegistry(), System::currentTimeMillis),
+                new LikeStatistics(new StatsProperties(14, 7, 0.0005, 0.99)));
+
+        hubId = 1;
+        for (User user : userStorage.findAll()) {
+            if (user.getFriends().size() > userStorage.findById(hubId).getFriends().size()) {
+                hubId = user.getId();
+            }
+        }
+    }
+
+    @Benchmark
+    public List<User> findCommonFriends() {
+        return userService.findCommonFriends(random.nextLong(1, userCount + 1L), random.nextLong(1, userCount + 1L));
+    }
+
+    @Benchmark
+    public List<User> findCommonFriendsWithHub() {
+        return userService.findCommonFriends(hubId, random.nextLong(1, userCount + 1L));
+    }
+
+    @Benchmark
+    public List<User> findAllFriends() {
+        return userService.findAllFriends(random.nextLong(1, userCount + 1L));
+    }
+
+    @Benchmark
+    public long[] recommendFriends() {
+        return friendRecommender.recommend(random.nextLong(1, userCount + 1L), 10);
+    }
+
+    @Benchmark
+    public long[] recommendFriendsForHub() {
+        return friendRecommender.recommend(hubId, 10);
+    }
+
+    @Benchmark
+    public User updateUser() {
+        User update = new User();
+        update.setId(random.nextLong(1, userCount + 1L));
+        update.setEmail("updated@email.com");
+        return userStorage.update(update);
+    }
+}
@@ -0,0 +1,160 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
+import ru.yandex.practicum.filmorate.exception.ModelValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.validator.ModelValidator;
+import ru.yandex.practicum.filmorate.validator.ValidationProperties;
+import ru.yandex.practicum.filmorate.validator.group.Create;
+import ru.yandex.practicum.filmorate.validator.group.Default;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    @Param({"true", "false"})
+    private boolean valid;
+
+    private ProxiedService proxied;
+    private Validator validator;
+    private ModelValidator precompiled;
+    private Film film;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        precompiled = new ModelValidator(validator, new ValidationProperties(true));
+
+        ProxyFactory proxyFactory = new ProxyFactory(new ProxiedService(precompiled));
+        proxyFactory.addAdvice(new MethodValidationInterceptor(validator));
+        proxied = (ProxiedService) proxyFactory.getProxy();
+
+        film = new Film();
+        film.setName("Film");
+        film.setDescription("Some description");
+        film.setReleaseDate(valid ? LocalDate.of(2000, 1, 1) : LocalDate.of(1800, 1, 1));
+        film.setDuration(90);
+        user = new User(null, valid ? "user@email.com" : "user@@email.com", "user", null,
+                LocalDate.of(2000, 1, 1));
+    }
+
+    @Benchmark
+    public Object proxyValidFilm() {
+        try {
+            return proxied.createValidFilm(film);
+        } catch (ConstraintViolationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object proxyPrecompiledFilm() {
+        try {
+            return proxied.createFilm(film);
+        } catch (ModelValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object beanValidatorFilm() {
+        return validator.validate(film, Create.class, Default.class);
+    }
+
+    @Benchmark
+    public Object precompiledFilm() {
+        try {
+            precompiled.validate(film, "create.film", Create.class, Default.class);
+            return film;
+        } catch (ModelValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object proxyValidUser() {
+        try {
+            return proxied.createValidUser(user);
+        } catch (ConstraintViolationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object proxyPrecompiledUser() {
+        try {
+            return proxied.createUser(user);
+        } catch (ModelValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object beanValidatorUser() {
+        return validator.validate(user, Default.class, Create.class);
+    }
+
+    @Benchmark
+    public Object precompiledUser() {
+        try {
+            precompiled.validate(user, "create.user", Default.class, Create.class);
+            return user;
+        } catch (ModelValidationException e) {
+            return e;
+        }
+    }
+
+    @Validated
+    public static class ProxiedService {
+        private final ModelValidator modelValidator;
+
+        public ProxiedService(ModelValidator modelValidator) {
+            this.modelValidator = modelValidator;
+        }
+
+        @Validated({Create.class, Default.class})
+        public Film createValidFilm(@Valid Film film) {
+            return film;
+        }
+
+        public Film createFilm(Film film) {
+            modelValidator.validate(film, "create.film", Create.class, Default.class);
+            return film;
+        }
+
+        @Validated({Default.class, Create.class})
+        public User createValidUser(@Valid User user) {
+            return user;
+        }
+
+        public User createUser(User user) {
+            modelValidator.validate(user, "create.user", Default.class, Create.class);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class VirtualThreadLoadBenchmark {
+    private static final int CONCURRENCY = Integer.getInteger("concurrency", 1_000);
+    private static final int FILMS = Integer.getInteger("films", 1_000);
+    private static final long LATENCY_MILLIS = Long.getLong("latencyMillis", 5);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("warmupSeconds", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("seconds", 15));
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("Параллельных клиентов: %d, задержка хранилища: %d мс%n", CONCURRENCY, LATENCY_MILLIS);
+        System.out.printf("%-12s %12s %10s %10s %10s %8s%n", "Режим", "запр/с", "p50, мс", "p99, мс", "p99.9, мс",
+                "ошибки");
+        for (boolean virtual : new boolean[]{false, true}) {
+            run(virtual);
+        }
+    }
+
+    private static void run(boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new StorageLatency()))
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--logging.level.root=WARN",
+                        "--logging.level.ru.yandex.practicum.filmorate=WARN",
+                        "--logging.level.org.zalando.logbook.Logbook=WARN")) {
+            FilmStorage filmStorage = context.getBean(FilmStorage.class);
+            for (int i = 0; i < FILMS; i++) {
+                filmStorage.create(Datasets.film(i));
+            }
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            load(port, WARMUP);
+            Result result = load(port, MEASUREMENT);
+            System.out.printf("%-12s %12.0f %10.2f %10.2f %10.2f %8d%n", virtual ? "virtual" : "platform",
+                    result.latencies().length / (double) MEASUREMENT.toSeconds(),
+                    result.percentile(0.5), result.percentile(0.99), result.percentile(0.999), result.errors());
+        }
+    }
+
+    private static Result load(int port, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(clients)
+                     .build()) {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                futures.add(clients.submit(() -> client(httpClient, port, deadline)));
+            }
+
+            Result total = new Result(new long[0], 0);
+            for (Future<Result> future : futures) {
+                total = total.merge(future.get());
+            }
+            Arrays.sort(total.latencies());
+            return total;
+        }
+    }
+
+    private static Result client(HttpClient httpClient, int port, long deadline) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        int errors = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/films/" + random.nextInt(1, FILMS + 1))).build();
+            long started = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors++;
+                    continue;
+                }
+            } catch (Exception exception) {
+                errors++;
+                continue;
+            }
+
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - started;
+        }
+
+        return new Result(Arrays.copyOf(latencies, count), errors);
+    }
+
+    private record Result(long[] latencies, int errors) {
+        private Result merge(Result other) {
+            long[] merged = Arrays.copyOf(latencies, latencies.length + other.latencies.length);
+            System.arraycopy(other.latencies, 0, merged, latencies.length, other.latencies.length);
+            return new Result(merged, errors + other.errors);
+        }
+
+        private double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            return latencies[(int) Math.ceil(quantile * latencies.length) - 1] / 1e6;
+        }
+    }
+
+    private static class StorageLatency implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof FilmStorage filmStorage)) {
+                return bean;
+            }
+
+            return Proxy.newProxyInstance(FilmStorage.class.getClassLoader(), new Class<?>[]{FilmStorage.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("find")) {
+                            Thread.sleep(LATENCY_MILLIS);
+                        }
+                        try {
+                            return method.invoke(filmStorage, args);
+                        } catch (InvocationTargetException exception) {
+                            throw exception.getCause();
+                        }
+                    });
+        }
+    }
+}
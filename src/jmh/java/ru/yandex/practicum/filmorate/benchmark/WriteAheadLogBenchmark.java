@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.wal.SnapshotManager;
+import ru.yandex.practicum.filmorate.storage.wal.WalProperties;
+import ru.yandex.practicum.filmorate.storage.wal.WriteAheadLog;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class WriteAheadLogBenchmark {
+    private static final int ENTITIES = Integer.getInteger("entities", 1_000_000);
+    private static final int TAIL_OPERATIONS = Integer.getInteger("tail", 500_000);
+    private static final int THREADS = Integer.getInteger("threads", 8);
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("filmorate-wal");
+        WalProperties properties = new WalProperties(true, directory, DataSize.ofMegabytes(64),
+                Duration.ofMillis(Long.getLong("flushMillis", 10)), false, Duration.ofHours(1));
+
+        try (WriteAheadLog wal = new WriteAheadLog(properties)) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(wal);
+            InMemoryUserStorage userStorage = new InMemoryUserStorage(wal);
+            SnapshotManager snapshotManager = new SnapshotManager(directory, wal, filmStorage, userStorage);
+            snapshotManager.recover();
+
+            long started = System.nanoTime();
+            for (int i = 0; i < ENTITIES; i++) {
+                userStorage.create(new User(null, "user" + i + "@email.com", "user" + i, null,
+                        LocalDate.of(2000, 1, 1)));
+                Film film = new Film();
+                film.setName("Film " + i);
+                film.setDescription("Some description");
+                film.setReleaseDate(LocalDate.of(2000, 1, 1));
+                film.setDuration(90);
+                filmStorage.create(film);
+            }
+            report("Создание сущностей", 2L * ENTITIES, started);
+
+            started = System.nanoTime();
+            snapshotManager.snapshot();
+            report("Снимок", 2L * ENTITIES, started);
+
+            started = System.nanoTime();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Thread thread = new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < TAIL_OPERATIONS / THREADS; i++) {
+                        long filmId = random.nextLong(1, ENTITIES + 1);
+                        long userId = random.nextLong(1, ENTITIES + 1);
+                        filmStorage.addLike(filmId, userId);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            report("Лайки с записью в журнал (" + THREADS + " потоков)", TAIL_OPERATIONS, started);
+        }
+
+        long started = System.nanoTime();
+        try (WriteAheadLog wal = new WriteAheadLog(properties)) {
+            new SnapshotManager(directory, wal, new InMemoryFilmStorage(wal), new InMemoryUserStorage(wal))
+                    .recover();
+        }
+        report("Запуск: снимок + хвост журнала", 2L * ENTITIES + TAIL_OPERATIONS, started);
+    }
+
+    private static void report(String name, long operations, long startedNanos) {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        System.out.printf("%-45s %8.2f с %12.0f оп/с%n", name, seconds, operations / seconds);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.service.BulkService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/bulk")
+public class BulkController {
+    private final BulkService bulkService;
+    private final NdjsonStreamer ndjsonStreamer;
+
+    @PostMapping(value = "/films", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReport importFilms(InputStream body) throws IOException {
+        return bulkService.importFilms(body);
+    }
+
+    @PostMapping(value = "/users", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReport importUsers(InputStream body) throws IOException {
+        return bulkService.importUsers(body);
+    }
+
+    @PostMapping(value = "/likes", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReport importLikes(InputStream body) throws IOException {
+        return bulkService.importLikes(body);
+    }
+
+    @PostMapping(value = "/friendships", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReport importFriendships(InputStream body) throws IOException {
+        return bulkService.importFriendships(body);
+    }
+
+    @GetMapping(value = "/films", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFilms() {
+        return ndjsonStreamer.stream(bulkService::exportFilms);
+    }
+
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ndjsonStreamer.stream(bulkService::exportUsers);
+    }
+
+    @GetMapping(value = "/likes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLikes() {
+        return ndjsonStreamer.stream(bulkService::exportLikes);
+    }
+
+    @GetMapping(value = "/friendships", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFriendships() {
+        return ndjsonStreamer.stream(bulkService::exportFriendships);
+    }
+}
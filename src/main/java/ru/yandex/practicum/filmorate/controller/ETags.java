@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+public final class ETags {
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private ETags() {
+    }
+
+    public static String film(Film film) {
+        return "\"film-" + EPOCH + "-" + film.getId() + "-" + film.getVersion() + "\"";
+    }
+
+    public static String user(User user) {
+        return "\"user-" + EPOCH + "-" + user.getId() + "-" + user.getVersion() + "\"";
+    }
+
+    public static String popular(long popularityVersion, int count) {
+        return "\"popular-" + EPOCH + "-" + count + "-" + popularityVersion + "\"";
+    }
+}
@@ -2,7 +2,10 @@ package ru.yandex.practicum.filmorate.controller;
 
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,25 +16,60 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.service.FilmService;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/films")
 public class FilmController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final FilmService filmService;
+    private final NdjsonStreamer ndjsonStreamer;
 
     @GetMapping
-    public List<Film> findAll() {
-        return filmService.findAll();
+    public List<Film> findAll(@RequestParam(defaultValue = "0") long after,
+                            @RequestParam(required = false) Integer limit) {
+        if (limit == null && after == 0) {
+            return filmService.findAll();
+        }
+        return filmService.findPage(after, limit == null ? DEFAULT_PAGE_SIZE : limit);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ndjsonStreamer.stream(filmService::forEach);
+    }
+
+    @GetMapping("/trending")
+    public List<Film> findTrending(@RequestParam(defaultValue = "24h") String window,
+                                   @RequestParam(defaultValue = "10") int count) {
+        return filmService.findTrending(window, count);
+    }
+
+    @GetMapping("/search")
+    public List<Film> search(@RequestParam(required = false) String q,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                             LocalDate releasedFrom,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                             LocalDate releasedTo,
+                             @RequestParam(required = false) Integer minDuration,
+                             @RequestParam(defaultValue = "0") long after,
+                             @RequestParam(required = false) Integer limit) {
+        return filmService.search(q, releasedFrom, releasedTo, minDuration, after,
+                limit == null ? DEFAULT_PAGE_SIZE : limit);
     }
 
     @GetMapping("/{id}")
-    public Film findById(@PathVariable @Positive long id) {
-        return filmService.findById(id);
+    public ResponseEntity<Film> findById(@PathVariable @Positive long id) {
+        Film film = filmService.findById(id);
+        return ResponseEntity.ok().eTag(ETags.film(film)).body(film);
     }
 
     @PostMapping
@@ -45,6 +83,12 @@ public class FilmController {
         return filmService.update(newFilm);
     }
 
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable long id) {
+        filmService.delete(id);
+    }
+
     @PutMapping("/{id}/like/{userId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void addLike(@PathVariable long id, @PathVariable long userId) {
@@ -58,7 +102,11 @@ public class FilmController {
     }
 
     @GetMapping("/popular")
-    public List<Film> findPopular(@RequestParam(defaultValue = "10") int count) {
-        return filmService.findPopular(count);
+    public ResponseEntity<List<Film>> findPopular(@RequestParam(defaultValue = "10") int count, WebRequest request) {
+        String eTag = ETags.popular(filmService.popularityVersion(count), count);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(filmService.findPopular(count));
     }
 }
@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.stats.DailyLikers;
+import ru.yandex.practicum.filmorate.stats.FrequencyEstimate;
+import ru.yandex.practicum.filmorate.stats.LikeHistogram;
+import ru.yandex.practicum.filmorate.stats.LikeStatistics;
+import ru.yandex.practicum.filmorate.stats.LikeTotals;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/stats")
+public class StatsController {
+    private final LikeStatistics likeStatistics;
+
+    @GetMapping("/likes")
+    public LikeTotals likes() {
+        return likeStatistics.totals();
+    }
+
+    @GetMapping("/likers")
+    public DailyLikers likers(@RequestParam(defaultValue = "1") int days) {
+        return likeStatistics.likers(days);
+    }
+
+    @GetMapping("/films/{id}/likes")
+    public FrequencyEstimate filmLikes(@PathVariable long id) {
+        return likeStatistics.filmLikes(id);
+    }
+
+    @GetMapping("/films/likes-histogram")
+    public LikeHistogram histogram() {
+        return likeStatistics.histogram();
+    }
+}
@@ -2,6 +2,8 @@ package ru.yandex.practicum.filmorate.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,9 +11,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
 import ru.yandex.practicum.filmorate.service.UserService;
 
 import java.util.List;
@@ -20,16 +26,30 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping("/users")
 public class UserController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final UserService userService;
+    private final FilmService filmService;
+    private final NdjsonStreamer ndjsonStreamer;
 
     @GetMapping
-    public List<User> findAll() {
-        return userService.findAll();
+    public List<User> findAll(@RequestParam(defaultValue = "0") long after,
+                            @RequestParam(required = false) Integer limit) {
+        if (limit == null && after == 0) {
+            return userService.findAll();
+        }
+        return userService.findPage(after, limit == null ? DEFAULT_PAGE_SIZE : limit);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ndjsonStreamer.stream(userService::forEach);
     }
 
     @GetMapping("/{id}")
-    public User findById(@PathVariable long id) {
-        return userService.findById(id);
+    public ResponseEntity<User> findById(@PathVariable long id) {
+        User user = userService.findById(id);
+        return ResponseEntity.ok().eTag(ETags.user(user)).body(user);
     }
 
     @PostMapping
@@ -43,6 +63,12 @@ public class UserController {
         return userService.update(newUser);
     }
 
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable long id) {
+        userService.delete(id);
+    }
+
     @PutMapping("/{id}/friends/{friendId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void addFriend(@PathVariable long id, @PathVariable long friendId) {
@@ -60,6 +86,22 @@ public class UserController {
         return userService.findAllFriends(id);
     }
 
+    @GetMapping("/{id}/recommendations/friends")
+    public List<User> findRecommendedFriends(@PathVariable long id, @RequestParam(defaultValue = "10") int count) {
+        return userService.findRecommendedFriends(id, count);
+    }
+
+    @GetMapping("/{id}/likes")
+    public List<Film> findLikedFilms(@PathVariable long id, @RequestParam(defaultValue = "0") long after,
+                                     @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        return filmService.findLikedByUser(id, after, limit);
+    }
+
+    @GetMapping("/{id}/recommendations/films")
+    public List<Film> findRecommendedFilms(@PathVariable long id, @RequestParam(defaultValue = "10") int count) {
+        return filmService.findRecommended(id, count);
+    }
+
     @GetMapping("/{id}/friends/common/{otherId}")
     public List<User> findCommonFriends(@PathVariable long id, @PathVariable long otherId) {
         return userService.findCommonFriends(id, otherId);
@@ -1,12 +1,16 @@
 package ru.yandex.practicum.filmorate.error;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.yandex.practicum.filmorate.exception.ModelValidationException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 
@@ -14,7 +18,17 @@ import java.util.List;
 
 @Slf4j
 @RestControllerAdvice
+@EnableConfigurationProperties(ErrorLoggingProperties.class)
 public class ErrorHandler {
+    private final Counter notFoundCounter;
+    private final LogRateLimiter notFoundWarnings;
+
+    public ErrorHandler(MeterRegistry meterRegistry, ErrorLoggingProperties properties) {
+        notFoundCounter = Counter.builder("filmorate.errors.not_found")
+                .description("Количество запросов к несуществующим сущностям")
+                .register(meterRegistry);
+        notFoundWarnings = new LogRateLimiter(properties.notFoundWarnLimit(), properties.notFoundWarnInterval());
+    }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -26,7 +40,17 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFound(final NotFoundException exception) {
-        log.warn(exception.getMessage(), exception);
+        notFoundCounter.increment();
+        if (notFoundWarnings.tryAcquire()) {
+            long suppressed = notFoundWarnings.drainSuppressed();
+            if (suppressed > 0) {
+                log.warn("{} (ещё {} сообщений о ненайденных сущностях пропущено)", exception.getMessage(), suppressed);
+            } else {
+                log.warn(exception.getMessage());
+            }
+        } else {
+            log.debug(exception.getMessage());
+        }
         return new ErrorResponse(HttpStatus.NOT_FOUND, "Не найдена сущность", exception.getMessage());
     }
 
@@ -42,6 +66,13 @@ public class ErrorHandler {
         return new ValidationErrorResponse(HttpStatus.BAD_REQUEST, violations);
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ValidationErrorResponse handleModelValidation(final ModelValidationException exception) {
+        log.warn(exception.getMessage(), exception);
+        return new ValidationErrorResponse(HttpStatus.BAD_REQUEST, exception.getViolations());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ValidationErrorResponse handleMethodArgumentNotValid(final MethodArgumentNotValidException exception) {
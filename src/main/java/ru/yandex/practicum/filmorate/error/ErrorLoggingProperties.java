@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.error;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("filmorate.errors")
+public record ErrorLoggingProperties(@DefaultValue("10") int notFoundWarnLimit,
+                                     @DefaultValue("1s") Duration notFoundWarnInterval) {
+}
@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.error;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+public class LogRateLimiter {
+    private final int limit;
+    private final long intervalNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicLong windowStart;
+    private final AtomicLong permitted = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogRateLimiter(int limit, Duration interval) {
+        this(limit, interval, System::nanoTime);
+    }
+
+    public LogRateLimiter(int limit, Duration interval, LongSupplier nanoTime) {
+        this.limit = limit;
+        this.intervalNanos = interval.toNanos();
+        this.nanoTime = nanoTime;
+        this.windowStart = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    public boolean tryAcquire() {
+        long now = nanoTime.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+            permitted.set(0);
+        }
+
+        if (permitted.incrementAndGet() <= limit) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    public long drainSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.yandex.practicum.filmorate.exception;
+
+import jakarta.validation.ConstraintViolation;
+import lombok.Getter;
+import ru.yandex.practicum.filmorate.error.Violation;
+
+import java.util.List;
+import java.util.Set;
+
+@Getter
+public class ModelValidationException extends RuntimeException {
+    private final List<Violation> violations;
+
+    public ModelValidationException(String path, Set<? extends ConstraintViolation<?>> violations) {
+        super(path + ": " + violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .toList());
+        this.violations = violations.stream()
+                .map(violation -> new Violation(path + "." + violation.getPropertyPath(), violation.getMessage()))
+                .toList();
+    }
+}
@@ -6,14 +6,22 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 @ResponseStatus(value = HttpStatus.NOT_FOUND)
 public class NotFoundException extends RuntimeException {
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public NotFoundException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 
     public NotFoundException(Throwable throwable) {
-        super(throwable);
+        super(throwable == null ? null : throwable.toString(), throwable, false, false);
+    }
+
+    public static NotFoundException film(long filmId) {
+        return new NotFoundException("Фильм с ID = " + filmId + " не найден");
+    }
+
+    public static NotFoundException user(long userId) {
+        return new NotFoundException("Пользователь с ID = " + userId + " не найден");
     }
 }
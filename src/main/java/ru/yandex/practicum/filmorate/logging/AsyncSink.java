@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class AsyncSink implements Sink, Closeable {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final Sink delegate;
+    private final Counter dropped;
+    private final ThreadPoolExecutor executor;
+
+    public AsyncSink(Sink delegate, HttpLoggingProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.dropped = Counter.builder("filmorate.http.logging.dropped")
+                .description("Количество событий HTTP-лога, отброшенных из-за переполнения очереди")
+                .register(meterRegistry);
+
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, queue,
+                Thread.ofPlatform().name("http-log-writer").daemon().factory(),
+                (task, executor) -> dropped.increment());
+        Gauge.builder("filmorate.http.logging.queue", queue, BlockingQueue::size)
+                .description("Количество событий HTTP-лога, ожидающих записи")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isActive() {
+        return delegate.isActive();
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request) throws IOException {
+        HttpRequest snapshot = HttpMessageSnapshots.copyOf(request);
+        executor.execute(() -> {
+            try {
+                delegate.write(precorrelation, snapshot);
+            } catch (IOException | RuntimeException exception) {
+                log.warn("Не удалось записать HTTP-запрос в лог", exception);
+            }
+        });
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException {
+        HttpRequest requestSnapshot = HttpMessageSnapshots.copyOf(request);
+        HttpResponse responseSnapshot = HttpMessageSnapshots.copyOf(response);
+        executor.execute(() -> {
+            try {
+                delegate.write(correlation, requestSnapshot, responseSnapshot);
+            } catch (IOException | RuntimeException exception) {
+                log.warn("Не удалось записать HTTP-ответ в лог", exception);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("HTTP-лог не успел записать {} событий до остановки", executor.getQueue().size());
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.zalando.logbook.HttpResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+public class BodySizeFilter implements Filter {
+    private final Filter logbookFilter;
+    private final BodySizeStrategy strategy;
+
+    public BodySizeFilter(Filter logbookFilter, BodySizeStrategy strategy) {
+        this.logbookFilter = logbookFilter;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        logbookFilter.doFilter(request, response, (loggedRequest, loggedResponse) -> chain.doFilter(loggedRequest,
+                new BodySizeResponse((HttpServletResponse) loggedResponse)));
+    }
+
+    private class BodySizeResponse extends HttpServletResponseWrapper {
+        private BodySizeResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            skipBodyIfNeeded();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            skipBodyIfNeeded();
+            return super.getWriter();
+        }
+
+        private void skipBodyIfNeeded() {
+            if (getResponse() instanceof HttpResponse logged
+                    && strategy.skipsBody(getContentType(), getHeader(HttpHeaders.CONTENT_LENGTH))) {
+                logged.withoutBody();
+            }
+        }
+    }
+}
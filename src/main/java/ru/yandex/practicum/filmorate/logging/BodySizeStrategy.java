@@ -0,0 +1,73 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.Strategy;
+
+import java.io.IOException;
+
+public class BodySizeStrategy implements Strategy {
+    private final long bodySkipSize;
+
+    public BodySizeStrategy(long bodySkipSize) {
+        this.bodySkipSize = bodySkipSize;
+    }
+
+    @Override
+    public HttpRequest process(HttpRequest request) throws IOException {
+        if (skipsBody(request.getContentType(), request.getHeaders().getFirst(HttpHeaders.CONTENT_LENGTH))) {
+            return request.withoutBody();
+        }
+
+        return request.withBody();
+    }
+
+    @Override
+    public HttpResponse process(HttpRequest request, HttpResponse response) throws IOException {
+        if (skipsBody(response.getContentType(), response.getHeaders().getFirst(HttpHeaders.CONTENT_LENGTH))) {
+            return response.withoutBody();
+        }
+
+        return response.withBody();
+    }
+
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request, Sink sink) throws IOException {
+        sink.write(precorrelation, withinLimit(request));
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response, Sink sink)
+            throws IOException {
+        sink.write(correlation, withinLimit(request), withinLimit(response));
+    }
+
+    boolean skipsBody(String contentType, String contentLength) {
+        if (contentType != null && contentType.startsWith(MediaType.APPLICATION_NDJSON_VALUE)) {
+            return true;
+        }
+
+        if (contentLength == null) {
+            return false;
+        }
+
+        try {
+            return Long.parseLong(contentLength.trim()) > bodySkipSize;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private HttpRequest withinLimit(HttpRequest request) throws IOException {
+        return request.getBody().length > bodySkipSize ? request.withoutBody() : request;
+    }
+
+    private HttpResponse withinLimit(HttpResponse response) throws IOException {
+        return response.getBody().length > bodySkipSize ? response.withoutBody() : response;
+    }
+}
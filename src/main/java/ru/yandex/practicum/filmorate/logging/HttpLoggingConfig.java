@@ -0,0 +1,50 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.zalando.logbook.HttpLogFormatter;
+import org.zalando.logbook.HttpLogWriter;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.core.DefaultSink;
+import org.zalando.logbook.servlet.LogbookFilter;
+
+@Configuration
+@EnableConfigurationProperties(HttpLoggingProperties.class)
+@RequiredArgsConstructor
+public class HttpLoggingConfig {
+    private final HttpLoggingProperties properties;
+
+    @Bean
+    public SamplingCondition requestCondition(MeterRegistry meterRegistry) {
+        return new SamplingCondition(properties, meterRegistry);
+    }
+
+    @Bean
+    public BodySizeStrategy strategy() {
+        return new BodySizeStrategy(properties.bodySkipSize().toBytes());
+    }
+
+    @Bean
+    public FilterRegistrationBean<BodySizeFilter> logbookFilter(Logbook logbook, BodySizeStrategy strategy) {
+        FilterRegistrationBean<BodySizeFilter> registration = new FilterRegistrationBean<>(
+                new BodySizeFilter(new LogbookFilter(logbook), strategy));
+        registration.setName("logbookFilter");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "filmorate.http-logging", name = "async", havingValue = "true",
+            matchIfMissing = true)
+    public AsyncSink sink(HttpLogFormatter formatter, HttpLogWriter writer, MeterRegistry meterRegistry) {
+        return new AsyncSink(new DefaultSink(formatter, writer), properties, meterRegistry);
+    }
+}
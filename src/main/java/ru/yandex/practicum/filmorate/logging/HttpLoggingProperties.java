@@ -0,0 +1,18 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+
+@ConfigurationProperties("filmorate.http-logging")
+public record HttpLoggingProperties(@DefaultValue("true") boolean async,
+                                    @DefaultValue("1024") int queueCapacity,
+                                    @DefaultValue("0.01") double sampleRate,
+                                    Map<String, Double> sampling,
+                                    @DefaultValue("64KB") DataSize bodySkipSize) {
+    public HttpLoggingProperties {
+        sampling = sampling == null ? Map.of() : sampling;
+    }
+}
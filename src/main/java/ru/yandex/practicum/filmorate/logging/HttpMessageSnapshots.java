@@ -0,0 +1,159 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Origin;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Optional;
+
+final class HttpMessageSnapshots {
+    private static final byte[] EMPTY = new byte[0];
+
+    private HttpMessageSnapshots() {
+    }
+
+    static HttpRequest copyOf(HttpRequest request) throws IOException {
+        return new RequestSnapshot(request.getRemote(), request.getMethod(), request.getScheme(), request.getHost(),
+                request.getPort(), request.getPath(), request.getQuery(), request.getProtocolVersion(),
+                request.getOrigin(), HttpHeaders.of(request.getHeaders()), request.getContentType(),
+                request.getCharset(), request.getBody());
+    }
+
+    static HttpResponse copyOf(HttpResponse response) throws IOException {
+        return new ResponseSnapshot(response.getStatus(), response.getProtocolVersion(), response.getOrigin(),
+                HttpHeaders.of(response.getHeaders()), response.getContentType(), response.getCharset(),
+                response.getBody());
+    }
+
+    private record RequestSnapshot(String remote, String method, String scheme, String host, Optional<Integer> port,
+                                   String path, String query, String protocolVersion, Origin origin,
+                                   HttpHeaders headers, String contentType, Charset charset, byte[] body)
+            implements HttpRequest {
+        @Override
+        public String getRemote() {
+            return remote;
+        }
+
+        @Override
+        public String getMethod() {
+            return method;
+        }
+
+        @Override
+        public String getScheme() {
+            return scheme;
+        }
+
+        @Override
+        public String getHost() {
+            return host;
+        }
+
+        @Override
+        public Optional<Integer> getPort() {
+            return port;
+        }
+
+        @Override
+        public String getPath() {
+            return path;
+        }
+
+        @Override
+        public String getQuery() {
+            return query;
+        }
+
+        @Override
+        public String getProtocolVersion() {
+            return protocolVersion;
+        }
+
+        @Override
+        public Origin getOrigin() {
+            return origin;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public Charset getCharset() {
+            return charset;
+        }
+
+        @Override
+        public byte[] getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpRequest withBody() {
+            return this;
+        }
+
+        @Override
+        public HttpRequest withoutBody() {
+            return new RequestSnapshot(remote, method, scheme, host, port, path, query, protocolVersion, origin,
+                    headers, contentType, charset, EMPTY);
+        }
+    }
+
+    private record ResponseSnapshot(int status, String protocolVersion, Origin origin, HttpHeaders headers,
+                                    String contentType, Charset charset, byte[] body) implements HttpResponse {
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public String getProtocolVersion() {
+            return protocolVersion;
+        }
+
+        @Override
+        public Origin getOrigin() {
+            return origin;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public Charset getCharset() {
+            return charset;
+        }
+
+        @Override
+        public byte[] getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpResponse withBody() {
+            return this;
+        }
+
+        @Override
+        public HttpResponse withoutBody() {
+            return new ResponseSnapshot(status, protocolVersion, origin, headers, contentType, charset, EMPTY);
+        }
+    }
+}
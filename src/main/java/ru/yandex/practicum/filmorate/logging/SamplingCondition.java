@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.util.AntPathMatcher;
+import org.zalando.logbook.HttpRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+public class SamplingCondition implements Predicate<HttpRequest> {
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final List<Map.Entry<String, Double>> rates;
+    private final double defaultRate;
+    private final Counter sampledOut;
+
+    public SamplingCondition(HttpLoggingProperties properties, MeterRegistry meterRegistry) {
+        this.rates = new ArrayList<>(properties.sampling().entrySet());
+        this.defaultRate = properties.sampleRate();
+        this.sampledOut = Counter.builder("filmorate.http.logging.sampled_out")
+                .description("Количество запросов, не попавших в выборку для логирования")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean test(HttpRequest request) {
+        double rate = rateFor(request.getPath());
+        if (rate >= 1.0 || rate > 0 && ThreadLocalRandom.current().nextDouble() < rate) {
+            return true;
+        }
+
+        sampledOut.increment();
+        return false;
+    }
+
+    private double rateFor(String path) {
+        for (Map.Entry<String, Double> rate : rates) {
+            if (matcher.match(rate.getKey(), path)) {
+                return rate.getValue();
+            }
+        }
+
+        return defaultRate;
+    }
+}
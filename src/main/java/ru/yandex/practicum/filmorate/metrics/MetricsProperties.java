@@ -0,0 +1,12 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("filmorate.metrics")
+public record MetricsProperties(@DefaultValue("1m") Duration setSizeRefresh,
+                                @DefaultValue("10000") int setSizeBatch,
+                                @DefaultValue("10") int outliers) {
+}
@@ -0,0 +1,22 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "outliers")
+@RequiredArgsConstructor
+public class OutliersEndpoint {
+    private final StorageMetrics storageMetrics;
+
+    @ReadOperation
+    public Map<String, SetSizeStatistics> outliers() {
+        return Map.of(
+                "filmLikes", storageMetrics.likes(),
+                "userFriends", storageMetrics.friends());
+    }
+}
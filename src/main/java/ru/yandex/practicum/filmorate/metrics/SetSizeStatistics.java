@@ -0,0 +1,90 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public record SetSizeStatistics(int count, double mean, int median, int p99, int max, List<Outlier> outliers) {
+    public static final SetSizeStatistics EMPTY = new SetSizeStatistics(0, 0, 0, 0, 0, List.of());
+
+    public record Outlier(long id, int size) {
+        private static final Comparator<Outlier> ORDER = Comparator.comparingInt(Outlier::size)
+                .thenComparing(Outlier::id, Comparator.reverseOrder());
+    }
+
+    public static Tracker tracker(int outlierLimit) {
+        return new Tracker(outlierLimit);
+    }
+
+    public static final class Tracker {
+        private final int outlierLimit;
+        private final NavigableMap<Long, Integer> sizes = new TreeMap<>();
+        private final NavigableMap<Integer, Integer> counts = new TreeMap<>();
+        private final NavigableSet<Outlier> largest = new TreeSet<>(Outlier.ORDER);
+        private long total;
+
+        private Tracker(int outlierLimit) {
+            this.outlierLimit = outlierLimit;
+        }
+
+        public void put(long id, int size) {
+            Integer previous = sizes.put(id, size);
+            if (previous != null) {
+                if (previous == size) {
+                    return;
+                }
+                forget(id, previous);
+            }
+
+            total += size;
+            counts.merge(size, 1, Integer::sum);
+            if (size > 0) {
+                largest.add(new Outlier(id, size));
+            }
+        }
+
+        public void removeRange(long afterId, long toId) {
+            Iterator<Map.Entry<Long, Integer>> entries = sizes.subMap(afterId, false, toId, true).entrySet()
+                    .iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Long, Integer> entry = entries.next();
+                forget(entry.getKey(), entry.getValue());
+                entries.remove();
+            }
+        }
+
+        public SetSizeStatistics build() {
+            int count = sizes.size();
+            if (count == 0) {
+                return EMPTY;
+            }
+
+            List<Outlier> outliers = largest.descendingSet().stream().limit(outlierLimit).toList();
+            return new SetSizeStatistics(count, (double) total / count, percentile(0.5, count),
+                    percentile(0.99, count), counts.lastKey(), outliers);
+        }
+
+        private void forget(long id, int size) {
+            total -= size;
+            counts.computeIfPresent(size, (key, value) -> value == 1 ? null : value - 1);
+            largest.remove(new Outlier(id, size));
+        }
+
+        private int percentile(double quantile, int count) {
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+                seen += entry.getValue();
+                if (seen >= rank) {
+                    return entry.getKey();
+                }
+            }
+            return counts.lastKey();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ru.yandex.practicum.filmorate.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(MetricsProperties.class)
+public class StorageMetrics implements MeterBinder {
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final MetricsProperties properties;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final SetSizeStatistics.Tracker likes;
+    private final SetSizeStatistics.Tracker friends;
+
+    private volatile Snapshot snapshot;
+    private long filmCursor;
+    private long userCursor;
+
+    public StorageMetrics(FilmStorage filmStorage, UserStorage userStorage, MetricsProperties properties) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+        this.properties = properties;
+        this.likes = SetSizeStatistics.tracker(properties.outliers());
+        this.friends = SetSizeStatistics.tracker(properties.outliers());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("filmorate.films", filmStorage, FilmStorage::count)
+                .description("Количество фильмов в хранилище")
+                .register(registry);
+        Gauge.builder("filmorate.users", userStorage, UserStorage::count)
+                .description("Количество пользователей в хранилище")
+                .register(registry);
+
+        registerSetSizeGauges(registry, "filmorate.film.likes", "Размер множества лайков фильма",
+                Snapshot::likes);
+        registerSetSizeGauges(registry, "filmorate.user.friends", "Размер множества друзей пользователя",
+                Snapshot::friends);
+    }
+
+    public SetSizeStatistics likes() {
+        return current().likes();
+    }
+
+    public SetSizeStatistics friends() {
+        return current().friends();
+    }
+
+    private void registerSetSizeGauges(MeterRegistry registry, String name, String description,
+                                       Function<Snapshot, SetSizeStatistics> statistics) {
+        registerSetSizeGauge(registry, name, description, "mean", s -> statistics.apply(s).mean());
+        registerSetSizeGauge(registry, name, description, "p50", s -> statistics.apply(s).median());
+        registerSetSizeGauge(registry, name, description, "p99", s -> statistics.apply(s).p99());
+        registerSetSizeGauge(registry, name, description, "max", s -> statistics.apply(s).max());
+    }
+
+    private void registerSetSizeGauge(MeterRegistry registry, String name, String description, String statistic,
+                                      ToDoubleFunction<Snapshot> value) {
+        Gauge.builder(name, this, metrics -> value.applyAsDouble(metrics.current()))
+                .description(description)
+                .tag("statistic", statistic)
+                .register(registry);
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.takenAt() < properties.setSizeRefresh().toNanos()) {
+            return current;
+        }
+
+        refreshLock.lock();
+        try {
+            if (snapshot != current) {
+                return snapshot;
+            }
+
+            long startedAt = System.nanoTime();
+            filmCursor = scan(filmCursor, likes, filmStorage::findPage, Film::getId,
+                    film -> film.getUserLikes().size());
+            userCursor = scan(userCursor, friends, userStorage::findPage, User::getId,
+                    user -> user.getFriends().size());
+
+            snapshot = new Snapshot(startedAt, likes.build(), friends.build());
+            log.trace("Статистика размеров множеств обновлена за {} мс", (System.nanoTime() - startedAt) / 1_000_000);
+            return snapshot;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private <T> long scan(long cursor, SetSizeStatistics.Tracker tracker, BiFunction<Long, Integer, List<T>> pages,
+                          ToLongFunction<T> id, ToIntFunction<T> size) {
+        int limit = properties.setSizeBatch();
+        List<T> page = pages.apply(cursor, limit);
+        boolean lastPage = page.size() < limit;
+        long lastId = lastPage ? Long.MAX_VALUE : id.applyAsLong(page.getLast());
+        tracker.removeRange(cursor, lastId);
+        page.forEach(entity -> tracker.put(id.applyAsLong(entity), size.applyAsInt(entity)));
+        return lastPage ? 0 : lastId;
+    }
+
+    private record Snapshot(long takenAt, SetSizeStatistics likes, SetSizeStatistics friends) {
+    }
+}
@@ -1,10 +1,14 @@
 package ru.yandex.practicum.filmorate.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
 import ru.yandex.practicum.filmorate.validator.annotation.NullOrNotBlank;
 import ru.yandex.practicum.filmorate.validator.annotation.ReleaseDate;
 import ru.yandex.practicum.filmorate.validator.group.Create;
@@ -12,7 +16,6 @@ import ru.yandex.practicum.filmorate.validator.group.Default;
 import ru.yandex.practicum.filmorate.validator.group.Update;
 
 import java.time.LocalDate;
-import java.util.HashSet;
 import java.util.Set;
 
 @Data
@@ -34,5 +37,18 @@ public class Film {
     @Positive(groups = Default.class)
     private Integer duration;
 
-    private Set<Long> userLikes = new HashSet<>();
+    private LongSortedSet userLikes = new LongSortedSet();
+
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile long version;
+
+    public void setUserLikes(Set<Long> userLikes) {
+        this.userLikes = userLikes == null ? new LongSortedSet() : LongSortedSet.copyOf(userLikes);
+    }
+
+    public void incrementVersion() {
+        version++;
+    }
 }
@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.time.LocalDate;
+
+public record FilmSearchQuery(String text, LocalDate releasedFrom, LocalDate releasedTo, Integer minDuration,
+                              long afterId, int limit) {
+    public boolean hasText() {
+        return text != null && !text.isBlank();
+    }
+
+    public boolean hasReleaseRange() {
+        return releasedFrom != null || releasedTo != null;
+    }
+
+    public boolean isUnfiltered() {
+        return !hasText() && !hasReleaseRange() && minDuration == null;
+    }
+
+    public boolean matches(Film film) {
+        LocalDate releaseDate = film.getReleaseDate();
+        if (hasReleaseRange() && (releaseDate == null
+                || releasedFrom != null && releaseDate.isBefore(releasedFrom)
+                || releasedTo != null && releaseDate.isAfter(releasedTo))) {
+            return false;
+        }
+
+        return minDuration == null || film.getDuration() != null && film.getDuration() >= minDuration;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.yandex.practicum.filmorate.model;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import ru.yandex.practicum.filmorate.validator.group.Default;
+
+public record Friendship(@NotNull(groups = Default.class) @Positive(groups = Default.class) Long userId,
+                         @NotNull(groups = Default.class) @Positive(groups = Default.class) Long friendId) {
+}
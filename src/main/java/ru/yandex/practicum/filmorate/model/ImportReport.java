@@ -0,0 +1,9 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.util.List;
+
+public record ImportReport(long received, long imported, long rejected, long elapsedMillis,
+                           double recordsPerSecond, List<ImportError> errors) {
+    public record ImportError(long line, String message) {
+    }
+}
@@ -1,11 +1,15 @@
 package ru.yandex.practicum.filmorate.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
 import ru.yandex.practicum.filmorate.validator.annotation.HasNotWhiteSpace;
 import ru.yandex.practicum.filmorate.validator.annotation.NullOrNotBlank;
 import ru.yandex.practicum.filmorate.validator.group.Create;
@@ -13,7 +17,6 @@ import ru.yandex.practicum.filmorate.validator.group.Default;
 import ru.yandex.practicum.filmorate.validator.group.Update;
 
 import java.time.LocalDate;
-import java.util.HashSet;
 import java.util.Set;
 
 @Data
@@ -37,7 +40,12 @@ public class User {
     @PastOrPresent(groups = Default.class)
     private LocalDate birthday;
 
-    private Set<Long> friends = new HashSet<>();
+    private LongSortedSet friends = new LongSortedSet();
+
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile long version;
 
     public User() {
     }
@@ -63,4 +71,12 @@ public class User {
 
         this.login = login;
     }
+
+    public void setFriends(Set<Long> friends) {
+        this.friends = friends == null ? new LongSortedSet() : LongSortedSet.copyOf(friends);
+    }
+
+    public void incrementVersion() {
+        version++;
+    }
 }
@@ -0,0 +1,9 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("filmorate.bulk")
+public record BulkImportProperties(@DefaultValue("1000") int batchSize,
+                                   @DefaultValue("100") int maxErrors) {
+}
@@ -0,0 +1,294 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.stats.LikeStatistics;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.trending.TrendingPipeline;
+import ru.yandex.practicum.filmorate.validator.ModelValidator;
+import ru.yandex.practicum.filmorate.validator.group.Create;
+import ru.yandex.practicum.filmorate.validator.group.Default;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Timed(value = "filmorate.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
+@EnableConfigurationProperties(BulkImportProperties.class)
+public class BulkService {
+    private static final Class<?>[] ENTITY_GROUPS = {Create.class, Default.class};
+    private static final Class<?>[] RELATION_GROUPS = {Default.class};
+
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final FriendRecommender friendRecommender;
+    private final ModelValidator modelValidator;
+    private final TrendingPipeline trendingPipeline;
+    private final LikeStatistics likeStatistics;
+    private final ObjectMapper objectMapper;
+    private final BulkImportProperties properties;
+
+    public BulkService(FilmStorage filmStorage, UserStorage userStorage, FriendRecommender friendRecommender,
+                       ModelValidator modelValidator, TrendingPipeline trendingPipeline, LikeStatistics likeStatistics,
+                       ObjectMapper objectMapper, BulkImportProperties properties) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+        this.friendRecommender = friendRecommender;
+        this.modelValidator = modelValidator;
+        this.trendingPipeline = trendingPipeline;
+        this.likeStatistics = likeStatistics;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public ImportReport importFilms(InputStream input) throws IOException {
+        return importRecords("фильмов", input, Film.class, ENTITY_GROUPS, this::applyFilms);
+    }
+
+    public ImportReport importUsers(InputStream input) throws IOException {
+        return importRecords("пользователей", input, User.class, ENTITY_GROUPS, this::applyUsers);
+    }
+
+    public ImportReport importLikes(InputStream input) throws IOException {
+        return importRecords("лайков", input, Like.class, RELATION_GROUPS, this::applyLikes);
+    }
+
+    public ImportReport importFriendships(InputStream input) throws IOException {
+        return importRecords("дружб", input, Friendship.class, RELATION_GROUPS, this::applyFriendships);
+    }
+
+    public void exportFilms(Consumer<Film> action) {
+        filmStorage.forEach(action);
+    }
+
+    public void exportUsers(Consumer<User> action) {
+        userStorage.forEach(action);
+    }
+
+    public void exportLikes(Consumer<Like> action) {
+        filmStorage.forEach(film -> film.getUserLikes()
+                .forEachLong(userId -> action.accept(new Like(film.getId(), userId))));
+    }
+
+    public void exportFriendships(Consumer<Friendship> action) {
+        userStorage.forEach(user -> user.getFriends().forEachLong(friendId -> {
+            if (user.getId() < friendId) {
+                action.accept(new Friendship(user.getId(), friendId));
+            }
+        }));
+    }
+
+    private <T> ImportReport importRecords(String type, InputStream input, Class<T> recordType, Class<?>[] groups,
+                                           BatchApplier<T> applier) throws IOException {
+        long started = System.nanoTime();
+        ImportProgress progress = new ImportProgress(properties.maxErrors());
+        ObjectReader reader = objectMapper.readerFor(recordType);
+        List<Line<T>> batch = new ArrayList<>(properties.batchSize());
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long number = 0;
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                number++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                progress.received++;
+                try {
+                    batch.add(new Line<>(number, reader.readValue(line)));
+                } catch (JsonProcessingException e) {
+                    progress.reject(number, "Некорректный JSON: " + e.getOriginalMessage());
+                }
+
+                if (batch.size() == properties.batchSize()) {
+                    applyBatch(batch, groups, applier, progress);
+                    batch.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            applyBatch(batch, groups, applier, progress);
+        }
+
+        ImportReport report = progress.report(System.nanoTime() - started);
+        log.info("Импорт {}: получено {}, импортировано {}, отклонено {} за {} мс ({} записей/с)", type,
+                report.received(), report.imported(), report.rejected(), report.elapsedMillis(),
+                Math.round(report.recordsPerSecond()));
+        return report;
+    }
+
+    private <T> void applyBatch(List<Line<T>> batch, Class<?>[] groups, BatchApplier<T> applier,
+                                ImportProgress progress) {
+        List<Line<T>> valid = new ArrayList<>(batch.size());
+        for (Line<T> line : batch) {
+            Set<ConstraintViolation<T>> violations = modelValidator.violations(line.value(), groups);
+            if (violations.isEmpty()) {
+                valid.add(line);
+            } else {
+                progress.reject(line.number(), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            progress.imported += applier.apply(valid, progress);
+        }
+    }
+
+    private int applyFilms(List<Line<Film>> lines, ImportProgress progress) {
+        Set<Long> taken = new HashSet<>();
+        filmStorage.findAllByIds(idsOf(lines, Film::getId)).found().forEach(film -> taken.add(film.getId()));
+
+        List<Film> films = new ArrayList<>(lines.size());
+        for (Line<Film> line : lines) {
+            Film film = line.value();
+            if (film.getId() != null && !taken.add(film.getId())) {
+                progress.reject(line.number(), "Фильм с ID = " + film.getId() + " уже существует");
+                continue;
+            }
+
+            film.setUserLikes(null);
+            films.add(film);
+        }
+
+        return filmStorage.createAll(films).size();
+    }
+
+    private int applyUsers(List<Line<User>> lines, ImportProgress progress) {
+        Set<Long> taken = new HashSet<>();
+        userStorage.findAllByIds(idsOf(lines, User::getId)).found().forEach(user -> taken.add(user.getId()));
+
+        List<User> users = new ArrayList<>(lines.size());
+        for (Line<User> line : lines) {
+            User user = line.value();
+            if (user.getId() != null && !taken.add(user.getId())) {
+                progress.reject(line.number(), "Пользователь с ID = " + user.getId() + " уже существует");
+                continue;
+            }
+
+            user.setFriends(null);
+            users.add(user);
+        }
+
+        return userStorage.createAll(users).size();
+    }
+
+    private int applyLikes(List<Line<Like>> lines, ImportProgress progress) {
+        Set<Long> missingFilms = new HashSet<>(filmStorage.findAllByIds(idsOf(lines, Like::filmId)).missingIds());
+        Set<Long> missingUsers = new HashSet<>(userStorage.findAllByIds(idsOf(lines, Like::userId)).missingIds());
+
+        List<Like> likes = new ArrayList<>(lines.size());
+        for (Line<Like> line : lines) {
+            Like like = line.value();
+            if (missingFilms.contains(like.filmId())) {
+                progress.reject(line.number(), "Фильм с ID = " + like.filmId() + " не найден");
+            } else if (missingUsers.contains(like.userId())) {
+                progress.reject(line.number(), "Пользователь с ID = " + like.userId() + " не найден");
+            } else {
+                likes.add(like);
+            }
+        }
+
+        for (Like like : filmStorage.addLikes(likes)) {
+            trendingPipeline.likeAdded(like.filmId());
+            likeStatistics.likeAdded(like.filmId(), like.userId());
+        }
+        return likes.size();
+    }
+
+    private int applyFriendships(List<Line<Friendship>> lines, ImportProgress progress) {
+        List<Long> userIds = new ArrayList<>(idsOf(lines, Friendship::userId));
+        userIds.addAll(idsOf(lines, Friendship::friendId));
+        Set<Long> missingUsers = new HashSet<>(userStorage.findAllByIds(userIds.stream().distinct().toList())
+                .missingIds());
+
+        List<Friendship> friendships = new ArrayList<>(lines.size());
+        for (Line<Friendship> line : lines) {
+            Friendship friendship = line.value();
+            if (friendship.userId().equals(friendship.friendId())) {
+                progress.reject(line.number(), "Пользователь с ID = " + friendship.userId() +
+                        " не может дружить сам с собой");
+            } else if (missingUsers.contains(friendship.userId())) {
+                progress.reject(line.number(), "Пользователь с ID = " + friendship.userId() + " не найден");
+            } else if (missingUsers.contains(friendship.friendId())) {
+                progress.reject(line.number(), "Пользователь с ID = " + friendship.friendId() + " не найден");
+            } else {
+                friendships.add(friendship);
+            }
+        }
+
+        userStorage.addFriendships(friendships);
+        if (!friendships.isEmpty()) {
+            friendRecommender.invalidateAll();
+        }
+        return friendships.size();
+    }
+
+    private static <T> List<Long> idsOf(List<Line<T>> lines, Function<T, Long> id) {
+        return lines.stream()
+                .map(line -> id.apply(line.value()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    @FunctionalInterface
+    private interface BatchApplier<T> {
+        int apply(List<Line<T>> lines, ImportProgress progress);
+    }
+
+    private record Line<T>(long number, T value) {
+    }
+
+    private static final class ImportProgress {
+        private final int maxErrors;
+        private final List<ImportReport.ImportError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long rejected;
+
+        private ImportProgress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportReport.ImportError(line, message));
+            }
+        }
+
+        private ImportReport report(long elapsedNanos) {
+            double seconds = Math.max(elapsedNanos, 1) / 1e9;
+            return new ImportReport(received, imported, rejected, elapsedNanos / 1_000_000,
+                    imported / seconds, List.copyOf(errors));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("filmorate.recommendations.films")
+public record FilmRecommendationProperties(@DefaultValue("500") int maxFilms,
+                                           @DefaultValue("1000") int maxLikersPerFilm,
+                                           @DefaultValue("200000") int maxVisited,
+                                           @DefaultValue("50") int neighbours,
+                                           @DefaultValue("100000") int parallelThreshold) {
+}
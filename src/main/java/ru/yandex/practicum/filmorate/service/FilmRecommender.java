@@ -0,0 +1,97 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.util.LongIntCounter;
+import ru.yandex.practicum.filmorate.util.LongSets;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(FilmRecommendationProperties.class)
+public class FilmRecommender {
+    private static final int SCORE_SCALE = 1_000_000;
+
+    private final FilmStorage filmStorage;
+    private final FilmRecommendationProperties properties;
+
+    public FilmRecommender(FilmStorage filmStorage, FilmRecommendationProperties properties) {
+        this.filmStorage = filmStorage;
+        this.properties = properties;
+    }
+
+    public long[] recommend(long userId, int count) {
+        LongSortedSet liked = filmStorage.findLikedFilmIds(userId);
+        if (liked.isEmpty()) {
+            return new long[0];
+        }
+
+        long[] neighbourIds = findNeighbours(userId, liked);
+        Map<Long, LongSortedSet> neighbourLikes = filmStorage.findLikedFilmIdsByUsers(
+                Arrays.stream(neighbourIds).boxed().toList());
+        LongSortedSet[] likes = new LongSortedSet[neighbourIds.length];
+        long work = 0;
+        for (int i = 0; i < neighbourIds.length; i++) {
+            likes[i] = neighbourLikes.getOrDefault(neighbourIds[i], new LongSortedSet());
+            work += likes[i].size();
+        }
+
+        double[] similarity = new double[likes.length];
+        IntStream indexes = IntStream.range(0, likes.length);
+        if (work + (long) liked.size() * likes.length >= properties.parallelThreshold()) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> similarity[i] = jaccard(liked, likes[i]));
+
+        LongIntCounter scores = new LongIntCounter((int) Math.min(work, 1 << 16));
+        for (int i = 0; i < likes.length; i++) {
+            int weight = (int) Math.round(similarity[i] * SCORE_SCALE);
+            if (weight > 0) {
+                likes[i].forEachLong(filmId -> {
+                    if (!liked.contains(filmId)) {
+                        scores.add(filmId, weight);
+                    }
+                });
+            }
+        }
+
+        return scores.top(count);
+    }
+
+    private long[] findNeighbours(long userId, LongSortedSet liked) {
+        List<Long> expanded = new ArrayList<>(Math.min(liked.size(), properties.maxFilms()));
+        liked.forEachSampled(properties.maxFilms(), expanded::add);
+
+        LongIntCounter coLikes = new LongIntCounter(1024);
+        int[] visited = new int[1];
+        for (Film film : filmStorage.findAllByIds(expanded).found()) {
+            film.getUserLikes().forEachSampled(properties.maxLikersPerFilm(), likerId -> {
+                if (visited[0]++ < properties.maxVisited() && likerId != userId) {
+                    coLikes.increment(likerId);
+                }
+            });
+            if (visited[0] >= properties.maxVisited()) {
+                log.debug("Поиск похожих пользователей для пользователя с ID = {} остановлен на {} лайках", userId,
+                        properties.maxVisited());
+                break;
+            }
+        }
+
+        return coLikes.top(properties.neighbours());
+    }
+
+    private static double jaccard(LongSortedSet first, LongSortedSet second) {
+        int common = LongSets.intersectionSize(first, second);
+        int union = first.size() + second.size() - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+}
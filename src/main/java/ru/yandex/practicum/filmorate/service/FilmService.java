@@ -1,68 +1,158 @@
 package ru.yandex.practicum.filmorate.service;
 
-import jakarta.validation.Valid;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchQuery;
+import ru.yandex.practicum.filmorate.stats.LikeStatistics;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
 import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.trending.TrendingPipeline;
+import ru.yandex.practicum.filmorate.trending.TrendingWindow;
+import ru.yandex.practicum.filmorate.validator.ModelValidator;
 import ru.yandex.practicum.filmorate.validator.group.Create;
 import ru.yandex.practicum.filmorate.validator.group.Default;
 import ru.yandex.practicum.filmorate.validator.group.Update;
 
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @Validated
+@Timed(value = "filmorate.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Slf4j
 @RequiredArgsConstructor
 public class FilmService {
     private final FilmStorage filmStorage;
     private final UserStorage userStorage;
+    private final FilmRecommender filmRecommender;
+    private final ModelValidator modelValidator;
+    private final TrendingPipeline trendingPipeline;
+    private final LikeStatistics likeStatistics;
 
     public List<Film> findAll() {
         return filmStorage.findAll();
     }
 
+    public List<Film> findPage(@PositiveOrZero long afterId, @Positive int limit) {
+        return filmStorage.findPage(afterId, limit);
+    }
+
+    public void forEach(Consumer<Film> action) {
+        filmStorage.forEach(action);
+    }
+
     public Film findById(@Positive long filmId) {
         return filmStorage.findById(filmId);
     }
 
-    @Validated({Create.class, Default.class})
-    public Film create(@Valid Film film) {
+    public Film create(Film film) {
+        modelValidator.validate(film, "create.film", Create.class, Default.class);
         return filmStorage.create(film);
     }
 
-    @Validated({Update.class, Default.class})
-    public Film update(@Valid Film newFilm) {
+    public Film update(Film newFilm) {
+        modelValidator.validate(newFilm, "update.newFilm", Update.class, Default.class);
         return filmStorage.update(newFilm);
     }
 
+    public void delete(@Positive long filmId) {
+        int likes = filmStorage.delete(filmId);
+        trendingPipeline.likesRemoved(filmId, likes);
+        likeStatistics.likesRemoved(filmId, likes);
+    }
+
     public void addLike(@Positive long filmId, @Positive long userId) {
-        Film film = filmStorage.findById(filmId);
-        userStorage.findById(userId);
-        film.getUserLikes().add(userId);
+        requireFilm(filmId);
+        if (userStorage.callLocked(userId, () -> filmStorage.addLike(filmId, userId))) {
+            trendingPipeline.likeAdded(filmId);
+            likeStatistics.likeAdded(filmId, userId);
+        }
         log.debug("Пользователь с ID = {} лайкнул фильм с ID = {}", userId, filmId);
     }
 
     public void removeLike(@Positive long filmId, @Positive long userId) {
-        Film film = filmStorage.findById(filmId);
-        userStorage.findById(userId);
-        film.getUserLikes().remove(userId);
+        requireFilm(filmId);
+        requireUser(userId);
+        if (filmStorage.removeLike(filmId, userId)) {
+            trendingPipeline.likeRemoved(filmId);
+            likeStatistics.likeRemoved(filmId);
+        }
         log.debug("Пользователь с ID = {} удалил лайк у фильма с ID = {}", userId, filmId);
     }
 
     public List<Film> findPopular(@Positive int count) {
-        List<Film> films = filmStorage.findAll();
-        List<Film> popularFilms = films.stream()
-                .sorted((f1, f2) -> Integer.compare(f2.getUserLikes().size(), f1.getUserLikes().size()))
-                .limit(count)
-                .toList();
+        List<Film> popularFilms = filmStorage.findPopular(count);
 
         log.trace("Список популярных фильмов:\n{}", popularFilms);
         return popularFilms;
     }
+
+    public List<Film> findTrending(String window, @Positive int count) {
+        long[] filmIds = trendingPipeline.ranking(TrendingWindow.of(window)).head(count);
+        List<Film> trending = filmStorage.findAllByIds(Arrays.stream(filmIds).boxed().toList()).found();
+
+        log.trace("Список фильмов в тренде за {}:\n{}", window, trending);
+        return trending;
+    }
+
+    public List<Film> search(String text, LocalDate releasedFrom, LocalDate releasedTo, @Positive Integer minDuration,
+                             @PositiveOrZero long afterId, @Positive int limit) {
+        if (releasedFrom != null && releasedTo != null && releasedFrom.isAfter(releasedTo)) {
+            throw new ValidationException("Начало периода релиза " + releasedFrom + " позже его конца " + releasedTo);
+        }
+
+        List<Film> found = filmStorage.search(new FilmSearchQuery(text, releasedFrom, releasedTo, minDuration,
+                afterId, limit));
+        log.trace("Найдено {} фильмов по запросу \"{}\"", found.size(), text);
+        return found;
+    }
+
+    public long popularityVersion(int count) {
+        return filmStorage.popularityVersion(count);
+    }
+
+    public List<Film> findLikedByUser(@Positive long userId, @PositiveOrZero long afterFilmId, @Positive int limit) {
+        requireUser(userId);
+        long[] filmIds = filmStorage.findLikedFilmIds(userId).slice(afterFilmId, limit);
+        return findExisting(filmStorage.findAllByIds(Arrays.stream(filmIds).boxed().toList()));
+    }
+
+    public List<Film> findRecommended(@Positive long userId, @Positive int count) {
+        requireUser(userId);
+        List<Film> recommended = findExisting(filmStorage.findAllByIds(
+                Arrays.stream(filmRecommender.recommend(userId, count)).boxed().toList()));
+
+        log.trace("Рекомендованные фильмы для пользователя с ID = {}:\n{}", userId, recommended);
+        return recommended;
+    }
+
+    private void requireFilm(long filmId) {
+        if (!filmStorage.exists(filmId)) {
+            throw NotFoundException.film(filmId);
+        }
+    }
+
+    private void requireUser(long userId) {
+        if (!userStorage.exists(userId)) {
+            throw NotFoundException.user(userId);
+        }
+    }
+
+    private List<Film> findExisting(LookupResult<Film> lookup) {
+        if (lookup.hasMissing()) {
+            log.warn("Не найдены фильмы с ID = {}", lookup.missingIds());
+        }
+        return lookup.found();
+    }
 }
@@ -0,0 +1,12 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("filmorate.recommendations.friends")
+public record FriendRecommendationProperties(@DefaultValue("500") int maxFriends,
+                                             @DefaultValue("500") int maxFriendsOfFriend,
+                                             @DefaultValue("100000") int maxVisited,
+                                             @DefaultValue("50") int maxResults,
+                                             @DefaultValue("100000") int cacheSize) {
+}
@@ -0,0 +1,148 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.util.LongIntCounter;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(FriendRecommendationProperties.class)
+public class FriendRecommender {
+    private final UserStorage userStorage;
+    private final FriendRecommendationProperties properties;
+    private final Map<Long, long[]> cache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public FriendRecommender(UserStorage userStorage, FriendRecommendationProperties properties) {
+        this.userStorage = userStorage;
+        this.properties = properties;
+    }
+
+    public long[] recommend(long userId, int count) {
+        long[] recommended = cache.get(userId);
+        if (recommended == null) {
+            long startedAt = generation.get();
+            recommended = compute(userStorage.findById(userId));
+            if (generation.get() == startedAt) {
+                cacheResult(userId, recommended);
+            }
+        }
+
+        return recommended.length <= count ? recommended : Arrays.copyOf(recommended, count);
+    }
+
+    public void invalidate(long userId, long friendId) {
+        generation.incrementAndGet();
+        invalidateAround(userId);
+        invalidateAround(friendId);
+    }
+
+    public void invalidate(long userId) {
+        generation.incrementAndGet();
+        invalidateAround(userId);
+    }
+
+    public void invalidate(long userId, LongSortedSet friendIds) {
+        generation.incrementAndGet();
+        cache.remove(userId);
+        invalidateFriends(friendIds);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    private void invalidateAround(long userId) {
+        cache.remove(userId);
+        Optional<User> user = userStorage.find(userId);
+        if (user.isEmpty()) {
+            return;
+        }
+
+        invalidateFriends(user.get().getFriends());
+    }
+
+    private void invalidateFriends(LongSortedSet friends) {
+        if (cache.size() < friends.size()) {
+            cache.keySet().removeIf(friends::contains);
+        } else {
+            friends.forEachLong(cache::remove);
+        }
+    }
+
+    private long[] compute(User user) {
+        LongSortedSet friends = user.getFriends();
+        List<Long> expanded = new ArrayList<>(Math.min(friends.size(), properties.maxFriends()));
+        friends.forEachSampled(properties.maxFriends(), expanded::add);
+
+        Traversal traversal = new Traversal(user.getId(), friends, properties.maxVisited());
+        for (User friend : userStorage.findAllByIds(expanded).found()) {
+            friend.getFriends().forEachSampled(properties.maxFriendsOfFriend(), traversal::visit);
+            if (traversal.exhausted()) {
+                log.debug("Обход друзей друзей пользователя с ID = {} остановлен на {} рёбрах", user.getId(),
+                        properties.maxVisited());
+                break;
+            }
+        }
+
+        return traversal.mutualFriends.top(properties.maxResults());
+    }
+
+    private void cacheResult(long userId, long[] recommended) {
+        if (properties.cacheSize() == 0) {
+            return;
+        }
+        if (cache.size() >= properties.cacheSize()) {
+            Iterator<Long> iterator = cache.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        cache.put(userId, recommended);
+    }
+
+    private static final class Traversal {
+        private final long userId;
+        private final LongSortedSet friends;
+        private final int maxVisited;
+        private final LongIntCounter mutualFriends;
+        private int visited;
+
+        private Traversal(long userId, LongSortedSet friends, int maxVisited) {
+            this.userId = userId;
+            this.friends = friends;
+            this.maxVisited = maxVisited;
+            this.mutualFriends = new LongIntCounter(Math.min(maxVisited, 1024));
+        }
+
+        private void visit(long candidateId) {
+            if (exhausted()) {
+                return;
+            }
+
+            visited++;
+            if (candidateId != userId && !friends.contains(candidateId)) {
+                mutualFriends.increment(candidateId);
+            }
+        }
+
+        private boolean exhausted() {
+            return visited >= maxVisited;
+        }
+    }
+}
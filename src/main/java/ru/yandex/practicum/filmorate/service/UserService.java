@@ -1,81 +1,121 @@
 package ru.yandex.practicum.filmorate.service;
 
-import jakarta.validation.Valid;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.stats.LikeStatistics;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.trending.TrendingPipeline;
+import ru.yandex.practicum.filmorate.util.LongSets;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+import ru.yandex.practicum.filmorate.validator.ModelValidator;
 import ru.yandex.practicum.filmorate.validator.group.Create;
 import ru.yandex.practicum.filmorate.validator.group.Default;
 import ru.yandex.practicum.filmorate.validator.group.Update;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @Validated
+@Timed(value = "filmorate.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Slf4j
 @RequiredArgsConstructor
 public class UserService {
     public final UserStorage userStorage;
+    private final FilmStorage filmStorage;
+    private final FriendRecommender friendRecommender;
+    private final ModelValidator modelValidator;
+    private final TrendingPipeline trendingPipeline;
+    private final LikeStatistics likeStatistics;
 
     public List<User> findAll() {
         return userStorage.findAll();
     }
 
+    public List<User> findPage(@PositiveOrZero long afterId, @Positive int limit) {
+        return userStorage.findPage(afterId, limit);
+    }
+
+    public void forEach(Consumer<User> action) {
+        userStorage.forEach(action);
+    }
+
     public User findById(@Positive long userId) {
         return userStorage.findById(userId);
     }
 
-    @Validated({Default.class, Create.class})
-    public User create(@Valid User user) {
+    public User create(User user) {
+        modelValidator.validate(user, "create.user", Default.class, Create.class);
         return userStorage.create(user);
     }
 
-    @Validated({Default.class, Update.class})
-    public User update(@Valid User newUser) {
+    public User update(User newUser) {
+        modelValidator.validate(newUser, "update.newUser", Default.class, Update.class);
         return userStorage.update(newUser);
     }
 
+    public void delete(@Positive long userId) {
+        LongSortedSet friendIds = userStorage.findById(userId).getFriends();
+        LongSortedSet unlikedFilmIds = userStorage.delete(userId, () -> filmStorage.removeLikesByUser(userId));
+        unlikedFilmIds.forEachLong(filmId -> {
+            trendingPipeline.likeRemoved(filmId);
+            likeStatistics.likeRemoved(filmId);
+        });
+        friendRecommender.invalidate(userId, friendIds);
+        log.debug("Пользователь с ID = {} удалён вместе с лайками и дружбами", userId);
+    }
+
     public List<User> findAllFriends(@Positive long userId) {
         User user = userStorage.findById(userId);
-        List<User> friends = user.getFriends().stream()
-                .map(userStorage::findById)
-                .toList();
+        List<User> friends = findExisting(userStorage.findAllByIds(user.getFriends()));
 
         log.trace("Список друзей пользователя с ID = {}\n{}", userId, friends);
         return friends;
     }
 
     public void addFriend(@Positive long userId, @Positive long friendId) {
-        User user = userStorage.findById(userId);
-        User friend = userStorage.findById(friendId);
-
-        user.getFriends().add(friendId);
-        friend.getFriends().add(userId);
+        userStorage.addFriend(userId, friendId);
+        friendRecommender.invalidate(userId, friendId);
         log.debug("Пользователи с ID = {} и {} подружились", userId, friendId);
     }
 
     public void removeFriend(@Positive long userId, @Positive long friendId) {
-        User user = userStorage.findById(userId);
-        User friend = userStorage.findById(friendId);
-
-        user.getFriends().remove(friendId);
-        friend.getFriends().remove(userId);
+        userStorage.removeFriend(userId, friendId);
+        friendRecommender.invalidate(userId, friendId);
         log.debug("Пользователь с ID = {} удалил друга с ID = {}", userId, friendId);
     }
 
     public List<User> findCommonFriends(@Positive long id, @Positive long otherId) {
         User user = userStorage.findById(id);
         User otherUser = userStorage.findById(otherId);
-        List<User> commonFriends = user.getFriends().stream()
-                .filter(friendId -> otherUser.getFriends().contains(friendId))
-                .map(userStorage::findById)
-                .toList();
+        List<User> commonFriends = findExisting(userStorage.findAllByIds(
+                LongSets.intersection(user.getFriends(), otherUser.getFriends())));
 
         log.trace("Список общих друзей пользователей с ID = {} и {}:\n{}", id, otherId, commonFriends);
         return commonFriends;
     }
+
+    public List<User> findRecommendedFriends(@Positive long userId, @Positive int count) {
+        List<User> recommended = findExisting(userStorage.findAllByIds(
+                Arrays.stream(friendRecommender.recommend(userId, count)).boxed().toList()));
+
+        log.trace("Рекомендованные друзья пользователя с ID = {}:\n{}", userId, recommended);
+        return recommended;
+    }
+
+    private List<User> findExisting(LookupResult<User> lookup) {
+        if (lookup.hasMissing()) {
+            log.warn("Не найдены пользователи с ID = {}", lookup.missingIds());
+        }
+        return lookup.found();
+    }
 }
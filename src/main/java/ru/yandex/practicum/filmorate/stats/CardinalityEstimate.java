@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.stats;
+
+public record CardinalityEstimate(long estimate, double relativeStandardError, long lower, long upper) {
+    private static final double CONFIDENCE_SIGMAS = 2;
+
+    public static CardinalityEstimate of(long estimate, double relativeStandardError) {
+        long margin = (long) Math.ceil(estimate * relativeStandardError * CONFIDENCE_SIGMAS);
+        return new CardinalityEstimate(estimate, relativeStandardError, Math.max(0, estimate - margin),
+                estimate + margin);
+    }
+}
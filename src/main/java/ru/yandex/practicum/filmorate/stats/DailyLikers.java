@@ -0,0 +1,6 @@
+package ru.yandex.practicum.filmorate.stats;
+
+import java.time.LocalDate;
+
+public record DailyLikers(LocalDate from, LocalDate to, CardinalityEstimate likers) {
+}
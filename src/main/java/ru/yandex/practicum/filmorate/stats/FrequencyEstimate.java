@@ -0,0 +1,4 @@
+package ru.yandex.practicum.filmorate.stats;
+
+public record FrequencyEstimate(long filmId, long estimate, long lower, double confidence) {
+}
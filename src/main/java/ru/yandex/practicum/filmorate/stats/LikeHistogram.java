@@ -0,0 +1,8 @@
+package ru.yandex.practicum.filmorate.stats;
+
+import java.util.List;
+
+public record LikeHistogram(List<Bucket> buckets, long maxOverestimate, double confidence) {
+    public record Bucket(long from, long to, long films) {
+    }
+}
@@ -0,0 +1,166 @@
+package ru.yandex.practicum.filmorate.stats;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.util.CountMinSketch;
+import ru.yandex.practicum.filmorate.util.HyperLogLog;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+@Component
+@EnableConfigurationProperties(StatsProperties.class)
+public class LikeStatistics {
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+    private static final int HISTOGRAM_BUCKETS = 32;
+
+    private final StatsProperties properties;
+    private final LongSupplier clock;
+    private final LongAdder added = new LongAdder();
+    private final LongAdder removed = new LongAdder();
+    private final HyperLogLog likers;
+    private final AtomicReferenceArray<DaySketch> days;
+    private final CountMinSketch filmLikes;
+    private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+    @Autowired
+    public LikeStatistics(StatsProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    public LikeStatistics(StatsProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.likers = new HyperLogLog(properties.hllPrecision());
+        this.days = new AtomicReferenceArray<>(properties.daysRetained());
+        this.filmLikes = new CountMinSketch(properties.cmsEpsilon(), properties.cmsConfidence());
+    }
+
+    public void likeAdded(long filmId, long userId) {
+        added.increment();
+        likers.add(userId);
+        today().add(userId);
+        long likes = filmLikes.add(filmId, 1);
+        moveFilm(likes - 1, likes);
+    }
+
+    public void likesLoaded(long filmId, LongSortedSet userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        added.add(userIds.size());
+        userIds.forEachLong(likers::add);
+        long likes = filmLikes.add(filmId, userIds.size());
+        moveFilm(likes - userIds.size(), likes);
+    }
+
+    public void likeRemoved(long filmId) {
+        likesRemoved(filmId, 1);
+    }
+
+    public void likesRemoved(long filmId, long count) {
+        if (count <= 0) {
+            return;
+        }
+        removed.add(count);
+        long likes = filmLikes.add(filmId, -count);
+        moveFilm(likes + count, likes);
+    }
+
+    public LikeTotals totals() {
+        long addedLikes = added.sum();
+        long removedLikes = removed.sum();
+        return new LikeTotals(addedLikes - removedLikes, addedLikes, removedLikes,
+                CardinalityEstimate.of(likers.estimate(), likers.relativeStandardError()));
+    }
+
+    public DailyLikers likers(int lastDays) {
+        if (lastDays < 1 || lastDays > days.length()) {
+            throw new ValidationException("Период должен быть от 1 до " + days.length() + " дней");
+        }
+
+        long today = currentDay();
+        HyperLogLog union = new HyperLogLog(properties.hllPrecision());
+        for (long day = today - lastDays + 1; day <= today; day++) {
+            DaySketch sketch = days.get(slotOf(day));
+            if (sketch != null && sketch.day() == day) {
+                sketch.likers().mergeInto(union);
+            }
+        }
+
+        return new DailyLikers(LocalDate.ofEpochDay(today - lastDays + 1), LocalDate.ofEpochDay(today),
+                CardinalityEstimate.of(union.estimate(), union.relativeStandardError()));
+    }
+
+    public FrequencyEstimate filmLikes(long filmId) {
+        long estimate = filmLikes.estimate(filmId);
+        return new FrequencyEstimate(filmId, estimate, Math.max(0, estimate - filmLikes.maxOverestimate()),
+                filmLikes.confidence());
+    }
+
+    public LikeHistogram histogram() {
+        List<LikeHistogram.Bucket> buckets = new ArrayList<>();
+        for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+            long films = histogram.get(bucket);
+            if (films > 0) {
+                buckets.add(new LikeHistogram.Bucket(1L << bucket, (2L << bucket) - 1, films));
+            }
+        }
+        return new LikeHistogram(buckets, filmLikes.maxOverestimate(), filmLikes.confidence());
+    }
+
+    public long sizeInBytes() {
+        return (long) likers.sizeInBytes() * (days.length() + 1) + filmLikes.sizeInBytes();
+    }
+
+    private void moveFilm(long before, long after) {
+        int from = bucketOf(before);
+        int to = bucketOf(after);
+        if (from == to) {
+            return;
+        }
+        if (from >= 0) {
+            histogram.decrementAndGet(from);
+        }
+        if (to >= 0) {
+            histogram.incrementAndGet(to);
+        }
+    }
+
+    private static int bucketOf(long likes) {
+        return likes <= 0 ? -1 : Math.min(HISTOGRAM_BUCKETS - 1, 63 - Long.numberOfLeadingZeros(likes));
+    }
+
+    private HyperLogLog today() {
+        long day = currentDay();
+        int slot = slotOf(day);
+        DaySketch current = days.get(slot);
+        while (current == null || current.day() < day) {
+            DaySketch fresh = new DaySketch(day, new HyperLogLog(properties.hllPrecision()));
+            if (days.compareAndSet(slot, current, fresh)) {
+                return fresh.likers();
+            }
+            current = days.get(slot);
+        }
+        return current.likers();
+    }
+
+    private long currentDay() {
+        return Math.floorDiv(clock.getAsLong(), DAY_MILLIS);
+    }
+
+    private int slotOf(long day) {
+        return (int) Math.floorMod(day, (long) days.length());
+    }
+
+    private record DaySketch(long day, HyperLogLog likers) {
+    }
+}
@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.stats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeStatisticsLoader implements SmartInitializingSingleton {
+    private final FilmStorage filmStorage;
+    private final LikeStatistics likeStatistics;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        filmStorage.forEach(film -> likeStatistics.likesLoaded(film.getId(), film.getUserLikes()));
+        log.info("Статистика лайков загружена из хранилища: {} лайков", likeStatistics.totals().likes());
+    }
+}
@@ -0,0 +1,4 @@
+package ru.yandex.practicum.filmorate.stats;
+
+public record LikeTotals(long likes, long added, long removed, CardinalityEstimate uniqueLikers) {
+}
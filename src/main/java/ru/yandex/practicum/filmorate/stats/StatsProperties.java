@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.stats;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("filmorate.stats")
+public record StatsProperties(@DefaultValue("14") int hllPrecision,
+                              @DefaultValue("7") int daysRetained,
+                              @DefaultValue("0.0005") double cmsEpsilon,
+                              @DefaultValue("0.99") double cmsConfidence) {
+}
@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+public class ContentionDetector {
+    private final AtomicIntegerArray counts;
+    private final AtomicLongArray windowStarts;
+    private final int threshold;
+    private final long windowNanos;
+    private final LongSupplier nanoTime;
+    private final int mask;
+
+    public ContentionDetector(int slots, int threshold, Duration window, LongSupplier nanoTime) {
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.counts = new AtomicIntegerArray(size);
+        this.windowStarts = new AtomicLongArray(size);
+        this.threshold = threshold;
+        this.windowNanos = window.toNanos();
+        this.nanoTime = nanoTime;
+        this.mask = size - 1;
+    }
+
+    public boolean recordContention(long id) {
+        int slot = indexOf(id);
+        long now = nanoTime.getAsLong();
+        long windowStart = windowStarts.get(slot);
+        if (now - windowStart >= windowNanos && windowStarts.compareAndSet(slot, windowStart, now)) {
+            counts.set(slot, 0);
+        }
+
+        if (counts.incrementAndGet(slot) < threshold) {
+            return false;
+        }
+        counts.set(slot, 0);
+        return true;
+    }
+
+    private int indexOf(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,99 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public final class JdbcRelations {
+    public static final int IN_CLAUSE_CHUNK = 1000;
+
+    private JdbcRelations() {
+    }
+
+    public static Map<Long, LongSortedSet> load(NamedParameterJdbcTemplate jdbc, String sql,
+                                                Collection<Long> ownerIds) {
+        Map<Long, LongBuffer> buffers = new HashMap<>();
+        forEachChunk(ownerIds, chunk -> jdbc.query(sql, Map.of("ids", chunk), rs -> {
+            buffers.computeIfAbsent(rs.getLong(1), id -> new LongBuffer()).add(rs.getLong(2));
+        }));
+
+        Map<Long, LongSortedSet> relations = new HashMap<>(buffers.size() * 2);
+        buffers.forEach((ownerId, buffer) -> relations.put(ownerId, buffer.toSet()));
+        return relations;
+    }
+
+    public static Set<Long> existingIds(NamedParameterJdbcTemplate jdbc, String table, Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        forEachChunk(ids, chunk -> jdbc.query("SELECT id FROM " + table + " WHERE id IN (:ids)",
+                Map.of("ids", chunk), rs -> {
+                    existing.add(rs.getLong(1));
+                }));
+        return existing;
+    }
+
+    public static void restartIdentityAfterCommit(NamedParameterJdbcTemplate jdbc, String table) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            restartIdentity(jdbc, table);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                restartIdentity(jdbc, table);
+            }
+        });
+    }
+
+    public static long maxId(NamedParameterJdbcTemplate jdbc, String table) {
+        Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Map.of(), Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    private static void restartIdentity(NamedParameterJdbcTemplate jdbc, String table) {
+        jdbc.getJdbcOperations().execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " +
+                (maxId(jdbc, table) + 1));
+    }
+
+    public static void forEachChunk(Collection<Long> ids, Consumer<List<Long>> action) {
+        List<Long> chunk = new ArrayList<>(Math.min(ids.size(), IN_CLAUSE_CHUNK));
+        for (Long id : ids) {
+            chunk.add(id);
+            if (chunk.size() == IN_CLAUSE_CHUNK) {
+                action.accept(chunk);
+                chunk = new ArrayList<>(IN_CLAUSE_CHUNK);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            action.accept(chunk);
+        }
+    }
+
+    public static final class LongBuffer {
+        private long[] values = new long[4];
+        private int size;
+
+        public void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        public LongSortedSet toSet() {
+            return LongSortedSet.of(values, size);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class LockStripes {
+    private final Lock[] locks;
+    private final int mask;
+
+    public LockStripes(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        locks = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    public Lock lockFor(long id) {
+        return locks[indexOf(id)];
+    }
+
+    public void runLocked(long id, Runnable action) {
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <T> T callLocked(long id, Supplier<T> action) {
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void runLocked(long firstId, long secondId, Runnable action) {
+        int first = indexOf(firstId);
+        int second = indexOf(secondId);
+        if (first == second) {
+            runLocked(firstId, action);
+            return;
+        }
+
+        Lock outer = locks[Math.min(first, second)];
+        Lock inner = locks[Math.max(first, second)];
+        outer.lock();
+        try {
+            inner.lock();
+            try {
+                action.run();
+            } finally {
+                inner.unlock();
+            }
+        } finally {
+            outer.unlock();
+        }
+    }
+
+    private int indexOf(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
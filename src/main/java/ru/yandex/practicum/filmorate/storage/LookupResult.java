@@ -0,0 +1,9 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import java.util.List;
+
+public record LookupResult<T>(List<T> found, List<Long> missingIds) {
+    public boolean hasMissing() {
+        return !missingIds.isEmpty();
+    }
+}
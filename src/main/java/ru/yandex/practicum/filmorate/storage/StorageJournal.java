@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+public interface StorageJournal {
+    StorageJournal NOOP = new StorageJournal() {
+    };
+
+    default void filmCreated(Film film) {
+    }
+
+    default void filmUpdated(Film film) {
+    }
+
+    default void filmDeleted(long filmId) {
+    }
+
+    default void likeAdded(long filmId, long userId) {
+    }
+
+    default void likeRemoved(long filmId, long userId) {
+    }
+
+    default void userCreated(User user) {
+    }
+
+    default void userUpdated(User user) {
+    }
+
+    default void userDeleted(long userId) {
+    }
+
+    default void friendAdded(long userId, long friendId) {
+    }
+
+    default void friendRemoved(long userId, long friendId) {
+    }
+
+    default void awaitDurable() {
+    }
+}
@@ -0,0 +1,146 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchQuery;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public class CachingFilmStorage implements FilmStorage, MeterBinder {
+    private final FilmStorage delegate;
+    private final EntityCache<Film> cache;
+
+    public CachingFilmStorage(FilmStorage delegate, int maximumSize) {
+        this.delegate = delegate;
+        this.cache = new EntityCache<>("films", maximumSize, Film::getId);
+    }
+
+    public FilmStorage delegate() {
+        return delegate;
+    }
+
+    @Override
+    public Film create(Film film) {
+        return delegate.create(film);
+    }
+
+    @Override
+    public List<Film> createAll(List<Film> films) {
+        return delegate.createAll(films);
+    }
+
+    @Override
+    public Film update(Film newFilm) {
+        Film updated = delegate.update(newFilm);
+        cache.invalidate(updated.getId());
+        return updated;
+    }
+
+    @Override
+    public int delete(long filmId) {
+        int likes = delegate.delete(filmId);
+        cache.invalidate(filmId);
+        return likes;
+    }
+
+    @Override
+    public List<Film> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public List<Film> findPage(long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public void forEach(Consumer<Film> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public Optional<Film> find(long filmId) {
+        return cache.find(filmId, delegate::find);
+    }
+
+    @Override
+    public LookupResult<Film> findAllByIds(Collection<Long> filmIds) {
+        return cache.findAll(filmIds, delegate::findAllByIds);
+    }
+
+    @Override
+    public boolean addLike(long filmId, long userId) {
+        boolean changed = delegate.addLike(filmId, userId);
+        if (changed) {
+            cache.invalidate(filmId);
+        }
+        return changed;
+    }
+
+    @Override
+    public List<Like> addLikes(Collection<Like> likes) {
+        List<Like> added = delegate.addLikes(likes);
+        added.stream().mapToLong(Like::filmId).distinct().forEach(cache::invalidate);
+        return added;
+    }
+
+    @Override
+    public boolean removeLike(long filmId, long userId) {
+        boolean changed = delegate.removeLike(filmId, userId);
+        if (changed) {
+            cache.invalidate(filmId);
+        }
+        return changed;
+    }
+
+    @Override
+    public LongSortedSet removeLikesByUser(long userId) {
+        LongSortedSet unlikedFilmIds = delegate.removeLikesByUser(userId);
+        unlikedFilmIds.forEachLong(cache::invalidate);
+        return unlikedFilmIds;
+    }
+
+    @Override
+    public List<Film> findPopular(int count) {
+        return delegate.findPopular(count);
+    }
+
+    @Override
+    public List<Film> search(FilmSearchQuery query) {
+        return delegate.search(query);
+    }
+
+    @Override
+    public long popularityVersion(int count) {
+        return delegate.popularityVersion(count);
+    }
+
+    @Override
+    public LongSortedSet findLikedFilmIds(long userId) {
+        return delegate.findLikedFilmIds(userId);
+    }
+
+    @Override
+    public Map<Long, LongSortedSet> findLikedFilmIdsByUsers(Collection<Long> userIds) {
+        return delegate.findLikedFilmIdsByUsers(userIds);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache.bindTo(registry);
+    }
+}
@@ -0,0 +1,118 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class CachingUserStorage implements UserStorage, MeterBinder {
+    private final UserStorage delegate;
+    private final EntityCache<User> cache;
+
+    public CachingUserStorage(UserStorage delegate, int maximumSize) {
+        this.delegate = delegate;
+        this.cache = new EntityCache<>("users", maximumSize, User::getId);
+    }
+
+    public UserStorage delegate() {
+        return delegate;
+    }
+
+    @Override
+    public User create(User user) {
+        return delegate.create(user);
+    }
+
+    @Override
+    public List<User> createAll(List<User> users) {
+        return delegate.createAll(users);
+    }
+
+    @Override
+    public User update(User newUser) {
+        User updated = delegate.update(newUser);
+        cache.invalidate(updated.getId());
+        return updated;
+    }
+
+    @Override
+    public <T> T delete(long userId, Supplier<T> cleanup) {
+        LongSortedSet friendIds = delegate.find(userId).map(User::getFriends).orElseGet(LongSortedSet::new);
+        T cleaned = delegate.delete(userId, cleanup);
+        cache.invalidate(userId);
+        friendIds.forEachLong(cache::invalidate);
+        return cleaned;
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public void forEach(Consumer<User> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public Optional<User> find(long userId) {
+        return cache.find(userId, delegate::find);
+    }
+
+    @Override
+    public LookupResult<User> findAllByIds(Collection<Long> userIds) {
+        return cache.findAll(userIds, delegate::findAllByIds);
+    }
+
+    @Override
+    public <T> T callLocked(long userId, Supplier<T> action) {
+        return delegate.callLocked(userId, action);
+    }
+
+    @Override
+    public void addFriend(long userId, long friendId) {
+        delegate.addFriend(userId, friendId);
+        cache.invalidate(userId);
+        cache.invalidate(friendId);
+    }
+
+    @Override
+    public void addFriendships(Collection<Friendship> friendships) {
+        delegate.addFriendships(friendships);
+        for (Friendship friendship : friendships) {
+            cache.invalidate(friendship.userId());
+            cache.invalidate(friendship.friendId());
+        }
+    }
+
+    @Override
+    public void removeFriend(long userId, long friendId) {
+        delegate.removeFriend(userId, friendId);
+        cache.invalidate(userId);
+        cache.invalidate(friendId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache.bindTo(registry);
+    }
+}
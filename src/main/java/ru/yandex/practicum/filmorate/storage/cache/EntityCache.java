@@ -0,0 +1,107 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.util.TinyLfuCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+final class EntityCache<T> {
+    private final String name;
+    private final TinyLfuCache<T> cache;
+    private final ToLongFunction<T> idOf;
+
+    EntityCache(String name, int maximumSize, ToLongFunction<T> idOf) {
+        this.name = name;
+        this.cache = new TinyLfuCache<>(maximumSize);
+        this.idOf = idOf;
+    }
+
+    Optional<T> find(long id, LongFunction<Optional<T>> loader) {
+        T cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long stamp = cache.stamp();
+        Optional<T> loaded = loader.apply(id);
+        loaded.ifPresent(entity -> cache.put(id, entity, stamp));
+        return loaded;
+    }
+
+    LookupResult<T> findAll(Collection<Long> ids, Function<List<Long>, LookupResult<T>> loader) {
+        List<T> cached = new ArrayList<>(ids.size());
+        List<Long> missedIds = new ArrayList<>();
+        for (Long id : ids) {
+            T entity = cache.getIfPresent(id);
+            cached.add(entity);
+            if (entity == null) {
+                missedIds.add(id);
+            }
+        }
+        if (missedIds.isEmpty()) {
+            return new LookupResult<>(cached, List.of());
+        }
+
+        long stamp = cache.stamp();
+        Map<Long, T> loaded = new HashMap<>();
+        for (T entity : loader.apply(missedIds).found()) {
+            long id = idOf.applyAsLong(entity);
+            loaded.put(id, entity);
+            cache.put(id, entity, stamp);
+        }
+
+        List<T> found = new ArrayList<>(ids.size());
+        List<Long> missingIds = new ArrayList<>();
+        int index = 0;
+        for (Long id : ids) {
+            T entity = cached.get(index++);
+            if (entity == null) {
+                entity = loaded.get(id);
+            }
+            if (entity == null) {
+                missingIds.add(id);
+            } else {
+                found.add(entity);
+            }
+        }
+        return new LookupResult<>(found, missingIds);
+    }
+
+    void invalidate(long id) {
+        cache.invalidate(id);
+    }
+
+    void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("filmorate.cache.gets", cache, TinyLfuCache::hits)
+                .description("Количество обращений к кэшу сущностей")
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("filmorate.cache.gets", cache, TinyLfuCache::misses)
+                .description("Количество обращений к кэшу сущностей")
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("filmorate.cache.evictions", cache, TinyLfuCache::evictions)
+                .description("Количество вытеснений из кэша сущностей")
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("filmorate.cache.size", cache, TinyLfuCache::size)
+                .description("Количество сущностей в кэше")
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("filmorate.cache.max.size", cache, TinyLfuCache::maximumSize)
+                .description("Максимальное количество сущностей в кэше")
+                .tag("cache", name)
+                .register(registry);
+    }
+}
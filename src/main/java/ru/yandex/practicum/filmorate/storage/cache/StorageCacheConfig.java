@@ -0,0 +1,47 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "filmorate.storage.cache", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(StorageCacheProperties.class)
+@RequiredArgsConstructor
+public class StorageCacheConfig {
+    private final StorageCacheProperties properties;
+
+    @Bean
+    @Primary
+    public CachingFilmStorage cachingFilmStorage(ListableBeanFactory beanFactory) {
+        return new CachingFilmStorage(delegate(beanFactory, FilmStorage.class, CachingFilmStorage.class),
+                properties.maxFilms());
+    }
+
+    @Bean
+    @Primary
+    public CachingUserStorage cachingUserStorage(ListableBeanFactory beanFactory) {
+        return new CachingUserStorage(delegate(beanFactory, UserStorage.class, CachingUserStorage.class),
+                properties.maxUsers());
+    }
+
+    private static <T> T delegate(ListableBeanFactory beanFactory, Class<T> type, Class<? extends T> decorator) {
+        List<String> names = Arrays.stream(beanFactory.getBeanNamesForType(type))
+                .filter(name -> !beanFactory.isTypeMatch(name, decorator))
+                .toList();
+        if (names.size() != 1) {
+            throw new IllegalStateException("Для кэша ожидалось одно хранилище " + type.getSimpleName() +
+                    ", найдено: " + names);
+        }
+        return beanFactory.getBean(names.getFirst(), type);
+    }
+}
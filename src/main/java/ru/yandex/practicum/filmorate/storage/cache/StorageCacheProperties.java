@@ -0,0 +1,10 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("filmorate.storage.cache")
+public record StorageCacheProperties(@DefaultValue("false") boolean enabled,
+                                     @DefaultValue("10000") int maxFilms,
+                                     @DefaultValue("10000") int maxUsers) {
+}
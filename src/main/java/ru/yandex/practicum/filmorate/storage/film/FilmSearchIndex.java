@@ -0,0 +1,399 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchQuery;
+import ru.yandex.practicum.filmorate.util.SearchTokens;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.LongStream;
+
+public class FilmSearchIndex {
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int SELECTIVE_RANGE_SIZE = 10_000;
+
+    private final ConcurrentNavigableMap<String, Postings> postings = new ConcurrentSkipListMap<>();
+    private final NavigableSet<Key> releaseDates = new ConcurrentSkipListSet<>(Key.ORDER);
+    private final NavigableSet<Key> durations = new ConcurrentSkipListSet<>(Key.ORDER);
+    private final int selectiveRangeSize;
+
+    public FilmSearchIndex() {
+        this(SELECTIVE_RANGE_SIZE);
+    }
+
+    public FilmSearchIndex(int selectiveRangeSize) {
+        this.selectiveRangeSize = selectiveRangeSize;
+    }
+
+    public static Entry entryOf(Film film) {
+        Set<String> tokens = new HashSet<>(SearchTokens.tokenize(film.getName()));
+        tokens.addAll(SearchTokens.tokenize(film.getDescription()));
+        return new Entry(film.getId(), tokens, film.getReleaseDate(), film.getDuration());
+    }
+
+    public void add(Film film) {
+        replace(null, entryOf(film));
+    }
+
+    public void remove(Entry entry) {
+        replace(entry, null);
+    }
+
+    public void replace(Entry before, Entry after) {
+        Set<String> removedTokens = before == null ? Set.of() : before.tokens();
+        Set<String> addedTokens = after == null ? Set.of() : after.tokens();
+        for (String token : removedTokens) {
+            if (!addedTokens.contains(token)) {
+                removePosting(token, before.filmId());
+            }
+        }
+        for (String token : addedTokens) {
+            if (!removedTokens.contains(token)) {
+                addPosting(token, after.filmId());
+            }
+        }
+
+        replaceKey(releaseDates, before == null ? null : before.releaseDateKey(),
+                after == null ? null : after.releaseDateKey());
+        replaceKey(durations, before == null ? null : before.durationKey(),
+                after == null ? null : after.durationKey());
+    }
+
+    public int tokenCount() {
+        return postings.size();
+    }
+
+    public List<Film> search(FilmSearchQuery query, NavigableMap<Long, Film> films) {
+        List<String> tokens = SearchTokens.tokenize(query.text());
+        if (!tokens.isEmpty()) {
+            return searchText(tokens, query, films);
+        }
+        if (query.hasReleaseRange() || query.minDuration() != null) {
+            return searchRange(query, films);
+        }
+        return scan(query, films);
+    }
+
+    private List<Film> searchText(List<String> tokens, FilmSearchQuery query, NavigableMap<Long, Film> films) {
+        List<Term> terms = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            Term term = i == tokens.size() - 1 && token.length() >= MIN_PREFIX_LENGTH
+                    ? prefixTerm(token)
+                    : exactTerm(token);
+            if (term.size() == 0) {
+                return List.of();
+            }
+            terms.add(term);
+        }
+        terms.sort(Comparator.comparingInt(Term::size));
+
+        Term driver = terms.getFirst();
+        List<Film> found = new ArrayList<>(Math.min(query.limit(), driver.size()));
+        PrimitiveIterator.OfLong candidates = driver.idsAfter(query.afterId());
+        while (candidates.hasNext() && found.size() < query.limit()) {
+            long filmId = candidates.nextLong();
+            if (containedInAll(terms, filmId)) {
+                Film film = films.get(filmId);
+                if (film != null && query.matches(film)) {
+                    found.add(film);
+                }
+            }
+        }
+
+        return found;
+    }
+
+    private static boolean containedInAll(List<Term> terms, long filmId) {
+        for (int i = 1; i < terms.size(); i++) {
+            if (!terms.get(i).contains(filmId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Film> searchRange(FilmSearchQuery query, NavigableMap<Long, Film> films) {
+        NavigableSet<Key> range;
+        if (query.hasReleaseRange()) {
+            long from = query.releasedFrom() == null ? Long.MIN_VALUE : query.releasedFrom().toEpochDay();
+            long to = query.releasedTo() == null ? Long.MAX_VALUE : query.releasedTo().toEpochDay();
+            if (from > to) {
+                return List.of();
+            }
+            range = releaseDates.subSet(new Key(from, Long.MIN_VALUE), true, new Key(to, Long.MAX_VALUE), true);
+        } else {
+            range = durations.tailSet(new Key(query.minDuration(), Long.MIN_VALUE), true);
+        }
+
+        long[] candidates = new long[64];
+        int size = 0;
+        for (Key key : range) {
+            if (key.filmId() <= query.afterId()) {
+                continue;
+            }
+            if (size == selectiveRangeSize) {
+                return scan(query, films);
+            }
+            if (size == candidates.length) {
+                candidates = Arrays.copyOf(candidates, size * 2);
+            }
+            candidates[size++] = key.filmId();
+        }
+        Arrays.sort(candidates, 0, size);
+
+        List<Film> found = new ArrayList<>(Math.min(query.limit(), size));
+        for (int i = 0; i < size && found.size() < query.limit(); i++) {
+            Film film = films.get(candidates[i]);
+            if (film != null && query.matches(film)) {
+                found.add(film);
+            }
+        }
+
+        return found;
+    }
+
+    private static List<Film> scan(FilmSearchQuery query, NavigableMap<Long, Film> films) {
+        List<Film> found = new ArrayList<>();
+        for (Film film : films.tailMap(query.afterId(), false).values()) {
+            if (found.size() == query.limit()) {
+                break;
+            }
+            if (query.matches(film)) {
+                found.add(film);
+            }
+        }
+
+        return found;
+    }
+
+    private Term exactTerm(String token) {
+        Postings list = postings.get(token);
+        return new Term(list == null ? List.of() : List.of(list.snapshot));
+    }
+
+    private Term prefixTerm(String prefix) {
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (Postings list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            Snapshot snapshot = list.snapshot;
+            if (snapshot.size() > 0) {
+                snapshots.add(snapshot);
+            }
+        }
+        snapshots.sort(Comparator.comparingInt(Snapshot::size).reversed());
+        return new Term(snapshots);
+    }
+
+    private void addPosting(String token, long filmId) {
+        while (!postings.computeIfAbsent(token, key -> new Postings()).add(filmId)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void removePosting(String token, long filmId) {
+        Postings list = postings.get(token);
+        if (list != null && list.remove(filmId)) {
+            postings.remove(token, list);
+        }
+    }
+
+    private static void replaceKey(NavigableSet<Key> index, Key before, Key after) {
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        if (before != null) {
+            index.remove(before);
+        }
+        if (after != null) {
+            index.add(after);
+        }
+    }
+
+    public record Entry(long filmId, Set<String> tokens, LocalDate releaseDate, Integer duration) {
+        private Key releaseDateKey() {
+            return releaseDate == null ? null : new Key(releaseDate.toEpochDay(), filmId);
+        }
+
+        private Key durationKey() {
+            return duration == null ? null : new Key(duration, filmId);
+        }
+    }
+
+    private record Key(long value, long filmId) {
+        private static final Comparator<Key> ORDER = Comparator.comparingLong(Key::value)
+                .thenComparingLong(Key::filmId);
+    }
+
+    private static final class Term {
+        private final List<Snapshot> parts;
+        private final int size;
+
+        private Term(List<Snapshot> parts) {
+            this.parts = parts;
+            int total = 0;
+            for (Snapshot part : parts) {
+                total += part.size();
+            }
+            this.size = total;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private boolean contains(long id) {
+            for (Snapshot part : parts) {
+                if (part.contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private PrimitiveIterator.OfLong idsAfter(long afterId) {
+            if (parts.size() == 1) {
+                Snapshot part = parts.getFirst();
+                return LongStream.range(part.indexAfter(afterId), part.size()).map(i -> part.ids()[(int) i])
+                        .iterator();
+            }
+
+            PriorityQueue<Cursor> heads = new PriorityQueue<>(parts.size(), Comparator.comparingLong(Cursor::id));
+            for (Snapshot part : parts) {
+                Cursor cursor = new Cursor(part, part.indexAfter(afterId));
+                if (cursor.hasId()) {
+                    heads.add(cursor);
+                }
+            }
+            return new PrimitiveIterator.OfLong() {
+                private long last = afterId;
+
+                @Override
+                public boolean hasNext() {
+                    while (!heads.isEmpty() && heads.peek().id() <= last) {
+                        advance(heads.poll());
+                    }
+                    return !heads.isEmpty();
+                }
+
+                @Override
+                public long nextLong() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Cursor head = heads.poll();
+                    last = head.id();
+                    advance(head);
+                    return last;
+                }
+
+                private void advance(Cursor cursor) {
+                    cursor.index++;
+                    if (cursor.hasId()) {
+                        heads.add(cursor);
+                    }
+                }
+            };
+        }
+    }
+
+    private static final class Cursor {
+        private final Snapshot snapshot;
+        private int index;
+
+        private Cursor(Snapshot snapshot, int index) {
+            this.snapshot = snapshot;
+            this.index = index;
+        }
+
+        private boolean hasId() {
+            return index < snapshot.size();
+        }
+
+        private long id() {
+            return snapshot.ids()[index];
+        }
+    }
+
+    private record Snapshot(long[] ids, int size) {
+        private static final Snapshot EMPTY = new Snapshot(new long[0], 0);
+
+        private int indexAfter(long afterId) {
+            int index = Arrays.binarySearch(ids, 0, size, afterId);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    private static final class Postings {
+        private volatile Snapshot snapshot = Snapshot.EMPTY;
+        private boolean retired;
+
+        private synchronized boolean add(long id) {
+            if (retired) {
+                return false;
+            }
+
+            Snapshot current = snapshot;
+            long[] ids = current.ids();
+            int size = current.size();
+            if (size == 0 || ids[size - 1] < id) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, Math.max(4, size + (size >> 1)));
+                }
+                ids[size] = id;
+                snapshot = new Snapshot(ids, size + 1);
+                return true;
+            }
+
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return true;
+            }
+
+            int insertAt = -index - 1;
+            long[] updated = new long[size + 1 + (size >> 3)];
+            System.arraycopy(ids, 0, updated, 0, insertAt);
+            updated[insertAt] = id;
+            System.arraycopy(ids, insertAt, updated, insertAt + 1, size - insertAt);
+            snapshot = new Snapshot(updated, size + 1);
+            return true;
+        }
+
+        private synchronized boolean remove(long id) {
+            Snapshot current = snapshot;
+            int index = Arrays.binarySearch(current.ids(), 0, current.size(), id);
+            if (index < 0) {
+                return false;
+            }
+
+            int size = current.size() - 1;
+            if (size == 0) {
+                retired = true;
+                snapshot = Snapshot.EMPTY;
+                return true;
+            }
+
+            long[] updated = new long[size];
+            System.arraycopy(current.ids(), 0, updated, 0, index);
+            System.arraycopy(current.ids(), index + 1, updated, index, size - index);
+            snapshot = new Snapshot(updated, size);
+            return false;
+        }
+    }
+}
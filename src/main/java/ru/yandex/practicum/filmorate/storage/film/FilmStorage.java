@@ -1,17 +1,62 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchQuery;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface FilmStorage {
     Film create(Film film);
 
+    List<Film> createAll(List<Film> films);
+
     Film update(Film newFilm);
 
-    void delete();
+    int delete(long filmId);
 
     List<Film> findAll();
 
-    Film findById(long filmId);
+    long count();
+
+    List<Film> findPage(long afterId, int limit);
+
+    void forEach(Consumer<Film> action);
+
+    Optional<Film> find(long filmId);
+
+    default Film findById(long filmId) {
+        return find(filmId).orElseThrow(() -> NotFoundException.film(filmId));
+    }
+
+    default boolean exists(long filmId) {
+        return find(filmId).isPresent();
+    }
+
+    LookupResult<Film> findAllByIds(Collection<Long> filmIds);
+
+    boolean addLike(long filmId, long userId);
+
+    List<Like> addLikes(Collection<Like> likes);
+
+    boolean removeLike(long filmId, long userId);
+
+    LongSortedSet removeLikesByUser(long userId);
+
+    List<Film> findPopular(int count);
+
+    List<Film> search(FilmSearchQuery query);
+
+    long popularityVersion(int count);
+
+    LongSortedSet findLikedFilmIds(long userId);
+
+    Map<Long, LongSortedSet> findLikedFilmIdsByUsers(Collection<Long> userIds);
 }
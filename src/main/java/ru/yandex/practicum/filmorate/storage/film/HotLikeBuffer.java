@@ -0,0 +1,168 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import ru.yandex.practicum.filmorate.storage.StorageJournal;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+class HotLikeBuffer {
+    private static final int COLD_BATCH = 4;
+    private static final int COLD_FOLDS_TO_DEMOTE = 64;
+
+    private final long filmId;
+    private final StorageJournal journal;
+    private final Stripe[] stripes;
+    private final int mask;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger coldFolds = new AtomicInteger();
+    private final ReentrantLock foldLock = new ReentrantLock();
+    private volatile boolean retired;
+
+    HotLikeBuffer(long filmId, StorageJournal journal, int stripeCount) {
+        this.filmId = filmId;
+        this.journal = journal;
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        mask = size - 1;
+    }
+
+    Boolean change(long userId, boolean liked, LongSortedSet canonical) {
+        Stripe stripe = stripes[indexOf(userId)];
+        stripe.lock.lock();
+        try {
+            if (retired) {
+                return null;
+            }
+
+            Boolean state = stripe.pending.get(userId);
+            boolean current = state != null ? state : canonical.contains(userId);
+            if (current == liked) {
+                return false;
+            }
+
+            if (state == null) {
+                stripe.pending.put(userId, liked);
+                pending.incrementAndGet();
+            } else {
+                stripe.pending.remove(userId);
+                pending.decrementAndGet();
+            }
+            if (liked) {
+                journal.likeAdded(filmId, userId);
+            } else {
+                journal.likeRemoved(filmId, userId);
+            }
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    Boolean pendingLike(long userId) {
+        Stripe stripe = stripes[indexOf(userId)];
+        stripe.lock.lock();
+        try {
+            return stripe.pending.get(userId);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    void tryFold(Folder folder) {
+        if (!foldLock.tryLock()) {
+            return;
+        }
+        try {
+            cooled(foldLocked(folder, false));
+        } finally {
+            foldLock.unlock();
+        }
+    }
+
+    int fold(Folder folder, boolean retire) {
+        foldLock.lock();
+        try {
+            return foldLocked(folder, retire);
+        } finally {
+            foldLock.unlock();
+        }
+    }
+
+    boolean cooled(int folded) {
+        if (folded >= COLD_BATCH) {
+            coldFolds.set(0);
+            return false;
+        }
+        return coldFolds.incrementAndGet() >= COLD_FOLDS_TO_DEMOTE;
+    }
+
+    private int foldLocked(Folder folder, boolean retire) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+        try {
+            int total = 0;
+            for (Stripe stripe : stripes) {
+                total += stripe.pending.size();
+            }
+
+            if (total > 0) {
+                long[] added = new long[total];
+                long[] removed = new long[total];
+                int addedSize = 0;
+                int removedSize = 0;
+                for (Stripe stripe : stripes) {
+                    for (Map.Entry<Long, Boolean> entry : stripe.pending.entrySet()) {
+                        if (entry.getValue()) {
+                            added[addedSize++] = entry.getKey();
+                        } else {
+                            removed[removedSize++] = entry.getKey();
+                        }
+                    }
+                }
+                Arrays.sort(added, 0, addedSize);
+                Arrays.sort(removed, 0, removedSize);
+                folder.apply(added, addedSize, removed, removedSize);
+
+                for (Stripe stripe : stripes) {
+                    stripe.pending.clear();
+                }
+                pending.addAndGet(-total);
+            }
+
+            if (retire) {
+                retired = true;
+            }
+            return total;
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlock();
+            }
+        }
+    }
+
+    private int indexOf(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    interface Folder {
+        void apply(long[] added, int addedSize, long[] removed, int removedSize);
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, Boolean> pending = new HashMap<>();
+    }
+}
@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("filmorate.storage.hot-likes")
+public record HotLikesProperties(@DefaultValue("true") boolean enabled,
+                                 @DefaultValue("32") int contentionThreshold,
+                                 @DefaultValue("1s") Duration contentionWindow,
+                                 @DefaultValue("16") int maxFilms,
+                                 @DefaultValue("16") int stripes,
+                                 @DefaultValue("256") int batchSize) {
+    public static final HotLikesProperties DEFAULT = new HotLikesProperties(true, 32, Duration.ofSeconds(1), 16, 16,
+            256);
+}
@@ -1,39 +1,164 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchQuery;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.ContentionDetector;
+import ru.yandex.practicum.filmorate.storage.LockStripes;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.storage.StorageJournal;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 
 @Slf4j
 @Component
-public class InMemoryFilmStorage implements FilmStorage {
-    private long counter = 0;
-    private final Map<Long, Film> films = new HashMap<>();
+@Profile("!jdbc")
+@EnableConfigurationProperties(HotLikesProperties.class)
+public class InMemoryFilmStorage implements FilmStorage, MeterBinder {
+    private static final int LOCK_STRIPES = 64;
+    private static final int INDEX_ENTRY_BYTES = 80;
+    private static final int INDEX_VALUE_BYTES = Long.BYTES;
+
+    private final AtomicLong counter = new AtomicLong();
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong popularityVersion = new AtomicLong();
+    private final ConcurrentNavigableMap<Long, Film> films = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Long, LongSortedSet> likedFilms = new ConcurrentHashMap<>();
+    private final LongAdder indexedLikes = new LongAdder();
+    private final NavigableSet<Rating> popularity = new ConcurrentSkipListSet<>(Rating.ORDER);
+    private final FilmSearchIndex searchIndex = new FilmSearchIndex();
+    private final LockStripes locks = new LockStripes(LOCK_STRIPES);
+    private final ConcurrentMap<Long, HotLikeBuffer> hotLikes = new ConcurrentHashMap<>();
+    private final HotLikesProperties hotLikesProperties;
+    private final ContentionDetector contentionDetector;
+    private final StorageJournal journal;
+
+    public InMemoryFilmStorage() {
+        this(StorageJournal.NOOP);
+    }
+
+    @Autowired
+    public InMemoryFilmStorage(ObjectProvider<StorageJournal> journal, HotLikesProperties hotLikesProperties) {
+        this(journal.getIfAvailable(() -> StorageJournal.NOOP), hotLikesProperties);
+    }
+
+    public InMemoryFilmStorage(StorageJournal journal) {
+        this(journal, HotLikesProperties.DEFAULT);
+    }
+
+    public InMemoryFilmStorage(StorageJournal journal, HotLikesProperties hotLikesProperties) {
+        this.journal = journal;
+        this.hotLikesProperties = hotLikesProperties;
+        this.contentionDetector = new ContentionDetector(LOCK_STRIPES, hotLikesProperties.contentionThreshold(),
+                hotLikesProperties.contentionWindow(), System::nanoTime);
+    }
 
     @Override
     public Film create(Film film) {
         film.setId(getNextId());
-        films.put(film.getId(), film);
+        film.setUserLikes(null);
+        locks.runLocked(film.getId(), () -> {
+            films.put(film.getId(), film);
+            size.incrementAndGet();
+            popularity.add(Rating.of(film));
+            popularityVersion.incrementAndGet();
+            searchIndex.add(film);
+            journal.filmCreated(film);
+        });
+        journal.awaitDurable();
         log.info("Фильм с названием {} и ID = {} успешно добавлен", film.getName(), film.getId());
         return film;
     }
 
+    @Override
+    public List<Film> createAll(List<Film> newFilms) {
+        List<Film> created = new ArrayList<>(newFilms.size());
+        for (Film film : newFilms) {
+            if (film.getId() == null) {
+                film.setId(getNextId());
+            } else {
+                counter.accumulateAndGet(film.getId(), Math::max);
+            }
+            film.setUserLikes(null);
+
+            locks.runLocked(film.getId(), () -> {
+                if (films.putIfAbsent(film.getId(), film) != null) {
+                    return;
+                }
+
+                size.incrementAndGet();
+                popularity.add(Rating.of(film));
+                popularityVersion.incrementAndGet();
+                searchIndex.add(film);
+                journal.filmCreated(film);
+                created.add(film);
+            });
+        }
+
+        journal.awaitDurable();
+        log.info("Импортировано {} фильмов", created.size());
+        return created;
+    }
+
     @Override
     public Film update(Film newFilm) {
         Long id = newFilm.getId();
 
         Film oldFilm = films.get(id);
         if (oldFilm == null) {
-            throw new NotFoundException("Фильм с ID = " + id + " не найден");
+            throw NotFoundException.film(id);
         }
 
+        locks.runLocked(id, () -> {
+            if (films.get(id) != oldFilm) {
+                throw NotFoundException.film(id);
+            }
+
+            FilmSearchIndex.Entry indexed = FilmSearchIndex.entryOf(oldFilm);
+            updateFields(oldFilm, newFilm);
+            searchIndex.replace(indexed, FilmSearchIndex.entryOf(oldFilm));
+            oldFilm.incrementVersion();
+            popularityVersion.incrementAndGet();
+            journal.filmUpdated(oldFilm);
+        });
+        journal.awaitDurable();
+        log.debug("Фильм с названием {} и ID = {} успешно обновлен", oldFilm.getName(), oldFilm.getId());
+        return oldFilm;
+    }
+
+    private void updateFields(Film oldFilm, Film newFilm) {
         if (newFilm.getName() != null) {
             String newName = newFilm.getName();
 
@@ -61,32 +186,492 @@ public class InMemoryFilmStorage implements FilmStorage {
             oldFilm.setDuration(newDuration);
             log.trace("Продолжительность фильма с ID = {} была изменена", oldFilm.getId());
         }
-
-        log.debug("Фильм с названием {} и ID = {} успешно обновлен", oldFilm.getName(), oldFilm.getId());
-        return oldFilm;
     }
 
     @Override
-    public void delete() {
+    public int delete(long filmId) {
+        Film film = findById(filmId);
+        Integer likes = null;
+        while (likes == null) {
+            HotLikeBuffer hot = hotLikes.get(filmId);
+            if (hot != null) {
+                demote(filmId, hot);
+            }
+            likes = locks.callLocked(filmId, () -> deleteLocked(film));
+        }
+        journal.awaitDurable();
+        log.info("Фильм с названием {} и ID = {} удалён", film.getName(), filmId);
+        return likes;
+    }
 
+    private Integer deleteLocked(Film film) {
+        long filmId = film.getId();
+        if (hotLikes.containsKey(filmId)) {
+            return null;
+        }
+        if (!films.remove(filmId, film)) {
+            throw NotFoundException.film(filmId);
+        }
+
+        size.decrementAndGet();
+        popularity.remove(Rating.of(film));
+        popularityVersion.incrementAndGet();
+        searchIndex.remove(FilmSearchIndex.entryOf(film));
+        film.getUserLikes().forEachLong(userId -> unindexLike(filmId, userId));
+        journal.filmDeleted(filmId);
+        return film.getUserLikes().size();
     }
 
     @Override
     public List<Film> findAll() {
+        foldHotLikes();
         return new ArrayList<>(films.values());
     }
 
     @Override
-    public Film findById(long filmId) {
-        Film film = films.get(filmId);
-        if (film == null) {
-            throw new NotFoundException("Фильм с ID = " + filmId + " не найден");
-        } else {
-            return film;
+    public long count() {
+        return size.get();
+    }
+
+    @Override
+    public List<Film> findPage(long afterId, int limit) {
+        List<Film> page = new ArrayList<>();
+        for (Film film : films.tailMap(afterId, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            foldHotLikes(film.getId());
+            page.add(film);
+        }
+
+        return page;
+    }
+
+    @Override
+    public void forEach(Consumer<Film> action) {
+        foldHotLikes();
+        films.values().forEach(action);
+    }
+
+    @Override
+    public Optional<Film> find(long filmId) {
+        foldHotLikes(filmId);
+        return Optional.ofNullable(films.get(filmId));
+    }
+
+    @Override
+    public boolean exists(long filmId) {
+        return films.containsKey(filmId);
+    }
+
+    @Override
+    public LookupResult<Film> findAllByIds(Collection<Long> filmIds) {
+        List<Film> found = new ArrayList<>(filmIds.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : filmIds) {
+            Film film = films.get(id);
+            if (film == null) {
+                missingIds.add(id);
+            } else {
+                foldHotLikes(id);
+                found.add(film);
+            }
+        }
+
+        return new LookupResult<>(found, missingIds);
+    }
+
+    @Override
+    public boolean addLike(long filmId, long userId) {
+        Boolean changed = changeLike(filmId, userId, true);
+        journal.awaitDurable();
+        if (changed == null) {
+            throw NotFoundException.film(filmId);
+        }
+        return changed;
+    }
+
+    @Override
+    public List<Like> addLikes(Collection<Like> likes) {
+        Map<Long, List<Like>> likesByFilm = new LinkedHashMap<>();
+        for (Like like : likes) {
+            likesByFilm.computeIfAbsent(like.filmId(), id -> new ArrayList<>()).add(like);
+        }
+
+        List<Like> added = new ArrayList<>(likes.size());
+        likesByFilm.forEach((filmId, filmLikes) -> added.addAll(addFilmLikes(filmId, filmLikes)));
+        journal.awaitDurable();
+        return added;
+    }
+
+    private List<Like> addFilmLikes(long filmId, List<Like> filmLikes) {
+        while (true) {
+            Film film = films.get(filmId);
+            if (film == null) {
+                throw NotFoundException.film(filmId);
+            }
+
+            if (hotLikes.containsKey(filmId)) {
+                List<Like> added = new ArrayList<>(filmLikes.size());
+                for (Like like : filmLikes) {
+                    if (addLike(filmId, like.userId())) {
+                        added.add(like);
+                    }
+                }
+                return added;
+            }
+
+            List<Like> added = locks.callLocked(filmId, () ->
+                    films.get(filmId) != film || hotLikes.containsKey(filmId) ? null : likeAll(film, filmLikes));
+            if (added != null) {
+                return added;
+            }
+        }
+    }
+
+    private List<Like> likeAll(Film film, List<Like> filmLikes) {
+        filmLikes.sort(Comparator.comparingLong(Like::userId));
+        LongSortedSet userLikes = film.getUserLikes();
+        long[] userIds = new long[filmLikes.size()];
+        int size = 0;
+        List<Like> added = new ArrayList<>(filmLikes.size());
+        for (Like like : filmLikes) {
+            long userId = like.userId();
+            if (size > 0 && userIds[size - 1] == userId || userLikes.contains(userId)) {
+                continue;
+            }
+            userIds[size++] = userId;
+            added.add(like);
+        }
+        if (size == 0) {
+            return added;
+        }
+
+        popularity.remove(Rating.of(film));
+        userLikes.update(userIds, size, null, 0);
+        film.incrementVersion();
+        popularity.add(Rating.of(film));
+        popularityVersion.incrementAndGet();
+        for (int i = 0; i < size; i++) {
+            indexLike(film.getId(), userIds[i]);
+            journal.likeAdded(film.getId(), userIds[i]);
+        }
+        return added;
+    }
+
+    @Override
+    public boolean removeLike(long filmId, long userId) {
+        Boolean changed = changeLike(filmId, userId, false);
+        journal.awaitDurable();
+        if (changed == null) {
+            throw NotFoundException.film(filmId);
+        }
+        return changed;
+    }
+
+    @Override
+    public LongSortedSet removeLikesByUser(long userId) {
+        LongSortedSet unlikedFilmIds = new LongSortedSet();
+        findLikedFilmIds(userId).forEachLong(filmId -> {
+            if (Boolean.TRUE.equals(changeLike(filmId, userId, false))) {
+                unlikedFilmIds.add(filmId);
+            }
+        });
+        journal.awaitDurable();
+        log.debug("Удалены лайки пользователя с ID = {}", userId);
+        return unlikedFilmIds;
+    }
+
+    private Boolean changeLike(long filmId, long userId, boolean liked) {
+        while (true) {
+            Film film = films.get(filmId);
+            if (film == null) {
+                return null;
+            }
+
+            HotLikeBuffer hot = hotLikes.get(filmId);
+            if (hot == null) {
+                Boolean changed = changeLikeLocked(film, userId, liked);
+                if (changed != null) {
+                    return changed;
+                }
+                continue;
+            }
+
+            Boolean changed = hot.change(userId, liked, film.getUserLikes());
+            if (changed == null) {
+                hotLikes.remove(filmId, hot);
+                continue;
+            }
+            if (hot.pending() >= hotLikesProperties.batchSize()) {
+                hot.tryFold((added, addedSize, removed, removedSize) ->
+                        applyLikes(filmId, added, addedSize, removed, removedSize));
+            }
+            return changed;
+        }
+    }
+
+    private Boolean changeLikeLocked(Film film, long userId, boolean liked) {
+        long filmId = film.getId();
+        Lock lock = locks.lockFor(filmId);
+        boolean contended = !lock.tryLock();
+        if (contended) {
+            lock.lock();
+        }
+        try {
+            if (films.get(filmId) != film || hotLikes.containsKey(filmId)) {
+                return null;
+            }
+            if (contended && promote(filmId)) {
+                return null;
+            }
+
+            return liked ? like(film, userId) : unlike(film, userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean markHot(long filmId) {
+        return locks.callLocked(filmId, () -> films.containsKey(filmId) && bufferLikes(filmId));
+    }
+
+    private boolean promote(long filmId) {
+        return hotLikesProperties.enabled() && contentionDetector.recordContention(filmId) && bufferLikes(filmId);
+    }
+
+    private boolean bufferLikes(long filmId) {
+        if (hotLikes.size() >= hotLikesProperties.maxFilms() || hotLikes.putIfAbsent(filmId,
+                new HotLikeBuffer(filmId, journal, hotLikesProperties.stripes())) != null) {
+            return false;
+        }
+
+        log.debug("Лайки фильма с ID = {} переведены в буферизованный режим", filmId);
+        return true;
+    }
+
+    private void demote(long filmId, HotLikeBuffer hot) {
+        hot.fold((added, addedSize, removed, removedSize) ->
+                applyLikes(filmId, added, addedSize, removed, removedSize), true);
+        if (hotLikes.remove(filmId, hot)) {
+            log.debug("Лайки фильма с ID = {} возвращены в обычный режим", filmId);
+        }
+    }
+
+    private void foldHotLikes() {
+        if (!hotLikes.isEmpty()) {
+            hotLikes.forEach(this::foldForRead);
+        }
+    }
+
+    private void foldHotLikes(long filmId) {
+        HotLikeBuffer hot = hotLikes.get(filmId);
+        if (hot != null) {
+            foldForRead(filmId, hot);
+        }
+    }
+
+    private void foldForRead(long filmId, HotLikeBuffer hot) {
+        int folded = hot.pending() == 0 ? 0 : hot.fold((added, addedSize, removed, removedSize) ->
+                applyLikes(filmId, added, addedSize, removed, removedSize), false);
+        if (hot.cooled(folded)) {
+            demote(filmId, hot);
+        }
+    }
+
+    private void applyLikes(long filmId, long[] added, int addedSize, long[] removed, int removedSize) {
+        locks.runLocked(filmId, () -> {
+            Film film = films.get(filmId);
+            if (film == null) {
+                return;
+            }
+
+            popularity.remove(Rating.of(film));
+            film.getUserLikes().update(added, addedSize, removed, removedSize);
+            film.incrementVersion();
+            popularity.add(Rating.of(film));
+            popularityVersion.incrementAndGet();
+            for (int i = 0; i < addedSize; i++) {
+                indexLike(filmId, added[i]);
+            }
+            for (int i = 0; i < removedSize; i++) {
+                unindexLike(filmId, removed[i]);
+            }
+        });
+    }
+
+    private boolean like(Film film, long userId) {
+        if (film.getUserLikes().contains(userId)) {
+            return false;
+        }
+
+        popularity.remove(Rating.of(film));
+        film.getUserLikes().add(userId);
+        film.incrementVersion();
+        popularity.add(Rating.of(film));
+        popularityVersion.incrementAndGet();
+        indexLike(film.getId(), userId);
+        journal.likeAdded(film.getId(), userId);
+        return true;
+    }
+
+    private boolean unlike(Film film, long userId) {
+        if (!film.getUserLikes().contains(userId)) {
+            return false;
+        }
+
+        popularity.remove(Rating.of(film));
+        film.getUserLikes().removeValue(userId);
+        film.incrementVersion();
+        popularity.add(Rating.of(film));
+        popularityVersion.incrementAndGet();
+        unindexLike(film.getId(), userId);
+        journal.likeRemoved(film.getId(), userId);
+        return true;
+    }
+
+    @Override
+    public List<Film> findPopular(int count) {
+        foldHotLikes();
+        List<Film> popularFilms = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        Iterator<Rating> iterator = popularity.iterator();
+        while (popularFilms.size() < count && iterator.hasNext()) {
+            long filmId = iterator.next().filmId();
+            Film film = films.get(filmId);
+            if (film != null && seen.add(filmId)) {
+                popularFilms.add(film);
+            }
+        }
+
+        return popularFilms;
+    }
+
+    @Override
+    public List<Film> search(FilmSearchQuery query) {
+        List<Film> found = searchIndex.search(query, films);
+        if (!hotLikes.isEmpty()) {
+            found.forEach(film -> foldHotLikes(film.getId()));
+        }
+        return found;
+    }
+
+    @Override
+    public long popularityVersion(int count) {
+        foldHotLikes();
+        return popularityVersion.get();
+    }
+
+    @Override
+    public LongSortedSet findLikedFilmIds(long userId) {
+        Map<Long, Boolean> pending = pendingLikes(userId);
+        LongSortedSet indexed = likedFilms.get(userId);
+        LongSortedSet liked = indexed == null ? new LongSortedSet() : LongSortedSet.copyOf(indexed);
+        pending.forEach((filmId, like) -> {
+            if (like) {
+                liked.add((long) filmId);
+            } else {
+                liked.removeValue(filmId);
+            }
+        });
+        return liked;
+    }
+
+    @Override
+    public Map<Long, LongSortedSet> findLikedFilmIdsByUsers(Collection<Long> userIds) {
+        Map<Long, LongSortedSet> liked = new HashMap<>();
+        for (Long userId : userIds) {
+            LongSortedSet films = findLikedFilmIds(userId);
+            if (!films.isEmpty()) {
+                liked.put(userId, films);
+            }
+        }
+
+        return liked;
+    }
+
+    private Map<Long, Boolean> pendingLikes(long userId) {
+        if (hotLikes.isEmpty()) {
+            return Map.of();
         }
+
+        Map<Long, Boolean> pending = new HashMap<>();
+        hotLikes.forEach((filmId, hot) -> {
+            Boolean like = hot.pendingLike(userId);
+            if (like != null) {
+                pending.put(filmId, like);
+            }
+        });
+        return pending;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("filmorate.likes.index.users", likedFilms, Map::size)
+                .description("Количество пользователей в обратном индексе лайков")
+                .register(registry);
+        Gauge.builder("filmorate.likes.index.bytes", this, InMemoryFilmStorage::likeIndexFootprint)
+                .description("Оценка памяти, занятой обратным индексом лайков")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("filmorate.likes.hot.films", hotLikes, Map::size)
+                .description("Количество фильмов с буферизованными лайками")
+                .register(registry);
+        Gauge.builder("filmorate.search.index.tokens", searchIndex, FilmSearchIndex::tokenCount)
+                .description("Количество токенов в поисковом индексе фильмов")
+                .register(registry);
+    }
+
+    public long likeIndexFootprint() {
+        return (long) likedFilms.size() * INDEX_ENTRY_BYTES + indexedLikes.sum() * INDEX_VALUE_BYTES;
+    }
+
+    public void restore(Film film) {
+        counter.accumulateAndGet(film.getId(), Math::max);
+        locks.runLocked(film.getId(), () -> {
+            Film previous = films.put(film.getId(), film);
+            if (previous != null) {
+                popularity.remove(Rating.of(previous));
+                previous.getUserLikes().forEachLong(userId -> unindexLike(film.getId(), userId));
+                searchIndex.replace(FilmSearchIndex.entryOf(previous), FilmSearchIndex.entryOf(film));
+            } else {
+                size.incrementAndGet();
+                searchIndex.add(film);
+            }
+            popularity.add(Rating.of(film));
+            film.getUserLikes().forEachLong(userId -> indexLike(film.getId(), userId));
+        });
+    }
+
+    private void indexLike(long filmId, long userId) {
+        likedFilms.compute(userId, (id, films) -> {
+            LongSortedSet updated = films == null ? new LongSortedSet() : films;
+            if (updated.add(filmId)) {
+                indexedLikes.increment();
+            }
+            return updated;
+        });
+    }
+
+    private void unindexLike(long filmId, long userId) {
+        likedFilms.computeIfPresent(userId, (id, films) -> {
+            if (films.removeValue(filmId)) {
+                indexedLikes.decrement();
+            }
+            return films.isEmpty() ? null : films;
+        });
     }
 
     private long getNextId() {
-        return ++counter;
+        return counter.incrementAndGet();
+    }
+
+    private record Rating(int likes, long filmId) {
+        private static final Comparator<Rating> ORDER = Comparator.comparingInt(Rating::likes).reversed()
+                .thenComparingLong(Rating::filmId);
+
+        private static Rating of(Film film) {
+            return new Rating(film.getUserLikes().size(), film.getId());
+        }
     }
 }
@@ -0,0 +1,425 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchQuery;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.JdbcRelations;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.util.Hashing;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+import ru.yandex.practicum.filmorate.util.SearchTokens;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@Profile("jdbc")
+@Transactional
+@RequiredArgsConstructor
+public class JdbcFilmStorage implements FilmStorage {
+    private static final String SELECT_FILMS = "SELECT id, name, description, release_date, duration, version " +
+            "FROM films";
+    private static final String INSERT_FILM = "INSERT INTO films (name, description, release_date, duration) " +
+            "VALUES (:name, :description, :releaseDate, :duration)";
+    private static final String INSERT_FILM_WITH_ID = "INSERT INTO films (id, name, description, release_date, " +
+            "duration) VALUES (:id, :name, :description, :releaseDate, :duration)";
+    private static final String SEARCH_TEXT = "REPLACE(LOWER(CONCAT_WS(' ', name, description)), 'ё', 'е')";
+    private static final String SELECT_LIKES = "SELECT film_id, user_id FROM likes WHERE film_id IN (:ids)";
+    private static final String INSERT_LIKE = "INSERT INTO likes (film_id, user_id) " +
+            "SELECT :filmId, id FROM users WHERE id = :userId " +
+            "AND NOT EXISTS (SELECT 1 FROM likes WHERE film_id = :filmId AND user_id = :userId)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    @Override
+    public Film create(Film film) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbc.update(INSERT_FILM, filmParameters(film), keyHolder, new String[]{"id"});
+        long filmId = Objects.requireNonNull(keyHolder.getKey()).longValue();
+
+        Film created = findById(filmId);
+        log.info("Фильм с названием {} и ID = {} успешно добавлен", created.getName(), created.getId());
+        return created;
+    }
+
+    @Override
+    public List<Film> createAll(List<Film> films) {
+        Set<Long> taken = JdbcRelations.existingIds(jdbc, "films",
+                films.stream().map(Film::getId).filter(Objects::nonNull).toList());
+        List<Film> created = new ArrayList<>(films.size());
+        for (Film film : films) {
+            if (film.getId() == null || taken.add(film.getId())) {
+                film.setUserLikes(null);
+                created.add(film);
+            }
+        }
+
+        long explicitMaxId = created.stream().map(Film::getId).filter(Objects::nonNull).mapToLong(Long::longValue)
+                .max().orElse(0);
+        if (explicitMaxId > 0) {
+            long nextId = Math.max(JdbcRelations.maxId(jdbc, "films"), explicitMaxId) + 1;
+            for (Film film : created) {
+                if (film.getId() == null) {
+                    film.setId(nextId++);
+                }
+            }
+            jdbc.batchUpdate(INSERT_FILM_WITH_ID, created.stream()
+                    .map(film -> filmParameters(film).addValue("id", film.getId()))
+                    .toArray(SqlParameterSource[]::new));
+            JdbcRelations.restartIdentityAfterCommit(jdbc, "films");
+        } else if (!created.isEmpty()) {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbc.batchUpdate(INSERT_FILM, created.stream()
+                    .map(JdbcFilmStorage::filmParameters)
+                    .toArray(SqlParameterSource[]::new), keyHolder, new String[]{"id"});
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < created.size(); i++) {
+                created.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            }
+        }
+
+        log.info("Импортировано {} фильмов", created.size());
+        return created;
+    }
+
+    @Override
+    public Film update(Film newFilm) {
+        Long id = newFilm.getId();
+
+        int updated = jdbc.update("UPDATE films SET " +
+                "name = COALESCE(:name, name), " +
+                "description = COALESCE(:description, description), " +
+                "release_date = COALESCE(:releaseDate, release_date), " +
+                "duration = COALESCE(:duration, duration), " +
+                "version = version + 1 " +
+                "WHERE id = :id", filmParameters(newFilm).addValue("id", id));
+        if (updated == 0) {
+            throw NotFoundException.film(id);
+        }
+
+        Film film = findById(id);
+        log.debug("Фильм с названием {} и ID = {} успешно обновлен", film.getName(), film.getId());
+        return film;
+    }
+
+    @Override
+    public int delete(long filmId) {
+        List<Integer> likes = jdbc.queryForList("SELECT likes_count FROM films WHERE id = :id FOR UPDATE",
+                Map.of("id", filmId), Integer.class);
+        if (likes.isEmpty()) {
+            throw NotFoundException.film(filmId);
+        }
+        jdbc.update("DELETE FROM films WHERE id = :id", Map.of("id", filmId));
+        log.info("Фильм с ID = {} удалён", filmId);
+        return likes.getFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Film> findAll() {
+        List<Film> films = new ArrayList<>();
+        forEach(films::add);
+        return films;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM films", Map.of(), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Film> findPage(long afterId, int limit) {
+        return withLikes(jdbc.query(SELECT_FILMS + " WHERE id > :afterId ORDER BY id LIMIT :limit",
+                Map.of("afterId", afterId, "limit", limit), (rs, rowNum) -> mapFilm(rs)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(Consumer<Film> action) {
+        FilmAssembler assembler = new FilmAssembler(action);
+        jdbc.query("SELECT f.id, f.name, f.description, f.release_date, f.duration, f.version, l.user_id " +
+                "FROM films f LEFT JOIN likes l ON l.film_id = f.id " +
+                "ORDER BY f.id, l.user_id", assembler::accept);
+        assembler.flush();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Film> find(long filmId) {
+        List<Film> films = jdbc.query(SELECT_FILMS + " WHERE id = :id", Map.of("id", filmId),
+                (rs, rowNum) -> mapFilm(rs));
+        if (films.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(withLikes(films).getFirst());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean exists(long filmId) {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT EXISTS(SELECT 1 FROM films WHERE id = :id)",
+                Map.of("id", filmId), Boolean.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LookupResult<Film> findAllByIds(Collection<Long> filmIds) {
+        Map<Long, Film> loaded = new HashMap<>();
+        JdbcRelations.forEachChunk(filmIds, chunk -> jdbc.query(SELECT_FILMS + " WHERE id IN (:ids)",
+                Map.of("ids", chunk), rs -> {
+                    Film film = mapFilm(rs);
+                    loaded.put(film.getId(), film);
+                }));
+        withLikes(loaded.values());
+
+        List<Film> found = new ArrayList<>(loaded.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long filmId : filmIds) {
+            Film film = loaded.get(filmId);
+            if (film == null) {
+                missingIds.add(filmId);
+            } else {
+                found.add(film);
+            }
+        }
+
+        return new LookupResult<>(found, missingIds);
+    }
+
+    @Override
+    public boolean addLike(long filmId, long userId) {
+        lockFilm(filmId);
+        if (jdbc.update(INSERT_LIKE, likeParameters(filmId, userId)) == 0) {
+            log.trace("Лайк пользователя с ID = {} фильму с ID = {} уже существует", userId, filmId);
+            return false;
+        }
+
+        jdbc.update("UPDATE films SET likes_count = likes_count + 1, version = version + 1 WHERE id = :id",
+                Map.of("id", filmId));
+        return true;
+    }
+
+    @Override
+    public List<Like> addLikes(Collection<Like> likes) {
+        if (likes.isEmpty()) {
+            return List.of();
+        }
+
+        List<Like> batch = List.copyOf(likes);
+        int[] inserted = jdbc.batchUpdate(INSERT_LIKE, batch.stream()
+                .map(like -> likeParameters(like.filmId(), like.userId()))
+                .toArray(SqlParameterSource[]::new));
+        List<Like> added = new ArrayList<>(batch.size());
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] > 0) {
+                added.add(batch.get(i));
+            }
+        }
+
+        Set<Long> filmIds = added.stream().map(Like::filmId).collect(Collectors.toSet());
+        JdbcRelations.forEachChunk(filmIds, chunk -> jdbc.update("UPDATE films SET likes_count = " +
+                "(SELECT COUNT(*) FROM likes WHERE film_id = films.id), version = version + 1 WHERE id IN (:ids)",
+                Map.of("ids", chunk)));
+        return added;
+    }
+
+    @Override
+    public boolean removeLike(long filmId, long userId) {
+        requireExists(filmId);
+        if (jdbc.update("DELETE FROM likes WHERE film_id = :filmId AND user_id = :userId",
+                likeParameters(filmId, userId)) == 0) {
+            return false;
+        }
+
+        jdbc.update("UPDATE films SET likes_count = likes_count - 1, version = version + 1 WHERE id = :id",
+                Map.of("id", filmId));
+        return true;
+    }
+
+    @Override
+    public LongSortedSet removeLikesByUser(long userId) {
+        LongSortedSet unlikedFilmIds = findLikedFilmIds(userId);
+        jdbc.update("UPDATE films SET likes_count = likes_count - 1, version = version + 1 " +
+                "WHERE id IN (SELECT film_id FROM likes WHERE user_id = :userId)", Map.of("userId", userId));
+        jdbc.update("DELETE FROM likes WHERE user_id = :userId", Map.of("userId", userId));
+        return unlikedFilmIds;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LongSortedSet findLikedFilmIds(long userId) {
+        JdbcRelations.LongBuffer filmIds = new JdbcRelations.LongBuffer();
+        jdbc.query("SELECT film_id FROM likes WHERE user_id = :userId", Map.of("userId", userId),
+                rs -> {
+                    filmIds.add(rs.getLong(1));
+                });
+        return filmIds.toSet();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, LongSortedSet> findLikedFilmIdsByUsers(Collection<Long> userIds) {
+        return JdbcRelations.load(jdbc, "SELECT user_id, film_id FROM likes WHERE user_id IN (:ids)", userIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Film> findPopular(int count) {
+        return withLikes(jdbc.query(SELECT_FILMS + " ORDER BY likes_count DESC, id LIMIT :count",
+                Map.of("count", count), (rs, rowNum) -> mapFilm(rs)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Film> search(FilmSearchQuery query) {
+        StringBuilder sql = new StringBuilder(SELECT_FILMS).append(" WHERE id > :afterId");
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("afterId", query.afterId())
+                .addValue("limit", query.limit());
+        if (query.releasedFrom() != null) {
+            sql.append(" AND release_date >= :releasedFrom");
+            parameters.addValue("releasedFrom", query.releasedFrom());
+        }
+        if (query.releasedTo() != null) {
+            sql.append(" AND release_date <= :releasedTo");
+            parameters.addValue("releasedTo", query.releasedTo());
+        }
+        if (query.minDuration() != null) {
+            sql.append(" AND duration >= :minDuration");
+            parameters.addValue("minDuration", query.minDuration());
+        }
+
+        List<String> tokens = SearchTokens.tokenize(query.text());
+        for (int i = 0; i < tokens.size(); i++) {
+            sql.append(" AND ").append(SEARCH_TEXT).append(" LIKE :token").append(i);
+            parameters.addValue("token" + i, "%" + tokens.get(i) + "%");
+        }
+        sql.append(" ORDER BY id LIMIT :limit");
+
+        return withLikes(jdbc.query(sql.toString(), parameters, (rs, rowNum) -> mapFilm(rs)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long popularityVersion(int count) {
+        long[] version = new long[1];
+        jdbc.query("SELECT id, version FROM films ORDER BY likes_count DESC, id LIMIT :count",
+                Map.of("count", Math.max(count, 0)), rs -> {
+                    version[0] = Hashing.mix(version[0] * 31 + Hashing.mix(rs.getLong(1) * 31 + rs.getLong(2)));
+                });
+        return version[0];
+    }
+
+    private void lockFilm(long filmId) {
+        if (jdbc.queryForList("SELECT id FROM films WHERE id = :id FOR UPDATE", Map.of("id", filmId), Long.class)
+                .isEmpty()) {
+            throw NotFoundException.film(filmId);
+        }
+    }
+
+    private void requireExists(long filmId) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM films WHERE id = :id", Map.of("id", filmId),
+                Integer.class);
+        if (count == null || count == 0) {
+            throw NotFoundException.film(filmId);
+        }
+    }
+
+    private <C extends Collection<Film>> C withLikes(C films) {
+        if (films.isEmpty()) {
+            return films;
+        }
+
+        List<Long> filmIds = films.stream().map(Film::getId).toList();
+        Map<Long, LongSortedSet> likes = JdbcRelations.load(jdbc, SELECT_LIKES, filmIds);
+        for (Film film : films) {
+            film.setUserLikes(likes.getOrDefault(film.getId(), new LongSortedSet()));
+        }
+
+        return films;
+    }
+
+    private static MapSqlParameterSource filmParameters(Film film) {
+        return new MapSqlParameterSource()
+                .addValue("name", film.getName())
+                .addValue("description", film.getDescription())
+                .addValue("releaseDate", film.getReleaseDate())
+                .addValue("duration", film.getDuration());
+    }
+
+    private static SqlParameterSource likeParameters(long filmId, long userId) {
+        return new MapSqlParameterSource()
+                .addValue("filmId", filmId)
+                .addValue("userId", userId);
+    }
+
+    private static Film mapFilm(ResultSet rs) throws SQLException {
+        Film film = new Film();
+        film.setId(rs.getLong("id"));
+        film.setName(rs.getString("name"));
+        film.setDescription(rs.getString("description"));
+        film.setReleaseDate(rs.getObject("release_date", LocalDate.class));
+        film.setDuration(rs.getObject("duration", Integer.class));
+        film.setVersion(rs.getLong("version"));
+        return film;
+    }
+
+    private static final class FilmAssembler {
+        private final Consumer<Film> action;
+        private Film current;
+        private JdbcRelations.LongBuffer likes;
+
+        private FilmAssembler(Consumer<Film> action) {
+            this.action = action;
+        }
+
+        private void accept(ResultSet rs) throws SQLException {
+            long filmId = rs.getLong("id");
+            if (current == null || current.getId() != filmId) {
+                flush();
+                current = mapFilm(rs);
+                likes = new JdbcRelations.LongBuffer();
+            }
+
+            long userId = rs.getLong("user_id");
+            if (!rs.wasNull()) {
+                likes.add(userId);
+            }
+        }
+
+        private void flush() {
+            if (current != null) {
+                current.setUserLikes(likes.toSet());
+                action.accept(current);
+                current = null;
+            }
+        }
+    }
+}
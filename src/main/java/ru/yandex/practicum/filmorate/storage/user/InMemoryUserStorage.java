@@ -2,30 +2,94 @@ package ru.yandex.practicum.filmorate.storage.user;
 
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.LockStripes;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.storage.StorageJournal;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Slf4j
 @Component
+@Profile("!jdbc")
 public class InMemoryUserStorage implements UserStorage {
-    private long counter = 0;
-    private final Map<Long, User> users = new HashMap<>();
+    private static final int LOCK_STRIPES = 64;
+
+    private final AtomicLong counter = new AtomicLong();
+    private final AtomicLong size = new AtomicLong();
+    private final ConcurrentNavigableMap<Long, User> users = new ConcurrentSkipListMap<>();
+    private final LockStripes locks = new LockStripes(LOCK_STRIPES);
+    private final StorageJournal journal;
+
+    public InMemoryUserStorage() {
+        this(StorageJournal.NOOP);
+    }
+
+    @Autowired
+    public InMemoryUserStorage(ObjectProvider<StorageJournal> journal) {
+        this(journal.getIfAvailable(() -> StorageJournal.NOOP));
+    }
+
+    public InMemoryUserStorage(StorageJournal journal) {
+        this.journal = journal;
+    }
 
     @Override
     public User create(User user) {
         user.setId(getNextId());
-        users.put(user.getId(), user);
+        user.setFriends(null);
+        locks.runLocked(user.getId(), () -> {
+            users.put(user.getId(), user);
+            size.incrementAndGet();
+            journal.userCreated(user);
+        });
+        journal.awaitDurable();
         log.info("Создан пользователь {} c ID = {}", user.getLogin(), user.getId());
         return user;
     }
 
+    @Override
+    public List<User> createAll(List<User> newUsers) {
+        List<User> created = new ArrayList<>(newUsers.size());
+        for (User user : newUsers) {
+            if (user.getId() == null) {
+                user.setId(getNextId());
+            } else {
+                counter.accumulateAndGet(user.getId(), Math::max);
+            }
+            user.setFriends(null);
+
+            locks.runLocked(user.getId(), () -> {
+                if (users.putIfAbsent(user.getId(), user) != null) {
+                    return;
+                }
+
+                size.incrementAndGet();
+                journal.userCreated(user);
+                created.add(user);
+            });
+        }
+
+        journal.awaitDurable();
+        log.info("Импортировано {} пользователей", created.size());
+        return created;
+    }
+
     @Override
     public User update(User newUser) {
         @NotNull
@@ -34,9 +98,24 @@ public class InMemoryUserStorage implements UserStorage {
         User oldUser = users.get(id);
 
         if (oldUser == null) {
-            throw new NotFoundException("Пользователь с ID = " + id + " не найден");
+            throw NotFoundException.user(id);
         }
 
+        locks.runLocked(id, () -> {
+            if (users.get(id) != oldUser) {
+                throw NotFoundException.user(id);
+            }
+
+            updateFields(oldUser, newUser);
+            oldUser.incrementVersion();
+            journal.userUpdated(oldUser);
+        });
+        journal.awaitDurable();
+        log.debug("Данные пользователя с ID = {} были обнавлены", oldUser.getId());
+        return oldUser;
+    }
+
+    private void updateFields(User oldUser, User newUser) {
         if (newUser.getEmail() != null) {
             String newEmail = newUser.getEmail();
 
@@ -62,14 +141,36 @@ public class InMemoryUserStorage implements UserStorage {
             oldUser.setName(newUser.getName());
             log.trace("Имя пользователя с ID = {} было изменено", oldUser.getId());
         }
-
-        log.debug("Данные пользователя с ID = {} были обнавлены", oldUser.getId());
-        return oldUser;
     }
 
     @Override
-    public void delete() {
+    public <T> T delete(long userId, Supplier<T> cleanup) {
+        User user = findById(userId);
+        T cleaned = locks.callLocked(userId, () -> {
+            if (users.get(userId) != user) {
+                throw NotFoundException.user(userId);
+            }
 
+            T result = cleanup.get();
+            users.remove(userId);
+            size.decrementAndGet();
+            journal.userDeleted(userId);
+            return result;
+        });
+
+        user.getFriends().forEachLong(friendId -> {
+            User friend = users.get(friendId);
+            if (friend != null) {
+                locks.runLocked(userId, friendId, () -> {
+                    if (friend.getFriends().removeValue(userId)) {
+                        friend.incrementVersion();
+                    }
+                });
+            }
+        });
+        journal.awaitDurable();
+        log.info("Пользователь {} c ID = {} удалён", user.getLogin(), userId);
+        return cleaned;
     }
 
     @Override
@@ -78,16 +179,118 @@ public class InMemoryUserStorage implements UserStorage {
     }
 
     @Override
-    public User findById(long userId) {
-        User user = users.get(userId);
-        if (user == null) {
-            throw new NotFoundException("Пользователь с ID = " + userId + " не найден");
-        } else {
-            return user;
+    public long count() {
+        return size.get();
+    }
+
+    @Override
+    public List<User> findPage(long afterId, int limit) {
+        List<User> page = new ArrayList<>();
+        for (User user : users.tailMap(afterId, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(user);
+        }
+
+        return page;
+    }
+
+    @Override
+    public void forEach(Consumer<User> action) {
+        users.values().forEach(action);
+    }
+
+    @Override
+    public Optional<User> find(long userId) {
+        return Optional.ofNullable(users.get(userId));
+    }
+
+    @Override
+    public boolean exists(long userId) {
+        return users.containsKey(userId);
+    }
+
+    @Override
+    public LookupResult<User> findAllByIds(Collection<Long> userIds) {
+        List<User> found = new ArrayList<>(userIds.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : userIds) {
+            User user = users.get(id);
+            if (user == null) {
+                missingIds.add(id);
+            } else {
+                found.add(user);
+            }
         }
+
+        return new LookupResult<>(found, missingIds);
+    }
+
+    @Override
+    public <T> T callLocked(long userId, Supplier<T> action) {
+        return locks.callLocked(userId, () -> {
+            if (!users.containsKey(userId)) {
+                throw NotFoundException.user(userId);
+            }
+
+            return action.get();
+        });
+    }
+
+    @Override
+    public void addFriend(long userId, long friendId) {
+        User user = findById(userId);
+        User friend = findById(friendId);
+        locks.runLocked(userId, friendId, () -> {
+            if (users.get(userId) != user || users.get(friendId) != friend) {
+                throw new NotFoundException("Пользователь с ID = " + userId + " или " + friendId + " не найден");
+            }
+
+            if (user.getFriends().add(friendId)) {
+                user.incrementVersion();
+            }
+            if (friend.getFriends().add(userId)) {
+                friend.incrementVersion();
+            }
+            journal.friendAdded(userId, friendId);
+        });
+        journal.awaitDurable();
+    }
+
+    @Override
+    public void addFriendships(Collection<Friendship> friendships) {
+        for (Friendship friendship : friendships) {
+            addFriend(friendship.userId(), friendship.friendId());
+        }
+    }
+
+    @Override
+    public void removeFriend(long userId, long friendId) {
+        User user = findById(userId);
+        User friend = findById(friendId);
+        locks.runLocked(userId, friendId, () -> {
+            if (user.getFriends().removeValue(friendId)) {
+                user.incrementVersion();
+            }
+            if (friend.getFriends().removeValue(userId)) {
+                friend.incrementVersion();
+            }
+            journal.friendRemoved(userId, friendId);
+        });
+        journal.awaitDurable();
+    }
+
+    public void restore(User user) {
+        counter.accumulateAndGet(user.getId(), Math::max);
+        locks.runLocked(user.getId(), () -> {
+            if (users.put(user.getId(), user) == null) {
+                size.incrementAndGet();
+            }
+        });
     }
 
     private long getNextId() {
-        return ++counter;
+        return counter.incrementAndGet();
     }
 }
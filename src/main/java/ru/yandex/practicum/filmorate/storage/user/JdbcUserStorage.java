@@ -0,0 +1,361 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.JdbcRelations;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@Profile("jdbc")
+@Transactional
+@RequiredArgsConstructor
+public class JdbcUserStorage implements UserStorage {
+    private static final String SELECT_USERS = "SELECT id, email, login, name, birthday, version FROM users";
+    private static final String INSERT_USER = "INSERT INTO users (email, login, name, birthday) " +
+            "VALUES (:email, :login, :name, :birthday)";
+    private static final String INSERT_USER_WITH_ID = "INSERT INTO users (id, email, login, name, birthday) " +
+            "VALUES (:id, :email, :login, :name, :birthday)";
+    private static final String SELECT_FRIENDS = "SELECT user_id, friend_id FROM friendships WHERE user_id IN (:ids)";
+    private static final String INSERT_FRIENDSHIP = "INSERT INTO friendships (user_id, friend_id) " +
+            "SELECT :userId, id FROM users WHERE id = :friendId " +
+            "AND NOT EXISTS (SELECT 1 FROM friendships WHERE user_id = :userId AND friend_id = :friendId)";
+    private static final String BUMP_VERSIONS = "UPDATE users SET version = version + 1 WHERE id IN ";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    @Override
+    public User create(User user) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbc.update(INSERT_USER, userParameters(user), keyHolder, new String[]{"id"});
+        long userId = Objects.requireNonNull(keyHolder.getKey()).longValue();
+
+        User created = findById(userId);
+        log.info("Создан пользователь {} c ID = {}", created.getLogin(), created.getId());
+        return created;
+    }
+
+    @Override
+    public List<User> createAll(List<User> users) {
+        Set<Long> taken = JdbcRelations.existingIds(jdbc, "users",
+                users.stream().map(User::getId).filter(Objects::nonNull).toList());
+        List<User> created = new ArrayList<>(users.size());
+        for (User user : users) {
+            if (user.getId() == null || taken.add(user.getId())) {
+                user.setFriends(null);
+                created.add(user);
+            }
+        }
+
+        long explicitMaxId = created.stream().map(User::getId).filter(Objects::nonNull).mapToLong(Long::longValue)
+                .max().orElse(0);
+        if (explicitMaxId > 0) {
+            long nextId = Math.max(JdbcRelations.maxId(jdbc, "users"), explicitMaxId) + 1;
+            for (User user : created) {
+                if (user.getId() == null) {
+                    user.setId(nextId++);
+                }
+            }
+            jdbc.batchUpdate(INSERT_USER_WITH_ID, created.stream()
+                    .map(user -> userParameters(user).addValue("id", user.getId()))
+                    .toArray(SqlParameterSource[]::new));
+            JdbcRelations.restartIdentityAfterCommit(jdbc, "users");
+        } else if (!created.isEmpty()) {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbc.batchUpdate(INSERT_USER, created.stream()
+                    .map(JdbcUserStorage::userParameters)
+                    .toArray(SqlParameterSource[]::new), keyHolder, new String[]{"id"});
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < created.size(); i++) {
+                created.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            }
+        }
+
+        log.info("Импортировано {} пользователей", created.size());
+        return created;
+    }
+
+    @Override
+    public User update(User newUser) {
+        Long id = newUser.getId();
+
+        List<User> users = jdbc.query(SELECT_USERS + " WHERE id = :id FOR UPDATE", Map.of("id", id),
+                (rs, rowNum) -> mapUser(rs));
+        if (users.isEmpty()) {
+            throw NotFoundException.user(id);
+        }
+
+        User oldUser = users.getFirst();
+        if (newUser.getEmail() != null) {
+            oldUser.setEmail(newUser.getEmail());
+        }
+        if (newUser.getLogin() != null) {
+            oldUser.setLogin(newUser.getLogin());
+        }
+        if (newUser.getBirthday() != null) {
+            oldUser.setBirthday(newUser.getBirthday());
+        }
+        if (newUser.getName() != null) {
+            oldUser.setName(newUser.getName());
+        }
+
+        jdbc.update("UPDATE users SET email = :email, login = :login, name = :name, birthday = :birthday, " +
+                "version = version + 1 WHERE id = :id", userParameters(oldUser).addValue("id", id));
+        oldUser.incrementVersion();
+        log.debug("Данные пользователя с ID = {} были обнавлены", oldUser.getId());
+        return withFriends(users).getFirst();
+    }
+
+    @Override
+    public <T> T delete(long userId, Supplier<T> cleanup) {
+        lockUser(userId);
+        T cleaned = cleanup.get();
+        jdbc.update(BUMP_VERSIONS + "(SELECT friend_id FROM friendships WHERE user_id = :id)", Map.of("id", userId));
+        if (jdbc.update("DELETE FROM users WHERE id = :id", Map.of("id", userId)) == 0) {
+            throw NotFoundException.user(userId);
+        }
+        log.info("Пользователь c ID = {} удалён", userId);
+        return cleaned;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>();
+        forEach(users::add);
+        return users;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM users", Map.of(), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findPage(long afterId, int limit) {
+        return withFriends(jdbc.query(SELECT_USERS + " WHERE id > :afterId ORDER BY id LIMIT :limit",
+                Map.of("afterId", afterId, "limit", limit), (rs, rowNum) -> mapUser(rs)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(Consumer<User> action) {
+        UserAssembler assembler = new UserAssembler(action);
+        jdbc.query("SELECT u.id, u.email, u.login, u.name, u.birthday, u.version, f.friend_id " +
+                "FROM users u LEFT JOIN friendships f ON f.user_id = u.id " +
+                "ORDER BY u.id, f.friend_id", assembler::accept);
+        assembler.flush();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> find(long userId) {
+        List<User> users = jdbc.query(SELECT_USERS + " WHERE id = :id", Map.of("id", userId),
+                (rs, rowNum) -> mapUser(rs));
+        if (users.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(withFriends(users).getFirst());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean exists(long userId) {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT EXISTS(SELECT 1 FROM users WHERE id = :id)",
+                Map.of("id", userId), Boolean.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LookupResult<User> findAllByIds(Collection<Long> userIds) {
+        Map<Long, User> loaded = new HashMap<>();
+        JdbcRelations.forEachChunk(userIds, chunk -> jdbc.query(SELECT_USERS + " WHERE id IN (:ids)",
+                Map.of("ids", chunk), rs -> {
+                    User user = mapUser(rs);
+                    loaded.put(user.getId(), user);
+                }));
+        withFriends(loaded.values());
+
+        List<User> found = new ArrayList<>(loaded.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long userId : userIds) {
+            User user = loaded.get(userId);
+            if (user == null) {
+                missingIds.add(userId);
+            } else {
+                found.add(user);
+            }
+        }
+
+        return new LookupResult<>(found, missingIds);
+    }
+
+    @Override
+    public <T> T callLocked(long userId, Supplier<T> action) {
+        lockUser(userId);
+        return action.get();
+    }
+
+    @Override
+    public void addFriend(long userId, long friendId) {
+        lockUser(Math.min(userId, friendId));
+        lockUser(Math.max(userId, friendId));
+        int[] inserted = jdbc.batchUpdate(INSERT_FRIENDSHIP, new SqlParameterSource[]{
+                friendshipParameters(userId, friendId),
+                friendshipParameters(friendId, userId)
+        });
+        if (inserted[0] + inserted[1] > 0) {
+            jdbc.update(BUMP_VERSIONS + "(:ids)", Map.of("ids", List.of(userId, friendId)));
+        } else {
+            log.trace("Пользователи с ID = {} и {} уже друзья", userId, friendId);
+        }
+    }
+
+    @Override
+    public void addFriendships(Collection<Friendship> friendships) {
+        if (friendships.isEmpty()) {
+            return;
+        }
+
+        List<SqlParameterSource> batch = new ArrayList<>(friendships.size() * 2);
+        for (Friendship friendship : friendships) {
+            batch.add(friendshipParameters(friendship.userId(), friendship.friendId()));
+            batch.add(friendshipParameters(friendship.friendId(), friendship.userId()));
+        }
+        jdbc.batchUpdate(INSERT_FRIENDSHIP, batch.toArray(SqlParameterSource[]::new));
+
+        Set<Long> userIds = new HashSet<>();
+        for (Friendship friendship : friendships) {
+            userIds.add(friendship.userId());
+            userIds.add(friendship.friendId());
+        }
+        JdbcRelations.forEachChunk(userIds, chunk -> jdbc.update(BUMP_VERSIONS + "(:ids)", Map.of("ids", chunk)));
+    }
+
+    @Override
+    public void removeFriend(long userId, long friendId) {
+        requireExists(userId);
+        requireExists(friendId);
+        if (jdbc.update("DELETE FROM friendships WHERE (user_id = :userId AND friend_id = :friendId) " +
+                "OR (user_id = :friendId AND friend_id = :userId)", friendshipParameters(userId, friendId)) > 0) {
+            jdbc.update(BUMP_VERSIONS + "(:ids)", Map.of("ids", List.of(userId, friendId)));
+        }
+    }
+
+    private void lockUser(long userId) {
+        if (jdbc.queryForList("SELECT id FROM users WHERE id = :id FOR UPDATE", Map.of("id", userId), Long.class)
+                .isEmpty()) {
+            throw NotFoundException.user(userId);
+        }
+    }
+
+    private void requireExists(long userId) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE id = :id", Map.of("id", userId),
+                Integer.class);
+        if (count == null || count == 0) {
+            throw NotFoundException.user(userId);
+        }
+    }
+
+    private <C extends Collection<User>> C withFriends(C users) {
+        if (users.isEmpty()) {
+            return users;
+        }
+
+        List<Long> userIds = users.stream().map(User::getId).toList();
+        Map<Long, LongSortedSet> friends = JdbcRelations.load(jdbc, SELECT_FRIENDS, userIds);
+        for (User user : users) {
+            user.setFriends(friends.getOrDefault(user.getId(), new LongSortedSet()));
+        }
+
+        return users;
+    }
+
+    private static MapSqlParameterSource userParameters(User user) {
+        return new MapSqlParameterSource()
+                .addValue("email", user.getEmail())
+                .addValue("login", user.getLogin())
+                .addValue("name", user.getName())
+                .addValue("birthday", user.getBirthday());
+    }
+
+    private static SqlParameterSource friendshipParameters(long userId, long friendId) {
+        return new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("friendId", friendId);
+    }
+
+    private static User mapUser(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setId(rs.getLong("id"));
+        user.setEmail(rs.getString("email"));
+        user.setName(rs.getString("name"));
+        user.setLogin(rs.getString("login"));
+        user.setBirthday(rs.getObject("birthday", LocalDate.class));
+        user.setVersion(rs.getLong("version"));
+        return user;
+    }
+
+    private static final class UserAssembler {
+        private final Consumer<User> action;
+        private User current;
+        private JdbcRelations.LongBuffer friends;
+
+        private UserAssembler(Consumer<User> action) {
+            this.action = action;
+        }
+
+        private void accept(ResultSet rs) throws SQLException {
+            long userId = rs.getLong("id");
+            if (current == null || current.getId() != userId) {
+                flush();
+                current = mapUser(rs);
+                friends = new JdbcRelations.LongBuffer();
+            }
+
+            long friendId = rs.getLong("friend_id");
+            if (!rs.wasNull()) {
+                friends.add(friendId);
+            }
+        }
+
+        private void flush() {
+            if (current != null) {
+                current.setFriends(friends.toSet());
+                action.accept(current);
+                current = null;
+            }
+        }
+    }
+}
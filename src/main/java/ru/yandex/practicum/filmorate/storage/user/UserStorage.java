@@ -1,17 +1,54 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public interface UserStorage {
     User create(User user);
 
+    List<User> createAll(List<User> users);
+
     User update(User newUser);
 
-    void delete();
+    <T> T delete(long userId, Supplier<T> cleanup);
+
+    default void delete(long userId) {
+        delete(userId, () -> null);
+    }
 
     List<User> findAll();
 
-    User findById(long userId);
+    long count();
+
+    List<User> findPage(long afterId, int limit);
+
+    void forEach(Consumer<User> action);
+
+    Optional<User> find(long userId);
+
+    default User findById(long userId) {
+        return find(userId).orElseThrow(() -> NotFoundException.user(userId));
+    }
+
+    default boolean exists(long userId) {
+        return find(userId).isPresent();
+    }
+
+    LookupResult<User> findAllByIds(Collection<Long> userIds);
+
+    <T> T callLocked(long userId, Supplier<T> action);
+
+    void addFriend(long userId, long friendId);
+
+    void addFriendships(Collection<Friendship> friendships);
+
+    void removeFriend(long userId, long friendId);
 }
@@ -0,0 +1,109 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Set;
+
+final class EntityCodec {
+    private EntityCodec() {
+    }
+
+    static void writeFilm(DataOutput out, Film film, boolean withLikes) throws IOException {
+        out.writeLong(film.getId());
+        writeString(out, film.getName());
+        writeString(out, film.getDescription());
+        writeDate(out, film.getReleaseDate());
+        writeInteger(out, film.getDuration());
+        writeIds(out, withLikes ? film.getUserLikes() : Set.of());
+    }
+
+    static Film readFilm(DataInput in) throws IOException {
+        Film film = new Film();
+        film.setId(in.readLong());
+        film.setName(readString(in));
+        film.setDescription(readString(in));
+        film.setReleaseDate(readDate(in));
+        film.setDuration(readInteger(in));
+        film.setUserLikes(readIds(in));
+        return film;
+    }
+
+    static void writeUser(DataOutput out, User user, boolean withFriends) throws IOException {
+        out.writeLong(user.getId());
+        writeString(out, user.getEmail());
+        writeString(out, user.getLogin());
+        writeString(out, user.getName());
+        writeDate(out, user.getBirthday());
+        writeIds(out, withFriends ? user.getFriends() : Set.of());
+    }
+
+    static User readUser(DataInput in) throws IOException {
+        User user = new User();
+        user.setId(in.readLong());
+        user.setEmail(readString(in));
+        String login = readString(in);
+        user.setName(readString(in));
+        user.setLogin(login);
+        user.setBirthday(readDate(in));
+        user.setFriends(readIds(in));
+        return user;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.toEpochDay());
+        }
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+    }
+
+    private static void writeInteger(DataOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeIds(DataOutput out, Set<Long> ids) throws IOException {
+        long[] values = ids instanceof LongSortedSet sorted
+                ? sorted.toLongArray()
+                : ids.stream().mapToLong(Long::longValue).toArray();
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    private static LongSortedSet readIds(DataInput in) throws IOException {
+        int size = in.readInt();
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = in.readLong();
+        }
+        return LongSortedSet.of(values, size);
+    }
+}
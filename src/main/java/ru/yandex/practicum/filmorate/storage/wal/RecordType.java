@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+public enum RecordType {
+    FILM_CREATED,
+    FILM_UPDATED,
+    LIKE_ADDED,
+    LIKE_REMOVED,
+    USER_CREATED,
+    USER_UPDATED,
+    FRIEND_ADDED,
+    FRIEND_REMOVED,
+    FILM_DELETED,
+    USER_DELETED;
+
+    private static final RecordType[] VALUES = values();
+
+    public byte code() {
+        return (byte) (ordinal() + 1);
+    }
+
+    public static RecordType fromCode(byte code) {
+        if (code < 1 || code > VALUES.length) {
+            throw new IllegalArgumentException("Неизвестный тип записи журнала: " + code);
+        }
+        return VALUES[code - 1];
+    }
+}
@@ -0,0 +1,178 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Slf4j
+@RequiredArgsConstructor
+public class SnapshotManager implements Closeable {
+    private static final int MAGIC = 0x464D5253;
+    private static final int VERSION = 1;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final byte FILM = 1;
+    private static final byte USER = 2;
+    private static final byte END = 0;
+
+    private final Path directory;
+    private final WriteAheadLog wal;
+    private final InMemoryFilmStorage filmStorage;
+    private final InMemoryUserStorage userStorage;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "storage-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public void recover() throws IOException {
+        long started = System.nanoTime();
+        long fromLsn = 1;
+        long entities = 0;
+
+        Optional<Path> snapshot = latestSnapshot();
+        if (snapshot.isPresent()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(snapshot.get()), 1 << 16))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Неизвестный формат снимка " + snapshot.get());
+                }
+
+                fromLsn = in.readLong();
+                for (byte tag = in.readByte(); tag != END; tag = in.readByte()) {
+                    if (tag == FILM) {
+                        filmStorage.restore(EntityCodec.readFilm(in));
+                    } else if (tag == USER) {
+                        userStorage.restore(EntityCodec.readUser(in));
+                    } else {
+                        throw new IOException("Повреждён снимок " + snapshot.get());
+                    }
+                    entities++;
+                }
+            }
+        }
+        long snapshotLoaded = System.nanoTime();
+
+        long records = wal.replay(fromLsn, this::apply);
+        long finished = System.nanoTime();
+        log.info("Хранилище восстановлено за {} мс: {} сущностей из снимка за {} мс, {} записей журнала за {} мс",
+                (finished - started) / 1_000_000, entities, (snapshotLoaded - started) / 1_000_000,
+                records, (finished - snapshotLoaded) / 1_000_000);
+    }
+
+    public void start(Duration interval) {
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshot, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    public void snapshot() {
+        long started = System.nanoTime();
+        long lsn = wal.currentLsn();
+        Path target = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temporary), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(lsn);
+                userStorage.forEach(user -> writeEntity(out, USER, user));
+                filmStorage.forEach(film -> writeEntity(out, FILM, film));
+                out.writeByte(END);
+            }
+
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+            for (Path old : snapshots()) {
+                if (!old.equals(target)) {
+                    Files.deleteIfExists(old);
+                }
+            }
+            wal.truncateBefore(lsn);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Не удалось сохранить снимок хранилища", e);
+            return;
+        }
+
+        log.info("Снимок хранилища на LSN = {} сохранён за {} мс", lsn, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void apply(RecordType type, DataInputStream in) throws IOException {
+        try {
+            switch (type) {
+                case FILM_CREATED -> filmStorage.restore(EntityCodec.readFilm(in));
+                case FILM_UPDATED -> filmStorage.update(EntityCodec.readFilm(in));
+                case FILM_DELETED -> filmStorage.delete(in.readLong());
+                case LIKE_ADDED -> filmStorage.addLike(in.readLong(), in.readLong());
+                case LIKE_REMOVED -> filmStorage.removeLike(in.readLong(), in.readLong());
+                case USER_CREATED -> userStorage.restore(EntityCodec.readUser(in));
+                case USER_UPDATED -> userStorage.update(EntityCodec.readUser(in));
+                case USER_DELETED -> userStorage.delete(in.readLong());
+                case FRIEND_ADDED -> userStorage.addFriend(in.readLong(), in.readLong());
+                case FRIEND_REMOVED -> userStorage.removeFriend(in.readLong(), in.readLong());
+            }
+        } catch (NotFoundException e) {
+            log.debug("Запись журнала {} пропущена: {}", type, e.getMessage());
+        }
+    }
+
+    private static void writeEntity(DataOutputStream out, byte tag, Object entity) {
+        try {
+            out.writeByte(tag);
+            if (entity instanceof Film film) {
+                EntityCodec.writeFilm(out, film, true);
+            } else {
+                EntityCodec.writeUser(out, (User) entity, true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Optional<Path> latestSnapshot() throws IOException {
+        List<Path> snapshots = snapshots();
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.getLast());
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.io.IOException;
+
+@Configuration
+@Profile("!jdbc")
+@ConditionalOnProperty(prefix = "filmorate.storage.wal", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(WalProperties.class)
+@RequiredArgsConstructor
+public class WalConfig {
+    private final WalProperties properties;
+
+    @Bean(destroyMethod = "close")
+    public WriteAheadLog writeAheadLog() {
+        return new WriteAheadLog(properties);
+    }
+
+    @Bean(destroyMethod = "close")
+    public SnapshotManager snapshotManager(WriteAheadLog writeAheadLog, InMemoryFilmStorage filmStorage,
+                                           InMemoryUserStorage userStorage) throws IOException {
+        SnapshotManager snapshotManager = new SnapshotManager(properties.directory(), writeAheadLog, filmStorage,
+                userStorage);
+        snapshotManager.recover();
+        snapshotManager.start(properties.snapshotInterval());
+        return snapshotManager;
+    }
+}
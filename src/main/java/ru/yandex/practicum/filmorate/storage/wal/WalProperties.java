@@ -0,0 +1,18 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "filmorate.storage.wal")
+public record WalProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("./data") Path directory,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("10ms") Duration flushInterval,
+        @DefaultValue("false") boolean syncCommit,
+        @DefaultValue("10m") Duration snapshotInterval) {
+}
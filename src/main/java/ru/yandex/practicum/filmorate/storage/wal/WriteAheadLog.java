@@ -0,0 +1,385 @@
+package ru.yandex.practicum.filmorate.storage.wal;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.StorageJournal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+@Slf4j
+public class WriteAheadLog implements StorageJournal, Closeable {
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String QUARANTINE_SUFFIX = ".corrupt";
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES + Byte.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean syncCommit;
+    private final Lock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final ScheduledExecutorService flusher;
+    private final ThreadLocal<Long> pendingLsn = new ThreadLocal<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long nextLsn = 1;
+    private long writtenLsn;
+    private volatile long flushedLsn;
+    private volatile boolean suppressed;
+
+    public WriteAheadLog(WalProperties properties) {
+        this.directory = properties.directory();
+        this.segmentSize = (int) properties.segmentSize().toBytes();
+        this.syncCommit = properties.syncCommit();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long interval = properties.flushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public long replay(long fromLsn, RecordHandler handler) throws IOException {
+        suppressed = true;
+        long lastLsn = fromLsn - 1;
+        long records = 0;
+        try {
+            List<Path> segments = segments();
+            for (int i = 0; i < segments.size(); i++) {
+                Path path = segments.get(i);
+                int corruptAt = -1;
+                try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                    while (buffer.remaining() >= HEADER_SIZE) {
+                        int position = buffer.position();
+                        int length = buffer.getInt();
+                        if (length == 0) {
+                            break;
+                        }
+                        if (length < 0 || length > buffer.remaining() - HEADER_SIZE + Integer.BYTES) {
+                            log.warn("Повреждённая длина записи журнала после LSN = {} в {}, воспроизведение "
+                                    + "остановлено", lastLsn, path);
+                            corruptAt = position;
+                            break;
+                        }
+
+                        int checksum = buffer.getInt();
+                        long lsn = buffer.getLong();
+                        byte type = buffer.get();
+                        byte[] payload = new byte[length];
+                        buffer.get(payload);
+                        if (checksum != checksum(lsn, type, payload)) {
+                            log.warn("Повреждённая запись журнала с LSN = {} в {}, воспроизведение остановлено",
+                                    lsn, path);
+                            corruptAt = position;
+                            break;
+                        }
+
+                        if (lsn >= fromLsn) {
+                            handler.handle(RecordType.fromCode(type),
+                                    new DataInputStream(new ByteArrayInputStream(payload)));
+                            records++;
+                        }
+                        lastLsn = Math.max(lastLsn, lsn);
+                    }
+                }
+
+                if (corruptAt >= 0) {
+                    discardAfter(path, corruptAt, segments.subList(i + 1, segments.size()));
+                    break;
+                }
+            }
+        } finally {
+            suppressed = false;
+        }
+
+        lock.lock();
+        try {
+            nextLsn = lastLsn + 1;
+            writtenLsn = lastLsn;
+            flushedLsn = lastLsn;
+            openSegment();
+        } finally {
+            lock.unlock();
+        }
+
+        log.info("Из журнала воспроизведено {} записей, следующий LSN = {}", records, nextLsn);
+        return records;
+    }
+
+    public long currentLsn() {
+        lock.lock();
+        try {
+            return nextLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void truncateBefore(long lsn) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstLsn(segments.get(i + 1)) <= lsn) {
+                Files.deleteIfExists(segments.get(i));
+                log.debug("Удалён сегмент журнала {}", segments.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void filmCreated(Film film) {
+        append(RecordType.FILM_CREATED, out -> EntityCodec.writeFilm(out, film, true));
+    }
+
+    @Override
+    public void filmUpdated(Film film) {
+        append(RecordType.FILM_UPDATED, out -> EntityCodec.writeFilm(out, film, false));
+    }
+
+    @Override
+    public void filmDeleted(long filmId) {
+        append(RecordType.FILM_DELETED, out -> out.writeLong(filmId));
+    }
+
+    @Override
+    public void likeAdded(long filmId, long userId) {
+        append(RecordType.LIKE_ADDED, out -> writePair(out, filmId, userId));
+    }
+
+    @Override
+    public void likeRemoved(long filmId, long userId) {
+        append(RecordType.LIKE_REMOVED, out -> writePair(out, filmId, userId));
+    }
+
+    @Override
+    public void userCreated(User user) {
+        append(RecordType.USER_CREATED, out -> EntityCodec.writeUser(out, user, true));
+    }
+
+    @Override
+    public void userUpdated(User user) {
+        append(RecordType.USER_UPDATED, out -> EntityCodec.writeUser(out, user, false));
+    }
+
+    @Override
+    public void userDeleted(long userId) {
+        append(RecordType.USER_DELETED, out -> out.writeLong(userId));
+    }
+
+    @Override
+    public void friendAdded(long userId, long friendId) {
+        append(RecordType.FRIEND_ADDED, out -> writePair(out, userId, friendId));
+    }
+
+    @Override
+    public void friendRemoved(long userId, long friendId) {
+        append(RecordType.FRIEND_REMOVED, out -> writePair(out, userId, friendId));
+    }
+
+    @Override
+    public void awaitDurable() {
+        Long lsn = pendingLsn.get();
+        if (lsn == null) {
+            return;
+        }
+
+        pendingLsn.remove();
+        if (lsn <= flushedLsn) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (flushedLsn < lsn) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void flush() {
+        long target;
+        MappedByteBuffer current;
+        lock.lock();
+        try {
+            target = writtenLsn;
+            current = segment;
+        } finally {
+            lock.unlock();
+        }
+
+        if (current == null || target <= flushedLsn) {
+            return;
+        }
+
+        current.force();
+        lock.lock();
+        try {
+            flushedLsn = Math.max(flushedLsn, target);
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        flush();
+        lock.lock();
+        try {
+            closeSegment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(RecordType type, PayloadWriter writer) {
+        if (suppressed) {
+            return;
+        }
+
+        byte[] payload;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            writer.write(new DataOutputStream(bytes));
+            payload = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long lsn;
+        lock.lock();
+        try {
+            if (segment == null) {
+                openSegment();
+            } else if (segment.remaining() < HEADER_SIZE + payload.length) {
+                segment.force();
+                closeSegment();
+                openSegment();
+            }
+
+            lsn = nextLsn++;
+            segment.putInt(payload.length);
+            segment.putInt(checksum(lsn, type.code(), payload));
+            segment.putLong(lsn);
+            segment.put(type.code());
+            segment.put(payload);
+            writtenLsn = lsn;
+        } finally {
+            lock.unlock();
+        }
+
+        if (syncCommit) {
+            pendingLsn.set(lsn);
+        }
+    }
+
+    private void discardAfter(Path corrupt, int position, List<Path> laterSegments) throws IOException {
+        try (FileChannel writeChannel = FileChannel.open(corrupt, StandardOpenOption.WRITE)) {
+            writeChannel.truncate(position);
+        }
+        log.warn("Сегмент журнала {} обрезан до {} байт", corrupt, position);
+
+        for (Path segment : laterSegments) {
+            Path quarantined = segment.resolveSibling(segment.getFileName() + QUARANTINE_SUFFIX);
+            Files.move(segment, quarantined, StandardCopyOption.REPLACE_EXISTING);
+            log.warn("Сегмент журнала {} после повреждения перемещён в {}", segment, quarantined);
+        }
+    }
+
+    private void openSegment() {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextLsn, SEGMENT_SUFFIX));
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("Открыт сегмент журнала {}", path);
+    }
+
+    private void closeSegment() {
+        segment = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Не удалось закрыть сегмент журнала", e);
+            }
+            channel = null;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> isSegment(path.getFileName().toString()))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static boolean isSegment(String name) {
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int checksum(long lsn, byte type, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES + Byte.BYTES).putLong(lsn).put(type).flip());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void writePair(DataOutputStream out, long first, long second) throws IOException {
+        out.writeLong(first);
+        out.writeLong(second);
+    }
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void handle(RecordType type, DataInputStream payload) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.yandex.practicum.filmorate.trending;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LikeEventRing {
+    private final long[] filmIds;
+    private final int[] deltas;
+    private final long[] timestamps;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final int mask;
+
+    public LikeEventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        filmIds = new long[size];
+        deltas = new int[size];
+        timestamps = new long[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        mask = size - 1;
+    }
+
+    public boolean offer(long filmId, int delta, long timestamp) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() > mask) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        filmIds[slot] = filmId;
+        deltas[slot] = delta;
+        timestamps[slot] = timestamp;
+        published.setRelease(slot, sequence);
+        return true;
+    }
+
+    public int drain(EventHandler handler, int limit) {
+        long next = consumed.get();
+        int drained = 0;
+        while (drained < limit) {
+            int slot = (int) next & mask;
+            if (published.getAcquire(slot) != next) {
+                break;
+            }
+            handler.accept(filmIds[slot], deltas[slot], timestamps[slot]);
+            next++;
+            drained++;
+        }
+
+        consumed.setRelease(next);
+        return drained;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public int size() {
+        return (int) Math.max(0, claimed.get() - consumed.get());
+    }
+
+    public interface EventHandler {
+        void accept(long filmId, int delta, long timestamp);
+    }
+}
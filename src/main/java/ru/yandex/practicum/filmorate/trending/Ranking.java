@@ -0,0 +1,15 @@
+package ru.yandex.practicum.filmorate.trending;
+
+import java.util.Arrays;
+
+public record Ranking(long[] filmIds, int[] likes) {
+    public static final Ranking EMPTY = new Ranking(new long[0], new int[0]);
+
+    public int size() {
+        return filmIds.length;
+    }
+
+    public long[] head(int count) {
+        return count >= filmIds.length ? filmIds.clone() : Arrays.copyOf(filmIds, count);
+    }
+}
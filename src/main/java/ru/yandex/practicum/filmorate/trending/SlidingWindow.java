@@ -0,0 +1,137 @@
+package ru.yandex.practicum.filmorate.trending;
+
+import ru.yandex.practicum.filmorate.util.LongIntCounter;
+
+import java.util.Arrays;
+
+class SlidingWindow {
+    private static final int INITIAL_BUCKET_SIZE = 64;
+
+    private final long bucketMillis;
+    private final LongIntCounter[] buckets;
+    private final long[] bucketIds;
+
+    SlidingWindow(TrendingWindow window) {
+        this.bucketMillis = window.getBucketMillis();
+        this.buckets = new LongIntCounter[window.getBuckets()];
+        this.bucketIds = new long[window.getBuckets()];
+        Arrays.fill(bucketIds, Long.MIN_VALUE);
+    }
+
+    void add(long filmId, int delta, long timestamp) {
+        long bucketId = Math.floorDiv(timestamp, bucketMillis);
+        int slot = (int) Math.floorMod(bucketId, (long) buckets.length);
+        if (bucketIds[slot] != bucketId) {
+            if (bucketIds[slot] > bucketId) {
+                return;
+            }
+            buckets[slot] = new LongIntCounter(INITIAL_BUCKET_SIZE);
+            bucketIds[slot] = bucketId;
+        }
+        buckets[slot].add(filmId, delta);
+    }
+
+    Ranking rank(long now, int topSize) {
+        long current = Math.floorDiv(now, bucketMillis);
+        long oldest = current - buckets.length + 1;
+        int expectedSize = 0;
+        for (int slot = 0; slot < buckets.length; slot++) {
+            if (bucketIds[slot] < oldest) {
+                buckets[slot] = null;
+                bucketIds[slot] = Long.MIN_VALUE;
+            } else if (bucketIds[slot] <= current) {
+                expectedSize = Math.max(expectedSize, buckets[slot].size());
+            }
+        }
+
+        LongIntCounter totals = new LongIntCounter(expectedSize);
+        for (int slot = 0; slot < buckets.length; slot++) {
+            if (buckets[slot] != null && bucketIds[slot] <= current) {
+                buckets[slot].forEach(totals::add);
+            }
+        }
+
+        TopHeap heap = new TopHeap(topSize);
+        totals.forEach(heap::offer);
+        return heap.toRanking();
+    }
+
+    private static final class TopHeap {
+        private final long[] filmIds;
+        private final int[] likes;
+        private int size;
+
+        private TopHeap(int capacity) {
+            filmIds = new long[capacity];
+            likes = new int[capacity];
+        }
+
+        private void offer(long filmId, int count) {
+            if (count <= 0 || filmIds.length == 0) {
+                return;
+            }
+            if (size < filmIds.length) {
+                filmIds[size] = filmId;
+                likes[size] = count;
+                siftUp(size++);
+            } else if (ranksBefore(filmId, count, 0)) {
+                filmIds[0] = filmId;
+                likes[0] = count;
+                siftDown(0);
+            }
+        }
+
+        private Ranking toRanking() {
+            long[] rankedIds = new long[size];
+            int[] rankedLikes = new int[size];
+            for (int position = size - 1; position >= 0; position--) {
+                rankedIds[position] = filmIds[0];
+                rankedLikes[position] = likes[0];
+                size--;
+                swap(0, size);
+                siftDown(0);
+            }
+            return new Ranking(rankedIds, rankedLikes);
+        }
+
+        private boolean ranksBefore(long filmId, int count, int index) {
+            return count > likes[index] || count == likes[index] && filmId < filmIds[index];
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!ranksBefore(filmIds[parent], likes[parent], index)) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int weakest = index;
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                    if (!ranksBefore(filmIds[child], likes[child], weakest)) {
+                        weakest = child;
+                    }
+                }
+                if (weakest == index) {
+                    return;
+                }
+                swap(index, weakest);
+                index = weakest;
+            }
+        }
+
+        private void swap(int first, int second) {
+            long filmId = filmIds[first];
+            filmIds[first] = filmIds[second];
+            filmIds[second] = filmId;
+            int count = likes[first];
+            likes[first] = likes[second];
+            likes[second] = count;
+        }
+    }
+}
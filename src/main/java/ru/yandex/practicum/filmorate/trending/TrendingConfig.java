@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.trending;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TrendingProperties.class)
+public class TrendingConfig {
+    @Bean(destroyMethod = "close")
+    public TrendingPipeline trendingPipeline(TrendingProperties properties, MeterRegistry meterRegistry) {
+        TrendingPipeline pipeline = new TrendingPipeline(properties, meterRegistry, System::currentTimeMillis);
+        pipeline.start();
+        return pipeline;
+    }
+}
@@ -0,0 +1,170 @@
+package ru.yandex.practicum.filmorate.trending;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+@Slf4j
+public class TrendingPipeline implements Closeable {
+    private static final int DRAIN_BATCH = 4096;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final TrendingProperties properties;
+    private final LongSupplier clock;
+    private final LikeEventRing ring;
+    private final Map<TrendingWindow, SlidingWindow> windows = new EnumMap<>(TrendingWindow.class);
+    private final Counter dropped;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Map<TrendingWindow, Ranking> rankings;
+    private volatile boolean running;
+    private volatile boolean idle;
+    private volatile Thread aggregator;
+    private long nextRefreshAt;
+
+    public TrendingPipeline(TrendingProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.ring = new LikeEventRing(properties.ringCapacity());
+
+        Map<TrendingWindow, Ranking> empty = new EnumMap<>(TrendingWindow.class);
+        for (TrendingWindow window : TrendingWindow.values()) {
+            windows.put(window, new SlidingWindow(window));
+            empty.put(window, Ranking.EMPTY);
+        }
+        this.rankings = empty;
+
+        this.dropped = Counter.builder("filmorate.trending.dropped")
+                .description("Количество событий лайков, отброшенных из-за переполнения кольцевого буфера")
+                .register(meterRegistry);
+        Gauge.builder("filmorate.trending.queue", ring, LikeEventRing::size)
+                .description("Количество событий лайков, ожидающих агрегации")
+                .register(meterRegistry);
+    }
+
+    public void likeAdded(long filmId) {
+        publish(filmId, 1);
+    }
+
+    public void likeRemoved(long filmId) {
+        publish(filmId, -1);
+    }
+
+    public void likesRemoved(long filmId, int count) {
+        if (count > 0) {
+            publish(filmId, -count);
+        }
+    }
+
+    private void publish(long filmId, int delta) {
+        if (!ring.offer(filmId, delta, clock.getAsLong())) {
+            dropped.increment();
+        }
+        if (idle) {
+            idle = false;
+            LockSupport.unpark(aggregator);
+        }
+    }
+
+    public Ranking ranking(TrendingWindow window) {
+        return rankings.get(window);
+    }
+
+    public int processPending() {
+        lock.lock();
+        try {
+            int processed = 0;
+            int drained;
+            do {
+                drained = ring.drain(this::apply, DRAIN_BATCH);
+                processed += drained;
+            } while (drained == DRAIN_BATCH);
+            return processed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void refresh() {
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            Map<TrendingWindow, Ranking> refreshed = new EnumMap<>(TrendingWindow.class);
+            windows.forEach((window, counter) -> refreshed.put(window, counter.rank(now, properties.topSize())));
+            rankings = refreshed;
+            nextRefreshAt = now + properties.refreshInterval().toMillis();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(long filmId, int delta, long timestamp) {
+        for (SlidingWindow window : windows.values()) {
+            window.add(filmId, delta, timestamp);
+        }
+    }
+
+    public void start() {
+        running = true;
+        aggregator = Thread.ofPlatform().name("trending-aggregator").daemon().start(this::run);
+    }
+
+    private void run() {
+        long minIdleNanos = Math.max(1, properties.idleWait().toNanos());
+        long idleNanos = minIdleNanos;
+        while (running) {
+            try {
+                int processed = processPending();
+                long now = clock.getAsLong();
+                if (now >= nextRefreshAt) {
+                    refresh();
+                    now = clock.getAsLong();
+                }
+                if (processed > 0) {
+                    idleNanos = minIdleNanos;
+                    continue;
+                }
+
+                long untilRefresh = Math.max(1, TimeUnit.MILLISECONDS.toNanos(nextRefreshAt - now));
+                awaitEvents(Math.min(idleNanos, untilRefresh));
+                idleNanos = Math.min(idleNanos * 2, untilRefresh);
+            } catch (RuntimeException exception) {
+                log.error("Ошибка агрегации событий лайков", exception);
+            }
+        }
+    }
+
+    private void awaitEvents(long nanos) {
+        idle = true;
+        if (running && ring.size() == 0) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        idle = false;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (aggregator == null) {
+            return;
+        }
+
+        LockSupport.unpark(aggregator);
+        try {
+            if (!aggregator.join(SHUTDOWN_TIMEOUT)) {
+                log.warn("Агрегатор трендов не остановился за {}", SHUTDOWN_TIMEOUT);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
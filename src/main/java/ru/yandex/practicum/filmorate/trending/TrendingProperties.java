@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.trending;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("filmorate.trending")
+public record TrendingProperties(@DefaultValue("65536") int ringCapacity,
+                                 @DefaultValue("100") int topSize,
+                                 @DefaultValue("1s") Duration refreshInterval,
+                                 @DefaultValue("1ms") Duration idleWait) {
+}
@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.trending;
+
+import lombok.Getter;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import java.time.Duration;
+
+@Getter
+public enum TrendingWindow {
+    HOUR("1h", Duration.ofHours(1), 60),
+    DAY("24h", Duration.ofDays(1), 48),
+    WEEK("7d", Duration.ofDays(7), 28);
+
+    private final String label;
+    private final Duration length;
+    private final int buckets;
+    private final long bucketMillis;
+
+    TrendingWindow(String label, Duration length, int buckets) {
+        this.label = label;
+        this.length = length;
+        this.buckets = buckets;
+        this.bucketMillis = length.toMillis() / buckets;
+    }
+
+    public static TrendingWindow of(String label) {
+        for (TrendingWindow window : values()) {
+            if (window.label.equalsIgnoreCase(label)) {
+                return window;
+            }
+        }
+        throw new ValidationException("Неизвестное окно трендов " + label + ", допустимы 1h, 24h и 7d");
+    }
+}
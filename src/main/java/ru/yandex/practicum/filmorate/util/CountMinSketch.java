@@ -0,0 +1,67 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CountMinSketch {
+    private final AtomicLongArray counters;
+    private final LongAdder total = new LongAdder();
+    private final int width;
+    private final int depth;
+    private final double epsilon;
+    private final double confidence;
+
+    public CountMinSketch(double epsilon, double confidence) {
+        if (epsilon <= 0 || epsilon >= 1 || confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("Параметры Count-Min должны быть в интервале (0, 1)");
+        }
+        this.width = (int) Math.ceil(Math.E / epsilon);
+        this.depth = (int) Math.ceil(Math.log(1 / (1 - confidence)));
+        this.epsilon = Math.E / width;
+        this.confidence = 1 - Math.exp(-depth);
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    public long add(long key, long delta) {
+        long hash = Hashing.mix(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(row * width + bucket(first, second, row), delta));
+        }
+        total.add(delta);
+        return Math.max(0, estimate);
+    }
+
+    public long estimate(long key) {
+        long hash = Hashing.mix(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + bucket(first, second, row)));
+        }
+        return Math.max(0, estimate);
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    public long maxOverestimate() {
+        return (long) Math.ceil(epsilon * Math.max(0, total()));
+    }
+
+    public double confidence() {
+        return confidence;
+    }
+
+    public long sizeInBytes() {
+        return (long) width * depth * Long.BYTES;
+    }
+
+    private int bucket(int first, int second, int row) {
+        return Math.floorMod(first + row * second, width);
+    }
+}
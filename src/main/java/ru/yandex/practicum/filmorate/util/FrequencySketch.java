@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.util;
+
+final class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+
+    private final long[] table;
+    private final int width;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        this.width = Math.max(16, Integer.highestOneBit(Math.min(maximumSize, 1 << 28) - 1) << 1);
+        this.table = new long[width * DEPTH / 16];
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * maximumSize);
+    }
+
+    int frequency(long key) {
+        long hash = Hashing.mix(key);
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, count(counter(hash, row)));
+        }
+        return frequency;
+    }
+
+    void increment(long key) {
+        long hash = Hashing.mix(key);
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int counter = counter(hash, row);
+            if (count(counter) < MAX_COUNT) {
+                table[counter >>> 4] += 1L << ((counter & 15) << 2);
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private int counter(long hash, int row) {
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        return row * width + ((first + row * second) & (width - 1));
+    }
+
+    private int count(int counter) {
+        return (int) (table[counter >>> 4] >>> ((counter & 15) << 2)) & MAX_COUNT;
+    }
+}
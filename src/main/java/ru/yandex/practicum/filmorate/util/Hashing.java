@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.util;
+
+public final class Hashing {
+    private Hashing() {
+    }
+
+    public static long mix(long value) {
+        long hash = value + 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+public class HyperLogLog {
+    private static final VarHandle REGISTERS = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final double[] INVERSE_POWERS = new double[Long.SIZE + 2];
+
+    static {
+        for (int rank = 0; rank < INVERSE_POWERS.length; rank++) {
+            INVERSE_POWERS[rank] = Math.scalb(1.0, -rank);
+        }
+    }
+
+    private final byte[] registers;
+    private final int precision;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Точность HyperLogLog должна быть от 4 до 18: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void add(long value) {
+        long hash = Hashing.mix(value);
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+
+        byte current = (byte) REGISTERS.getOpaque(registers, index);
+        while (current < rank && !REGISTERS.weakCompareAndSet(registers, index, current, rank)) {
+            current = (byte) REGISTERS.getOpaque(registers, index);
+        }
+    }
+
+    public void mergeInto(HyperLogLog target) {
+        if (target.precision != precision) {
+            throw new IllegalArgumentException("Нельзя объединить HyperLogLog разной точности");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            target.registers[i] = (byte) Math.max(target.registers[i], registers[i]);
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte rank : registers) {
+            sum += INVERSE_POWERS[rank];
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+
+        double raw = alpha(m) * m * m / sum;
+        if (raw <= 2.5 * m && zeros > 0) {
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    public int sizeInBytes() {
+        return registers.length;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
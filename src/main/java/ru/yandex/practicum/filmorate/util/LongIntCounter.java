@@ -0,0 +1,150 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.Arrays;
+
+public class LongIntCounter {
+    private static final long EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] counts;
+    private int mask;
+    private int size;
+    private int zeroCount;
+    private boolean hasZero;
+
+    public LongIntCounter(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int increment(long key) {
+        return add(key, 1);
+    }
+
+    public int add(long key, int delta) {
+        if (key == EMPTY) {
+            if (!hasZero) {
+                hasZero = true;
+                size++;
+            }
+            zeroCount += delta;
+            return zeroCount;
+        }
+
+        int index = indexOf(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                counts[index] += delta;
+                return counts[index];
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        counts[index] = delta;
+        if (++size > keys.length * LOAD_FACTOR) {
+            resize();
+        }
+        return delta;
+    }
+
+    public int get(long key) {
+        if (key == EMPTY) {
+            return zeroCount;
+        }
+
+        int index = indexOf(key);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return counts[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(EntryConsumer action) {
+        if (hasZero) {
+            action.accept(EMPTY, zeroCount);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                action.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    public long[] top(int limit) {
+        int capacity = Math.min(limit, size);
+        long[] topKeys = new long[capacity];
+        int[] topCounts = new int[capacity];
+        int filled = 0;
+
+        if (hasZero) {
+            filled = offer(topKeys, topCounts, filled, EMPTY, zeroCount);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                filled = offer(topKeys, topCounts, filled, keys[i], counts[i]);
+            }
+        }
+
+        return filled == capacity ? topKeys : Arrays.copyOf(topKeys, filled);
+    }
+
+    private static int offer(long[] topKeys, int[] topCounts, int filled, long key, int count) {
+        int position = filled;
+        while (position > 0 && ranksBefore(key, count, topKeys[position - 1], topCounts[position - 1])) {
+            position--;
+        }
+        if (position == topKeys.length) {
+            return filled;
+        }
+
+        int end = Math.min(filled, topKeys.length - 1);
+        System.arraycopy(topKeys, position, topKeys, position + 1, end - position);
+        System.arraycopy(topCounts, position, topCounts, position + 1, end - position);
+        topKeys[position] = key;
+        topCounts[position] = count;
+        return Math.min(filled + 1, topKeys.length);
+    }
+
+    private static boolean ranksBefore(long key, int count, long otherKey, int otherCount) {
+        return count > otherCount || count == otherCount && key < otherKey;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = indexOf(oldKeys[i]);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    public interface EntryConsumer {
+        void accept(long key, int count);
+    }
+}
@@ -0,0 +1,122 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.Arrays;
+import java.util.Set;
+
+public final class LongSets {
+    private static final int GALLOP_RATIO = 32;
+
+    private LongSets() {
+    }
+
+    public static LongSortedSet intersection(Set<Long> first, Set<Long> second) {
+        if (first instanceof LongSortedSet sortedFirst && second instanceof LongSortedSet sortedSecond) {
+            return intersection(sortedFirst.sortedValues(), sortedSecond.sortedValues());
+        }
+
+        return probeIntersection(first, second);
+    }
+
+    public static int intersectionSize(LongSortedSet first, LongSortedSet second) {
+        long[] firstValues = first.sortedValues();
+        long[] secondValues = second.sortedValues();
+        long[] small = firstValues.length <= secondValues.length ? firstValues : secondValues;
+        long[] large = small == firstValues ? secondValues : firstValues;
+        if (small.length == 0) {
+            return 0;
+        }
+
+        if (large.length / small.length >= GALLOP_RATIO) {
+            return gallop(small, large, null);
+        }
+        return merge(small, large, null);
+    }
+
+    static LongSortedSet intersection(long[] first, long[] second) {
+        long[] small = first.length <= second.length ? first : second;
+        long[] large = small == first ? second : first;
+        if (small.length == 0) {
+            return new LongSortedSet();
+        }
+
+        if (large.length / small.length >= GALLOP_RATIO) {
+            return gallopIntersection(small, large);
+        }
+        return mergeIntersection(small, large);
+    }
+
+    static LongSortedSet mergeIntersection(long[] first, long[] second) {
+        long[] result = new long[Math.min(first.length, second.length)];
+        return LongSortedSet.ofSorted(result, merge(first, second, result));
+    }
+
+    static LongSortedSet gallopIntersection(long[] small, long[] large) {
+        long[] result = new long[small.length];
+        return LongSortedSet.ofSorted(result, gallop(small, large, result));
+    }
+
+    private static int merge(long[] first, long[] second, long[] result) {
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                if (result != null) {
+                    result[size] = first[i];
+                }
+                size++;
+                i++;
+                j++;
+            }
+        }
+
+        return size;
+    }
+
+    private static int gallop(long[] small, long[] large, long[] result) {
+        int size = 0;
+        int low = 0;
+        for (long value : small) {
+            int bound = 1;
+            while (low + bound < large.length && large[low + bound] < value) {
+                bound <<= 1;
+            }
+
+            int high = Math.min(low + bound + 1, large.length);
+            int index = Arrays.binarySearch(large, low, high, value);
+            if (index >= 0) {
+                if (result != null) {
+                    result[size] = value;
+                }
+                size++;
+                low = index + 1;
+            } else {
+                low = -index - 1;
+            }
+
+            if (low >= large.length) {
+                break;
+            }
+        }
+
+        return size;
+    }
+
+    private static LongSortedSet probeIntersection(Set<Long> first, Set<Long> second) {
+        Set<Long> small = first.size() <= second.size() ? first : second;
+        Set<Long> large = small == first ? second : first;
+        long[] result = new long[small.size()];
+        int size = 0;
+        for (Long value : small) {
+            if (large.contains(value) && size < result.length) {
+                result[size++] = value;
+            }
+        }
+
+        return LongSortedSet.of(result, size);
+    }
+}
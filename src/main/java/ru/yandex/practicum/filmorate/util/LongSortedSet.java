@@ -0,0 +1,224 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.LongConsumer;
+
+public class LongSortedSet extends AbstractSet<Long> {
+    private static final long[] EMPTY = new long[0];
+    private static final AtomicReferenceFieldUpdater<LongSortedSet, long[]> VALUES =
+            AtomicReferenceFieldUpdater.newUpdater(LongSortedSet.class, long[].class, "values");
+
+    private volatile long[] values;
+
+    public LongSortedSet() {
+        values = EMPTY;
+    }
+
+    private LongSortedSet(long[] sortedValues) {
+        values = sortedValues;
+    }
+
+    public static LongSortedSet copyOf(Collection<Long> collection) {
+        if (collection instanceof LongSortedSet other) {
+            return new LongSortedSet(other.values);
+        }
+
+        long[] array = new long[collection.size()];
+        int size = 0;
+        for (Long value : collection) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2 + 1);
+            }
+            array[size++] = value;
+        }
+
+        return of(array, size);
+    }
+
+    public static LongSortedSet of(long[] values, int size) {
+        return new LongSortedSet(sortDistinct(values, size));
+    }
+
+    static LongSortedSet ofSorted(long[] sortedValues, int size) {
+        if (size == 0) {
+            return new LongSortedSet();
+        }
+        return new LongSortedSet(size == sortedValues.length ? sortedValues : Arrays.copyOf(sortedValues, size));
+    }
+
+    public boolean add(long value) {
+        while (true) {
+            long[] current = values;
+            int index = Arrays.binarySearch(current, value);
+            if (index >= 0) {
+                return false;
+            }
+
+            int insertAt = -index - 1;
+            long[] updated = new long[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, insertAt);
+            updated[insertAt] = value;
+            System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+            if (VALUES.compareAndSet(this, current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean removeValue(long value) {
+        while (true) {
+            long[] current = values;
+            int index = Arrays.binarySearch(current, value);
+            if (index < 0) {
+                return false;
+            }
+
+            long[] updated = current.length == 1 ? EMPTY : new long[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+            if (VALUES.compareAndSet(this, current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    public void update(long[] sortedAdded, int addedSize, long[] sortedRemoved, int removedSize) {
+        while (true) {
+            long[] current = values;
+            long[] updated = new long[current.length + addedSize];
+            int size = 0;
+            int index = 0;
+            int added = 0;
+            int removed = 0;
+            while (index < current.length || added < addedSize) {
+                long value;
+                if (added == addedSize || index < current.length && current[index] <= sortedAdded[added]) {
+                    value = current[index++];
+                    if (added < addedSize && sortedAdded[added] == value) {
+                        added++;
+                    }
+                } else {
+                    value = sortedAdded[added++];
+                }
+
+                while (removed < removedSize && sortedRemoved[removed] < value) {
+                    removed++;
+                }
+                if (removed == removedSize || sortedRemoved[removed] != value) {
+                    updated[size++] = value;
+                }
+            }
+
+            long[] result = size == 0 ? EMPTY : size == updated.length ? updated : Arrays.copyOf(updated, size);
+            if (VALUES.compareAndSet(this, current, result)) {
+                return;
+            }
+        }
+    }
+
+    public boolean contains(long value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    public long[] toLongArray() {
+        return values.clone();
+    }
+
+    public void forEachLong(LongConsumer action) {
+        for (long value : values) {
+            action.accept(value);
+        }
+    }
+
+    public void forEachSampled(int limit, LongConsumer action) {
+        long[] snapshot = values;
+        if (snapshot.length <= limit) {
+            for (long value : snapshot) {
+                action.accept(value);
+            }
+            return;
+        }
+
+        for (int i = 0; i < limit; i++) {
+            action.accept(snapshot[(int) ((long) i * snapshot.length / limit)]);
+        }
+    }
+
+    public long[] slice(long after, int limit) {
+        long[] snapshot = values;
+        int index = Arrays.binarySearch(snapshot, after);
+        int from = index >= 0 ? index + 1 : -index - 1;
+        return Arrays.copyOfRange(snapshot, from, (int) Math.min(snapshot.length, (long) from + limit));
+    }
+
+    long[] sortedValues() {
+        return values;
+    }
+
+    @Override
+    public boolean add(Long value) {
+        return add(value.longValue());
+    }
+
+    @Override
+    public boolean remove(Object value) {
+        return value instanceof Long longValue && removeValue(longValue);
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return value instanceof Long longValue && contains(longValue.longValue());
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public void clear() {
+        values = EMPTY;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        long[] snapshot = values;
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < snapshot.length;
+            }
+
+            @Override
+            public Long next() {
+                if (index >= snapshot.length) {
+                    throw new NoSuchElementException();
+                }
+                return snapshot[index++];
+            }
+        };
+    }
+
+    private static long[] sortDistinct(long[] array, int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        Arrays.sort(array, 0, size);
+        int distinct = 1;
+        for (int i = 1; i < size; i++) {
+            if (array[i] != array[distinct - 1]) {
+                array[distinct++] = array[i];
+            }
+        }
+
+        return array.length == distinct ? array : Arrays.copyOf(array, distinct);
+    }
+}
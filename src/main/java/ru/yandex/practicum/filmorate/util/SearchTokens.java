@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public final class SearchTokens {
+    private static final int COMBINING_BREVE = 0x0306;
+
+    private SearchTokens() {
+    }
+
+    public static List<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); ) {
+            int codePoint = decomposed.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (Character.getType(codePoint) == Character.NON_SPACING_MARK) {
+                if (codePoint == COMBINING_BREVE && !token.isEmpty() && token.charAt(token.length() - 1) == 'и') {
+                    token.append('й').deleteCharAt(token.length() - 2);
+                }
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                token.appendCodePoint(codePoint);
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return new ArrayList<>(tokens);
+    }
+}
@@ -0,0 +1,251 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TinyLfuCache<V> {
+    private static final int READ_BUFFER_SIZE = 64;
+    private static final double WINDOW_SHARE = 0.01;
+    private static final double PROTECTED_SHARE = 0.8;
+
+    private final ConcurrentHashMap<Long, Node<V>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicReferenceArray<Node<V>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong readCursor = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AccessQueue<V> window = new AccessQueue<>();
+    private final AccessQueue<V> probation = new AccessQueue<>();
+    private final AccessQueue<V> protectedQueue = new AccessQueue<>();
+    private final FrequencySketch sketch;
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+
+    public TinyLfuCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным");
+        }
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, (int) (maximumSize * WINDOW_SHARE));
+        this.protectedMaximum = (int) ((maximumSize - windowMaximum) * PROTECTED_SHARE);
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    public V getIfPresent(long key) {
+        Node<V> node = data.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        afterRead(node);
+        return node.value;
+    }
+
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    public void put(long key, V value, long stamp) {
+        Node<V> node = new Node<>(key, value);
+        if (data.putIfAbsent(key, node) != null) {
+            return;
+        }
+        if (invalidations.get() != stamp) {
+            data.remove(key, node);
+            return;
+        }
+
+        evictionLock.lock();
+        try {
+            drainReads();
+            sketch.increment(key);
+            if (data.get(key) == node) {
+                window.add(node, Node.WINDOW);
+                evict();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void invalidate(long key) {
+        invalidations.incrementAndGet();
+        Node<V> node = data.remove(key);
+        if (node == null) {
+            return;
+        }
+
+        evictionLock.lock();
+        try {
+            unlink(node);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private void afterRead(Node<V> node) {
+        long index = readCursor.getAndIncrement();
+        int slot = (int) (index & (READ_BUFFER_SIZE - 1));
+        readBuffer.lazySet(slot, node);
+        if (slot == READ_BUFFER_SIZE - 1 && evictionLock.tryLock()) {
+            try {
+                drainReads();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainReads() {
+        for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+            Node<V> node = readBuffer.getAndSet(i, null);
+            if (node != null) {
+                onAccess(node);
+            }
+        }
+    }
+
+    private void onAccess(Node<V> node) {
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case Node.WINDOW -> window.moveToBack(node);
+            case Node.PROBATION -> {
+                probation.remove(node);
+                protectedQueue.add(node, Node.PROTECTED);
+                while (protectedQueue.size > protectedMaximum) {
+                    probation.add(protectedQueue.poll(), Node.PROBATION);
+                }
+            }
+            case Node.PROTECTED -> protectedQueue.moveToBack(node);
+            default -> {
+            }
+        }
+    }
+
+    private void evict() {
+        while (window.size > windowMaximum) {
+            probation.add(window.poll(), Node.PROBATION);
+        }
+        while (window.size + probation.size + protectedQueue.size > maximumSize) {
+            Node<V> victim = probation.head;
+            Node<V> candidate = probation.tail;
+            if (victim == null) {
+                victim = protectedQueue.head;
+                candidate = victim;
+            }
+
+            Node<V> evicted = victim == candidate || sketch.frequency(candidate.key) > sketch.frequency(victim.key)
+                    ? victim
+                    : candidate;
+            unlink(evicted);
+            data.remove(evicted.key, evicted);
+            evictions.increment();
+        }
+    }
+
+    private void unlink(Node<V> node) {
+        switch (node.queue) {
+            case Node.WINDOW -> window.remove(node);
+            case Node.PROBATION -> probation.remove(node);
+            case Node.PROTECTED -> protectedQueue.remove(node);
+            default -> {
+            }
+        }
+    }
+
+    private static final class Node<V> {
+        private static final byte UNLINKED = 0;
+        private static final byte WINDOW = 1;
+        private static final byte PROBATION = 2;
+        private static final byte PROTECTED = 3;
+
+        private final long key;
+        private final V value;
+        private Node<V> previous;
+        private Node<V> next;
+        private byte queue = UNLINKED;
+
+        private Node(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class AccessQueue<V> {
+        private Node<V> head;
+        private Node<V> tail;
+        private int size;
+
+        private void add(Node<V> node, byte queue) {
+            node.queue = queue;
+            node.previous = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        private Node<V> poll() {
+            Node<V> node = head;
+            remove(node);
+            return node;
+        }
+
+        private void moveToBack(Node<V> node) {
+            if (node != tail) {
+                byte queue = node.queue;
+                remove(node);
+                add(node, queue);
+            }
+        }
+
+        private void remove(Node<V> node) {
+            if (node.previous == null) {
+                head = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            node.queue = Node.UNLINKED;
+            size--;
+        }
+    }
+}
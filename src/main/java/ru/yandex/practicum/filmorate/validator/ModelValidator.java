@@ -0,0 +1,200 @@
+package ru.yandex.practicum.filmorate.validator;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.metadata.BeanDescriptor;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import jakarta.validation.metadata.PropertyDescriptor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.ModelValidationException;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(ValidationProperties.class)
+public class ModelValidator {
+    private static final int SIMPLE_EMAIL_MAX_LENGTH = 64;
+    private static final Pattern SIMPLE_EMAIL = Pattern.compile(
+            "[A-Za-z0-9_%+-]+(\\.[A-Za-z0-9_%+-]+)*@[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?" +
+                    "(\\.[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?)*");
+
+    private final Validator validator;
+    private final boolean precompiled;
+    private final Map<PlanKey, Plan> plans = new ConcurrentHashMap<>();
+
+    public ModelValidator(Validator validator, ValidationProperties properties) {
+        this.validator = validator;
+        this.precompiled = properties.precompiled();
+    }
+
+    public <T> void validate(T model, String path, Class<?>... groups) {
+        Set<ConstraintViolation<T>> violations = violations(model, groups);
+        if (!violations.isEmpty()) {
+            throw new ModelValidationException(path, violations);
+        }
+    }
+
+    public <T> Set<ConstraintViolation<T>> violations(T model, Class<?>... groups) {
+        if (precompiled && planFor(model.getClass(), groups).accepts(model)) {
+            return Set.of();
+        }
+        return validator.validate(model, groups);
+    }
+
+    private Plan planFor(Class<?> type, Class<?>[] groups) {
+        return plans.computeIfAbsent(new PlanKey(type, List.of(groups)), this::compile);
+    }
+
+    private Plan compile(PlanKey key) {
+        BeanDescriptor bean = validator.getConstraintsForClass(key.type());
+        if (!bean.getConstraintDescriptors().isEmpty()) {
+            log.debug("Для {} нет предвычисленной проверки: есть ограничения уровня класса",
+                    key.type().getSimpleName());
+            return Plan.DELEGATE;
+        }
+
+        List<Check> checks = new ArrayList<>();
+        for (PropertyDescriptor property : bean.getConstrainedProperties()) {
+            if (property.isCascaded()) {
+                return Plan.DELEGATE;
+            }
+
+            MethodHandle getter = getter(key.type(), property.getPropertyName());
+            for (ConstraintDescriptor<?> constraint : property.getConstraintDescriptors()) {
+                if (appliesTo(constraint, key.groups())) {
+                    Predicate<Object> predicate = predicateFor(constraint);
+                    if (predicate == null) {
+                        log.debug("Для ограничения {} поля {} нет предвычисленной проверки",
+                                constraint.getAnnotation().annotationType().getSimpleName(),
+                                property.getPropertyName());
+                        return Plan.DELEGATE;
+                    }
+                    checks.add(new Check(getter, predicate));
+                }
+            }
+        }
+
+        log.debug("Предвычислено {} проверок для {} в группах {}", checks.size(), key.type().getSimpleName(),
+                key.groups().stream().map(Class::getSimpleName).toList());
+        return new Plan(checks.toArray(Check[]::new));
+    }
+
+    private static boolean appliesTo(ConstraintDescriptor<?> constraint, List<Class<?>> groups) {
+        for (Class<?> constraintGroup : constraint.getGroups()) {
+            for (Class<?> group : groups) {
+                if (constraintGroup.isAssignableFrom(group)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate<Object> predicateFor(ConstraintDescriptor<?> constraint) {
+        if (!constraint.getComposingConstraints().isEmpty()) {
+            return null;
+        }
+
+        Annotation annotation = constraint.getAnnotation();
+        if (annotation instanceof NotNull) {
+            return value -> value != null;
+        } else if (annotation instanceof NotBlank) {
+            return value -> value instanceof CharSequence chars && !chars.toString().trim().isEmpty();
+        } else if (annotation instanceof Positive) {
+            return value -> value == null
+                    || (value instanceof Long || value instanceof Integer) && ((Number) value).longValue() > 0;
+        } else if (annotation instanceof Size size) {
+            return value -> value == null || value instanceof CharSequence chars
+                    && chars.length() >= size.min() && chars.length() <= size.max();
+        } else if (annotation instanceof PastOrPresent) {
+            return value -> value == null || value instanceof LocalDate date && !date.isAfter(LocalDate.now());
+        } else if (annotation instanceof Email email) {
+            if (!".*".equals(email.regexp()) || email.flags().length > 0) {
+                return null;
+            }
+            return value -> value == null || value instanceof String string
+                    && string.length() <= SIMPLE_EMAIL_MAX_LENGTH && SIMPLE_EMAIL.matcher(string).matches();
+        }
+
+        List<? extends Class<? extends ConstraintValidator<?, ?>>> validatorClasses =
+                constraint.getConstraintValidatorClasses();
+        if (validatorClasses.size() != 1) {
+            return null;
+        }
+
+        ConstraintValidator validator;
+        try {
+            validator = validatorClasses.getFirst().getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+        validator.initialize(annotation);
+        return value -> validator.isValid(value, null);
+    }
+
+    private static MethodHandle getter(Class<?> type, String propertyName) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                Field field = current.getDeclaredField(propertyName);
+                return MethodHandles.privateLookupIn(current, MethodHandles.lookup())
+                        .unreflectGetter(field)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+            } catch (NoSuchFieldException e) {
+                log.trace("Поле {} не найдено в {}", propertyName, current.getSimpleName());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Нет доступа к полю " + propertyName, e);
+            }
+        }
+        throw new IllegalStateException("Поле " + propertyName + " не найдено в " + type.getSimpleName());
+    }
+
+    private record PlanKey(Class<?> type, List<Class<?>> groups) {
+    }
+
+    private record Check(MethodHandle getter, Predicate<Object> predicate) {
+    }
+
+    private record Plan(Check[] checks) {
+        private static final Plan DELEGATE = new Plan(null);
+
+        private boolean accepts(Object model) {
+            if (checks == null) {
+                return false;
+            }
+
+            try {
+                for (Check check : checks) {
+                    if (!check.predicate().test(check.getter().invokeExact(model))) {
+                        return false;
+                    }
+                }
+            } catch (Throwable e) {
+                return false;
+            }
+            return true;
+        }
+    }
+}
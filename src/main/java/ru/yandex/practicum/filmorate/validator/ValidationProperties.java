@@ -0,0 +1,8 @@
+package ru.yandex.practicum.filmorate.validator;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("filmorate.validation")
+public record ValidationProperties(@DefaultValue("true") boolean precompiled) {
+}
@@ -0,0 +1,165 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "filmorate.bulk.batch-size=2")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Проверить массовый импорт и экспорт в формате NDJSON")
+public class BulkImportTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    private ResultActions importNdjson(String type, String... lines) throws Exception {
+        return mockMvc.perform(post("/bulk/" + type)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(String.join("\n", lines)))
+                .andExpect(status().isOk());
+    }
+
+    private String export(String type) throws Exception {
+        MvcResult result = mockMvc.perform(get("/bulk/" + type).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private void importUsersAndFilms() throws Exception {
+        importNdjson("users",
+                "{\"email\":\"first@email.com\",\"login\":\"first\",\"birthday\":\"2000-01-01\"}",
+                "{\"email\":\"second@email.com\",\"login\":\"second\",\"birthday\":\"2000-01-01\"}",
+                "{\"id\":10,\"email\":\"tenth@email.com\",\"login\":\"tenth\",\"birthday\":\"2000-01-01\"," +
+                        "\"friends\":[1]}");
+        importNdjson("films",
+                "{\"name\":\"First\",\"releaseDate\":\"2000-01-01\",\"duration\":90}",
+                "{\"id\":5,\"name\":\"Fifth\",\"releaseDate\":\"2000-01-01\",\"duration\":90,\"userLikes\":[1,2]}");
+    }
+
+    @Test
+    @DisplayName("Импортировать сущности пачками, сохранив заданные ID и отклонив некорректные строки")
+    void shouldImportEntitiesAndRejectInvalidLines() throws Exception {
+        importNdjson("users",
+                "{\"email\":\"first@email.com\",\"login\":\"first\",\"birthday\":\"2000-01-01\"}",
+                "",
+                "{\"email\":\"not an email\",\"login\":\"second\",\"birthday\":\"2000-01-01\"}",
+                "{\"id\":10,\"email\":\"tenth@email.com\",\"login\":\"tenth\",\"birthday\":\"2000-01-01\"}",
+                "{broken",
+                "{\"id\":10,\"email\":\"copy@email.com\",\"login\":\"copy\",\"birthday\":\"2000-01-01\"}")
+                .andExpect(jsonPath("$.received").value(5))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.recordsPerSecond").isNumber())
+                .andExpect(jsonPath("$.errors", hasSize(3)))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message", startsWith("email: ")))
+                .andExpect(jsonPath("$.errors[1].line").value(5))
+                .andExpect(jsonPath("$.errors[2].line").value(6));
+
+        mockMvc.perform(get("/users/10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.login").value("tenth"));
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"next@email.com\",\"login\":\"next\",\"birthday\":\"2000-01-01\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(11));
+    }
+
+    @Test
+    @DisplayName("Импортировать связи, отклонив ссылки на несуществующие сущности")
+    void shouldImportRelations() throws Exception {
+        importUsersAndFilms();
+
+        importNdjson("likes",
+                "{\"filmId\":5,\"userId\":1}",
+                "{\"filmId\":5,\"userId\":2}",
+                "{\"filmId\":1,\"userId\":2}",
+                "{\"filmId\":7,\"userId\":1}",
+                "{\"filmId\":1,\"userId\":99}",
+                "{\"filmId\":1}")
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.rejected").value(3));
+        importNdjson("friendships",
+                "{\"userId\":1,\"friendId\":10}",
+                "{\"userId\":2,\"friendId\":2}",
+                "{\"userId\":2,\"friendId\":99}")
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(2));
+
+        mockMvc.perform(get("/films/popular").param("count", "1"))
+                .andExpect(jsonPath("$[0].id").value(5));
+        mockMvc.perform(get("/users/10/friends"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(1));
+        mockMvc.perform(get("/users/1/likes"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(5));
+    }
+
+    @Test
+    @DisplayName("Учитывать импортированные лайки в статистике до удаления фильма")
+    void shouldCountImportedLikesInStatistics() throws Exception {
+        importUsersAndFilms();
+        importNdjson("likes",
+                "{\"filmId\":5,\"userId\":1}",
+                "{\"filmId\":5,\"userId\":2}",
+                "{\"filmId\":5,\"userId\":2}",
+                "{\"filmId\":1,\"userId\":2}");
+        mockMvc.perform(get("/stats/likes"))
+                .andExpect(jsonPath("$.likes").value(3))
+                .andExpect(jsonPath("$.added").value(3));
+
+        mockMvc.perform(delete("/films/5")).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/stats/likes"))
+                .andExpect(jsonPath("$.likes").value(1))
+                .andExpect(jsonPath("$.added").value(3))
+                .andExpect(jsonPath("$.removed").value(2));
+        mockMvc.perform(get("/stats/films/5/likes"))
+                .andExpect(jsonPath("$.estimate").value(0));
+        mockMvc.perform(get("/stats/films/likes-histogram"))
+                .andExpect(jsonPath("$.buckets", hasSize(1)))
+                .andExpect(jsonPath("$.buckets[0].films").value(1));
+    }
+
+    @Test
+    @DisplayName("Выгрузить связи в том же формате, в котором они импортируются")
+    void shouldExportRelationsInImportFormat() throws Exception {
+        importUsersAndFilms();
+        importNdjson("likes", "{\"filmId\":5,\"userId\":1}", "{\"filmId\":1,\"userId\":2}");
+        importNdjson("friendships", "{\"userId\":10,\"friendId\":1}");
+
+        assertEquals("{\"filmId\":1,\"userId\":2}\n{\"filmId\":5,\"userId\":1}\n", export("likes"));
+        assertEquals("{\"userId\":1,\"friendId\":10}\n", export("friendships"));
+        assertEquals(3, export("users").lines().count());
+    }
+
+    @Test
+    @DisplayName("Выгрузить пустой набор связей пустым телом")
+    void shouldExportEmptyRelationsAsEmptyBody() throws Exception {
+        assertEquals("", export("likes"));
+        assertEquals("", export("friendships"));
+    }
+}
@@ -0,0 +1,124 @@
+package ru.yandex.practicum.filmorate;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Проверить условные GET-запросы с ETag")
+public class ConditionalGetTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Ответить 304 на неизменённый фильм и 200 после лайка")
+    void shouldRevalidateFilmByVersion() throws Exception {
+        long filmId = createFilm("ETag film");
+        long userId = createUser("etag-film");
+
+        String eTag = eTagOf("/films/" + filmId);
+        assertTrue(eTag.startsWith("\""), "ETag должен быть сильным");
+        mockMvc.perform(get("/films/{id}", filmId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/films/{id}/like/{userId}", filmId, userId))
+                .andExpect(status().is2xxSuccessful());
+        String changed = mockMvc.perform(get("/films/{id}", filmId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, changed, "Лайк не изменил версию фильма");
+
+        mockMvc.perform(put("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + filmId + ",\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/films/{id}", filmId).header(HttpHeaders.IF_NONE_MATCH, changed))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Ответить 304 на неизменённого пользователя и 200 после добавления друга")
+    void shouldRevalidateUserByVersion() throws Exception {
+        long userId = createUser("etag-user");
+        long friendId = createUser("etag-friend");
+
+        String userTag = eTagOf("/users/" + userId);
+        String friendTag = eTagOf("/users/" + friendId);
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, userTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/users/{id}/friends/{friendId}", userId, friendId))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, userTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/users/{id}", friendId).header(HttpHeaders.IF_NONE_MATCH, friendTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Ответить 304 на неизменённый список популярных фильмов")
+    void shouldRevalidatePopularByGlobalVersion() throws Exception {
+        long filmId = createFilm("Popular film");
+        long userId = createUser("etag-popular");
+
+        String eTag = eTagOf("/films/popular?count=5");
+        mockMvc.perform(get("/films/popular").param("count", "5").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        assertNotEquals(eTag, eTagOf("/films/popular?count=6"), "ETag не зависит от размера списка");
+
+        mockMvc.perform(put("/films/{id}/like/{userId}", filmId, userId))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/films/popular").param("count", "5").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    private String eTagOf(String uri) throws Exception {
+        String eTag = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag, "Нет ETag для " + uri);
+        assertEquals(eTag, mockMvc.perform(get(uri)).andReturn().getResponse().getHeader(HttpHeaders.ETAG),
+                "ETag изменился без изменения данных");
+        return eTag;
+    }
+
+    private long createUser(String login) throws Exception {
+        String response = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + login + "@email.com\",\"login\":\"" + login + "\"," +
+                                "\"birthday\":\"2000-01-01\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.<Number>read(response, "$.id").longValue();
+    }
+
+    private long createFilm(String name) throws Exception {
+        String response = mockMvc.perform(post("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"description\":\"Some description\"," +
+                                "\"releaseDate\":\"2000-01-01\",\"duration\":90}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.<Number>read(response, "$.id").longValue();
+    }
+}
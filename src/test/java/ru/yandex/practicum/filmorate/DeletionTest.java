@@ -0,0 +1,196 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmRecommendationProperties;
+import ru.yandex.practicum.filmorate.service.FilmRecommender;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.FriendRecommendationProperties;
+import ru.yandex.practicum.filmorate.service.FriendRecommender;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.stats.LikeStatistics;
+import ru.yandex.practicum.filmorate.stats.LikeTotals;
+import ru.yandex.practicum.filmorate.stats.StatsProperties;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.trending.TrendingPipeline;
+import ru.yandex.practicum.filmorate.trending.TrendingProperties;
+import ru.yandex.practicum.filmorate.validator.ModelValidator;
+import ru.yandex.practicum.filmorate.validator.ValidationProperties;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Проверить удаление фильмов и пользователей")
+public class DeletionTest {
+    private InMemoryFilmStorage filmStorage;
+    private InMemoryUserStorage userStorage;
+    private UserService userService;
+    private FilmService filmService;
+    private LikeStatistics likeStatistics;
+
+    @BeforeEach
+    void setUp() {
+        filmStorage = new InMemoryFilmStorage();
+        userStorage = new InMemoryUserStorage();
+        ModelValidator modelValidator = new ModelValidator(Validation.buildDefaultValidatorFactory().getValidator(),
+                new ValidationProperties(true));
+        TrendingPipeline trendingPipeline = new TrendingPipeline(new TrendingProperties(1024, 10,
+                Duration.ofSeconds(1), Duration.ofMillis(1)), new SimpleMeterRegistry(), System::currentTimeMillis);
+        likeStatistics = new LikeStatistics(new StatsProperties(14, 7, 0.0005, 0.99));
+        userService = new UserService(userStorage, filmStorage, new FriendRecommender(userStorage,
+                new FriendRecommendationProperties(500, 500, 100_000, 50, 1_000)), modelValidator, trendingPipeline,
+                likeStatistics);
+        filmService = new FilmService(filmStorage, userStorage,
+                new FilmRecommender(filmStorage, new FilmRecommendationProperties(500, 1000, 200_000, 50, 100_000)),
+                modelValidator, trendingPipeline, likeStatistics);
+
+        for (int i = 1; i <= 4; i++) {
+            Film film = new Film();
+            film.setName("Film " + i);
+            film.setDescription("Some description");
+            film.setReleaseDate(LocalDate.of(2000, 1, 1));
+            film.setDuration(90);
+            filmStorage.create(film);
+            userStorage.create(new User(null, "user" + i + "@email.com", "user" + i, null, LocalDate.of(2000, 1, 1)));
+        }
+    }
+
+    private List<Long> popularIds(int count) {
+        return filmStorage.findPopular(count).stream()
+                .map(Film::getId)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Убрать удалённый фильм из рейтинга и обратного индекса лайков")
+    void shouldRemoveDeletedFilmFromPopularityAndIndex() {
+        filmStorage.addLike(2, 1);
+        filmStorage.addLike(2, 2);
+        filmStorage.addLike(3, 1);
+        assertEquals(List.of(2L, 3L, 1L), popularIds(3));
+
+        filmStorage.delete(2);
+
+        assertThrows(NotFoundException.class, () -> filmStorage.findById(2));
+        assertThrows(NotFoundException.class, () -> filmStorage.delete(2));
+        assertThrows(NotFoundException.class, () -> filmStorage.addLike(2, 3));
+        assertEquals(List.of(3L, 1L, 4L), popularIds(10), "Удалённый фильм остался в рейтинге");
+        assertEquals(Set.of(3L), filmStorage.findLikedFilmIds(1), "Удалённый фильм остался в индексе лайков");
+        assertEquals(Set.of(), filmStorage.findLikedFilmIds(2), "Удалённый фильм остался в индексе лайков");
+        assertEquals(3, filmStorage.count());
+    }
+
+    @Test
+    @DisplayName("Удалить пользователя из друзей и лайков, пересчитав рейтинг")
+    void shouldCascadeUserDeletion() {
+        userService.addFriend(1, 2);
+        userService.addFriend(1, 3);
+        userService.addFriend(3, 4);
+        filmStorage.addLike(4, 1);
+        filmStorage.addLike(4, 2);
+        filmStorage.addLike(3, 2);
+        filmStorage.addLike(3, 3);
+        filmStorage.addLike(3, 4);
+        assertEquals(List.of(3L), userService.findRecommendedFriends(2, 10).stream().map(User::getId).toList());
+
+        userService.delete(1);
+
+        assertThrows(NotFoundException.class, () -> userStorage.findById(1));
+        assertThrows(NotFoundException.class, () -> userService.delete(1));
+        assertThrows(NotFoundException.class, () -> userStorage.addFriend(2, 1));
+        assertEquals(Set.of(), userStorage.findById(2).getFriends(), "Удалённый пользователь остался в друзьях");
+        assertEquals(Set.of(4L), userStorage.findById(3).getFriends(), "Удалённый пользователь остался в друзьях");
+        assertEquals(Set.of(2L), filmStorage.findById(4).getUserLikes(), "Лайк удалённого пользователя остался");
+        assertEquals(Set.of(), filmStorage.findLikedFilmIds(1), "Удалённый пользователь остался в индексе лайков");
+        assertEquals(List.of(3L, 4L), popularIds(2), "Рейтинг не пересчитан после удаления пользователя");
+        assertEquals(List.of(), userService.findRecommendedFriends(2, 10), "Кэш рекомендаций не сброшен");
+        assertEquals(3, userStorage.count());
+    }
+
+    @Test
+    @DisplayName("Учитывать в статистике лайки, удалённые вместе с пользователем и фильмом")
+    void shouldCountLikesRemovedByDeletion() {
+        filmService.addLike(2, 1);
+        filmService.addLike(2, 2);
+        filmService.addLike(3, 1);
+
+        userService.delete(1);
+        assertEquals(2, likeStatistics.totals().removed(), "Лайки удалённого пользователя не учтены");
+        assertEquals(1, likeStatistics.filmLikes(2).estimate());
+
+        filmService.delete(2);
+        assertEquals(new LikeTotals(0, 3, 3, likeStatistics.totals().uniqueLikers()), likeStatistics.totals());
+        assertEquals(0, likeStatistics.filmLikes(2).estimate(), "Лайки удалённого фильма не учтены");
+        assertEquals(List.of(), likeStatistics.histogram().buckets());
+    }
+
+    @Test
+    @DisplayName("Не создавать одностороннюю дружбу из тела запроса на создание")
+    void shouldIgnoreFriendsFromCreateRequest() {
+        User user = new User(null, "user5@email.com", "user5", null, LocalDate.of(2000, 1, 1));
+        user.setFriends(Set.of(4L));
+
+        long userId = userStorage.create(user).getId();
+
+        assertEquals(Set.of(), userStorage.findById(userId).getFriends(), "Сохранены друзья из запроса");
+        userService.delete(4);
+        assertEquals(Set.of(), userStorage.findById(userId).getFriends());
+    }
+
+    @Test
+    @DisplayName("Не оставлять лайки пользователя, удалённого во время лайка")
+    void shouldNotKeepLikesOfUserDeletedConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 500; i++) {
+                long userId = userStorage.create(new User(null, "race" + i + "@email.com", "race" + i, null,
+                        LocalDate.of(2000, 1, 1))).getId();
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Void> liker = executor.submit(() -> {
+                    start.await();
+                    for (long filmId = 1; filmId <= 4; filmId++) {
+                        try {
+                            filmService.addLike(filmId, userId);
+                        } catch (NotFoundException e) {
+                            return null;
+                        }
+                    }
+                    return null;
+                });
+                Future<Void> deleter = executor.submit(() -> {
+                    start.await();
+                    userService.delete(userId);
+                    return null;
+                });
+
+                start.countDown();
+                liker.get();
+                deleter.get();
+                assertEquals(Set.of(), filmStorage.findLikedFilmIds(userId),
+                        "Удалённый пользователь остался в индексе лайков");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Film film : filmStorage.findAll()) {
+            assertEquals(Set.of(), film.getUserLikes(), "Остался лайк удалённого пользователя");
+        }
+    }
+}
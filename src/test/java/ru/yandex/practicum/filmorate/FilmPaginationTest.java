@@ -0,0 +1,132 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("Проверить постраничную и потоковую выдачу фильмов")
+public class FilmPaginationTest {
+    private static final int FILM_COUNT = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 1; i <= FILM_COUNT; i++) {
+            mockMvc.perform(post("/films")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\":\"Film " + i + "\",\"description\":\"Some description\"," +
+                                    "\"releaseDate\":\"2000-01-01\",\"duration\":90}"))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    @Test
+    @DisplayName("Вернуть весь список без параметров пагинации")
+    void shouldReturnAllFilmsWithoutPaginationParameters() throws Exception {
+        mockMvc.perform(get("/films"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(FILM_COUNT)));
+    }
+
+    @Test
+    @DisplayName("Вернуть страницу фильмов после указанного ID")
+    void shouldReturnPageAfterId() throws Exception {
+        mockMvc.perform(get("/films").param("after", "2").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[1].id").value(4));
+    }
+
+    @Test
+    @DisplayName("Отдать фильмы потоком NDJSON")
+    void shouldStreamFilmsAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/films").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(FILM_COUNT, body.lines().filter(line -> !line.isBlank()).count(),
+                "Некорректное количество строк NDJSON");
+    }
+
+    @Test
+    @DisplayName("Вернуть страницу фильмов, лайкнутых пользователем")
+    void shouldReturnPageOfLikedFilms() throws Exception {
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"user@email.com\",\"login\":\"user\",\"birthday\":\"2000-01-01\"}"))
+                .andExpect(status().isCreated());
+        for (int filmId = 1; filmId <= FILM_COUNT; filmId += 2) {
+            mockMvc.perform(put("/films/{id}/like/{userId}", filmId, 1))
+                    .andExpect(status().is2xxSuccessful());
+        }
+
+        mockMvc.perform(get("/users/{id}/likes", 1).param("after", "1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(3));
+        mockMvc.perform(get("/users/{id}/likes", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+        mockMvc.perform(get("/users/{id}/likes", 100))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Не принимать лайки из тела запроса на создание фильма")
+    void shouldIgnoreLikesFromCreateRequest() throws Exception {
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"user@email.com\",\"login\":\"user\",\"birthday\":\"2000-01-01\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Liked\",\"releaseDate\":\"2000-01-01\",\"userLikes\":[1,999]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.userLikes", hasSize(0)));
+        mockMvc.perform(get("/films/popular").param("count", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].userLikes", hasSize(0)));
+        mockMvc.perform(get("/users/{id}/likes", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(put("/films/{id}/like/{userId}", FILM_COUNT + 1, 1))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/users/{id}/likes", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(FILM_COUNT + 1));
+    }
+}
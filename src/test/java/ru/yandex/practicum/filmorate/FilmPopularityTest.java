@@ -0,0 +1,83 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Проверить рейтинг популярных фильмов")
+public class FilmPopularityTest {
+    private InMemoryFilmStorage filmStorage;
+
+    @BeforeEach
+    void setUp() {
+        filmStorage = new InMemoryFilmStorage();
+        for (int i = 0; i < 5; i++) {
+            Film film = new Film();
+            film.setName("Film " + i);
+            film.setDescription("Some description");
+            film.setReleaseDate(LocalDate.of(2000, 1, 1));
+            film.setDuration(90);
+            filmStorage.create(film);
+        }
+    }
+
+    private List<Long> popularIds(int count) {
+        return filmStorage.findPopular(count).stream()
+                .map(Film::getId)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Вернуть фильмы в порядке ID при равном количестве лайков")
+    void shouldReturnFilmsInIdOrderWhenLikesAreEqual() {
+        assertEquals(List.of(1L, 2L, 3L), popularIds(3), "Некорректный порядок фильмов без лайков");
+    }
+
+    @Test
+    @DisplayName("Поднять фильм в рейтинге после лайка и опустить после удаления лайка")
+    void shouldReorderFilmsWhenLikesChange() {
+        filmStorage.addLike(4, 1);
+        filmStorage.addLike(4, 2);
+        filmStorage.addLike(2, 1);
+        assertEquals(List.of(4L, 2L, 1L), popularIds(3), "Некорректный порядок после добавления лайков");
+
+        filmStorage.removeLike(4, 1);
+        filmStorage.removeLike(4, 2);
+        assertEquals(List.of(2L, 1L, 3L, 4L, 5L), popularIds(10), "Некорректный порядок после удаления лайков");
+    }
+
+    @Test
+    @DisplayName("Не учитывать повторный лайк одного пользователя")
+    void shouldIgnoreRepeatedLike() {
+        filmStorage.addLike(3, 1);
+        filmStorage.addLike(3, 1);
+        filmStorage.addLike(5, 1);
+        filmStorage.addLike(5, 2);
+
+        assertEquals(List.of(5L, 3L), popularIds(2), "Повторный лайк изменил рейтинг");
+    }
+
+    @Test
+    @DisplayName("Применить пакет лайков по фильмам без повторов")
+    void shouldApplyBatchLikesGroupedByFilm() {
+        filmStorage.addLike(3, 1);
+        List<Like> added = filmStorage.addLikes(List.of(new Like(3L, 2L), new Like(5L, 4L), new Like(3L, 1L),
+                new Like(5L, 1L), new Like(3L, 2L), new Like(3L, 3L)));
+
+        assertEquals(List.of(new Like(3L, 2L), new Like(3L, 3L), new Like(5L, 1L), new Like(5L, 4L)), added,
+                "Некорректный список добавленных лайков");
+        assertEquals(List.of(3L, 5L, 1L), popularIds(3), "Некорректный порядок после пакета лайков");
+        assertEquals(Set.of(1L, 2L, 3L), filmStorage.findById(3).getUserLikes());
+        assertEquals(Set.of(3L, 5L), filmStorage.findLikedFilmIds(1));
+        assertEquals(Set.of(5L), filmStorage.findLikedFilmIds(4));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmRecommendationProperties;
+import ru.yandex.practicum.filmorate.service.FilmRecommender;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Проверить рекомендации фильмов по похожим пользователям")
+public class FilmRecommendationTest {
+    private InMemoryFilmStorage filmStorage;
+
+    @BeforeEach
+    void setUp() {
+        filmStorage = new InMemoryFilmStorage();
+        for (int i = 1; i <= 6; i++) {
+            Film film = new Film();
+            film.setName("Film " + i);
+            film.setDescription("Some description");
+            film.setReleaseDate(LocalDate.of(2000, 1, 1));
+            film.setDuration(90);
+            filmStorage.create(film);
+        }
+
+        like(1, 1, 2, 3);
+        like(2, 1, 2, 3, 4);
+        like(3, 1, 5);
+        like(4, 6);
+    }
+
+    private void like(long userId, long... filmIds) {
+        for (long filmId : filmIds) {
+            filmStorage.addLike(filmId, userId);
+        }
+    }
+
+    @Test
+    @DisplayName("Вести обратный индекс лайков пользователя")
+    void shouldIndexLikesByUser() {
+        assertEquals(Set.of(1L, 2L, 3L, 4L), filmStorage.findLikedFilmIds(2));
+        long footprint = filmStorage.likeIndexFootprint();
+
+        filmStorage.removeLike(4, 2);
+        assertEquals(Set.of(1L, 2L, 3L), filmStorage.findLikedFilmIds(2));
+        assertEquals(footprint - Long.BYTES, filmStorage.likeIndexFootprint());
+        filmStorage.removeLike(6, 4);
+        assertEquals(Set.of(), filmStorage.findLikedFilmIds(4));
+        assertTrue(filmStorage.likeIndexFootprint() < footprint - 2 * Long.BYTES, "Пустая запись индекса не удалена");
+        assertEquals(Set.of(), filmStorage.findLikedFilmIds(100));
+    }
+
+    @Test
+    @DisplayName("Упорядочить фильмы по сходству лайкнувших их пользователей")
+    void shouldRankFilmsBySimilarity() {
+        FilmRecommender recommender = new FilmRecommender(filmStorage,
+                new FilmRecommendationProperties(500, 1000, 200_000, 50, 100_000));
+
+        assertArrayEquals(new long[]{4, 5}, recommender.recommend(1, 10));
+        assertArrayEquals(new long[]{4}, recommender.recommend(1, 1));
+        assertArrayEquals(new long[0], recommender.recommend(4, 10));
+    }
+
+    @Test
+    @DisplayName("Совпасть с последовательным расчётом при параллельном")
+    void shouldMatchSequentialWhenParallel() {
+        FilmRecommender parallel = new FilmRecommender(filmStorage,
+                new FilmRecommendationProperties(500, 1000, 200_000, 50, 0));
+
+        assertArrayEquals(new long[]{4, 5}, parallel.recommend(1, 10));
+    }
+}
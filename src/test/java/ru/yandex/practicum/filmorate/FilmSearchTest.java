@@ -0,0 +1,203 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchQuery;
+import ru.yandex.practicum.filmorate.storage.film.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.util.SearchTokens;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Проверить полнотекстовый поиск фильмов")
+public class FilmSearchTest {
+    private static final String[] WORDS = {"матрица", "матрос", "ёжик", "туман", "café", "космос", "Звёзды",
+        "война", "мир", "star", "wars", "stars", "йога", "иго"};
+
+    private InMemoryFilmStorage filmStorage;
+
+    @BeforeEach
+    void setUp() {
+        filmStorage = new InMemoryFilmStorage();
+    }
+
+    private Film film(String name, String description, LocalDate releaseDate, Integer duration) {
+        Film film = new Film();
+        film.setName(name);
+        film.setDescription(description);
+        film.setReleaseDate(releaseDate);
+        film.setDuration(duration);
+        return film;
+    }
+
+    private Film createFilm(String name, String description) {
+        return filmStorage.create(film(name, description, LocalDate.of(2000, 1, 1), 90));
+    }
+
+    private List<Long> search(String text) {
+        return ids(filmStorage.search(new FilmSearchQuery(text, null, null, null, 0, 100)));
+    }
+
+    private static List<Long> ids(List<Film> films) {
+        return films.stream().map(Film::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Нормализовать регистр, ё, й и диакритику латиницы")
+    void shouldNormalizeTokens() {
+        assertEquals(List.of("ежик", "в", "тумане"), SearchTokens.tokenize("Ёжик в ТУМАНЕ!"));
+        assertEquals(List.of("cafe", "creme", "brulee"), SearchTokens.tokenize("Café Crème-Brûlée"));
+        assertEquals(List.of("йога", "иога"), SearchTokens.tokenize("ЙОГА, иога"));
+        assertEquals(List.of("star", "wars", "1977"), SearchTokens.tokenize("  Star Wars (1977) star"));
+        assertEquals(List.of(), SearchTokens.tokenize(" ,.!? "));
+    }
+
+    @Test
+    @DisplayName("Найти фильм по всем словам запроса в названии и описании")
+    void shouldMatchAllTokensInNameAndDescription() {
+        long hedgehog = createFilm("Ёжик в тумане", "Мультфильм").getId();
+        long matrix = createFilm("Матрица", "Фильм про избранного").getId();
+        long sailor = createFilm("Матрос", "Фильм про море").getId();
+        long yoga = createFilm("Йога", "Café").getId();
+
+        assertEquals(List.of(hedgehog), search("ежик"));
+        assertEquals(List.of(hedgehog), search("ЁЖИК туман"));
+        assertEquals(List.of(matrix, sailor), search("фильм про"));
+        assertEquals(List.of(matrix), search("фильм избранного"));
+        assertEquals(List.of(yoga), search("cafe"));
+        assertEquals(List.of(yoga), search("йога"));
+        assertEquals(List.of(), search("иога"));
+        assertEquals(List.of(), search("фильм космос"));
+    }
+
+    @Test
+    @DisplayName("Искать последнее слово запроса по префиксу")
+    void shouldMatchLastTokenByPrefix() {
+        long matrix = createFilm("Матрица", "Фильм").getId();
+        long sailor = createFilm("Матрос", "Фильм").getId();
+        createFilm("Мат", "Фильм");
+
+        assertEquals(List.of(matrix, sailor), search("фильм матр"));
+        assertEquals(List.of(matrix), search("матриц"));
+        assertEquals(List.of(), search("матр фильм"), "Префикс применён не к последнему слову");
+        assertEquals(List.of(), search("ма"), "Короткий префикс развёрнут");
+    }
+
+    @Test
+    @DisplayName("Фильтровать по периоду релиза и продолжительности")
+    void shouldFilterByReleaseDateAndDuration() {
+        long old = filmStorage.create(film("Old", "Film", LocalDate.of(1950, 1, 1), 60)).getId();
+        long middle = filmStorage.create(film("Middle", "Film", LocalDate.of(1990, 6, 1), 120)).getId();
+        long recent = filmStorage.create(film("Recent", "Film", LocalDate.of(2020, 1, 1), 180)).getId();
+        filmStorage.create(film("Unknown", "Film", null, null));
+
+        assertEquals(List.of(middle, recent), ids(filmStorage.search(new FilmSearchQuery(null,
+                LocalDate.of(1990, 6, 1), null, null, 0, 100))));
+        assertEquals(List.of(old, middle), ids(filmStorage.search(new FilmSearchQuery(null,
+                null, LocalDate.of(1990, 6, 1), null, 0, 100))));
+        assertEquals(List.of(middle, recent), ids(filmStorage.search(new FilmSearchQuery(null,
+                null, null, 120, 0, 100))));
+        assertEquals(List.of(middle), ids(filmStorage.search(new FilmSearchQuery("film",
+                LocalDate.of(1960, 1, 1), LocalDate.of(2010, 1, 1), 100, 0, 100))));
+        assertEquals(List.of(recent), ids(filmStorage.search(new FilmSearchQuery(null,
+                null, null, 60, middle, 1))), "Не учтена пагинация");
+    }
+
+    @Test
+    @DisplayName("Обновлять индекс при изменении и удалении фильма")
+    void shouldKeepIndexUpToDate() {
+        Film film = createFilm("Война и мир", "Роман");
+        long other = createFilm("Мир", "Роман").getId();
+
+        Film update = new Film();
+        update.setId(film.getId());
+        update.setName("Звёзды");
+        update.setReleaseDate(LocalDate.of(1970, 1, 1));
+        filmStorage.update(update);
+
+        assertEquals(List.of(), search("война"));
+        assertEquals(List.of(other), search("мир"));
+        assertEquals(List.of(film.getId()), search("звезды роман"));
+        assertEquals(List.of(film.getId()), ids(filmStorage.search(new FilmSearchQuery(null,
+                null, LocalDate.of(1980, 1, 1), null, 0, 100))));
+
+        filmStorage.delete(film.getId());
+        assertEquals(List.of(), search("звезды"));
+        assertEquals(List.of(other), search("роман"));
+    }
+
+    @Test
+    @DisplayName("Совпасть с полным перебором на случайных фильмах и запросах")
+    void shouldMatchBruteForce() {
+        SplittableRandom random = new SplittableRandom(42);
+        FilmSearchIndex index = new FilmSearchIndex(16);
+        NavigableMap<Long, Film> films = new TreeMap<>();
+        for (long id = 1; id <= 500; id++) {
+            Film film = film(randomText(random, 3), randomText(random, 6),
+                    random.nextInt(10) == 0 ? null : LocalDate.of(1950 + random.nextInt(70), 1, 1),
+                    random.nextInt(10) == 0 ? null : 30 + random.nextInt(150));
+            film.setId(id);
+            films.put(id, film);
+            index.add(film);
+        }
+        for (long id = 1; id <= 500; id += 7) {
+            Film film = films.get(id);
+            FilmSearchIndex.Entry before = FilmSearchIndex.entryOf(film);
+            film.setName(randomText(random, 2));
+            film.setDuration(30 + random.nextInt(150));
+            index.replace(before, FilmSearchIndex.entryOf(film));
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            String text = random.nextInt(3) == 0 ? null : randomText(random, 1 + random.nextInt(2));
+            LocalDate from = random.nextBoolean() ? null : LocalDate.of(1950 + random.nextInt(70), 1, 1);
+            LocalDate to = random.nextBoolean() ? null : LocalDate.of(1950 + random.nextInt(70), 1, 1);
+            Integer minDuration = random.nextBoolean() ? null : 30 + random.nextInt(150);
+            FilmSearchQuery query = new FilmSearchQuery(text, from, to, minDuration, random.nextInt(100),
+                    1 + random.nextInt(50));
+
+            assertEquals(bruteForce(films, query), ids(index.search(query, films)), "Расхождение для " + query);
+        }
+    }
+
+    private static String randomText(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static List<Long> bruteForce(NavigableMap<Long, Film> films, FilmSearchQuery query) {
+        List<String> tokens = SearchTokens.tokenize(query.text());
+        Predicate<Film> textMatches = film -> {
+            Set<String> filmTokens = FilmSearchIndex.entryOf(film).tokens();
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                boolean prefix = i == tokens.size() - 1 && token.length() >= 3;
+                if (prefix ? filmTokens.stream().noneMatch(filmToken -> filmToken.startsWith(token))
+                        : !filmTokens.contains(token)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+
+        return films.tailMap(query.afterId(), false).values().stream()
+                .filter(textMatches)
+                .filter(query::matches)
+                .limit(query.limit())
+                .map(Film::getId)
+                .toList();
+    }
+}
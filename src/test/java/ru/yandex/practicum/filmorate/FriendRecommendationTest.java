@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FriendRecommendationProperties;
+import ru.yandex.practicum.filmorate.service.FriendRecommender;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.stats.LikeStatistics;
+import ru.yandex.practicum.filmorate.stats.StatsProperties;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.trending.TrendingPipeline;
+import ru.yandex.practicum.filmorate.trending.TrendingProperties;
+import ru.yandex.practicum.filmorate.util.LongIntCounter;
+import ru.yandex.practicum.filmorate.validator.ModelValidator;
+import ru.yandex.practicum.filmorate.validator.ValidationProperties;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Проверить рекомендации друзей по общим друзьям")
+public class FriendRecommendationTest {
+    private InMemoryUserStorage userStorage;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userStorage = new InMemoryUserStorage();
+        for (int i = 1; i <= 6; i++) {
+            userStorage.create(new User(null, "user" + i + "@email.com", "user" + i, null, LocalDate.of(2000, 1, 1)));
+        }
+        userService = new UserService(userStorage, new InMemoryFilmStorage(), new FriendRecommender(userStorage,
+                new FriendRecommendationProperties(500, 500, 100_000, 50, 1_000)), new ModelValidator(
+                Validation.buildDefaultValidatorFactory().getValidator(), new ValidationProperties(true)),
+                new TrendingPipeline(new TrendingProperties(1024, 10, Duration.ofSeconds(1), Duration.ofMillis(1)),
+                        new SimpleMeterRegistry(), System::currentTimeMillis),
+                new LikeStatistics(new StatsProperties(14, 7, 0.0005, 0.99)));
+
+        userService.addFriend(1, 2);
+        userService.addFriend(1, 3);
+        userService.addFriend(2, 4);
+        userService.addFriend(3, 4);
+        userService.addFriend(2, 5);
+    }
+
+    @Test
+    @DisplayName("Упорядочить кандидатов по числу общих друзей, исключив себя и текущих друзей")
+    void shouldRankByMutualFriends() {
+        assertEquals(List.of(4L, 5L), ids(userService.findRecommendedFriends(1, 10)));
+        assertEquals(List.of(4L), ids(userService.findRecommendedFriends(1, 1)));
+    }
+
+    @Test
+    @DisplayName("Сбросить кэш рекомендаций при изменении дружбы")
+    void shouldInvalidateOnFriendshipChange() {
+        assertEquals(List.of(4L, 5L), ids(userService.findRecommendedFriends(1, 10)));
+
+        userService.addFriend(3, 6);
+        userService.addFriend(2, 6);
+        assertEquals(List.of(4L, 6L, 5L), ids(userService.findRecommendedFriends(1, 10)));
+
+        userService.removeFriend(1, 2);
+        assertEquals(List.of(4L, 6L), ids(userService.findRecommendedFriends(1, 10)));
+    }
+
+    @Test
+    @DisplayName("Раскрыть не больше заданного числа друзей")
+    void shouldCapExpandedFriends() {
+        FriendRecommender limited = new FriendRecommender(userStorage,
+                new FriendRecommendationProperties(1, 500, 100_000, 50, 0));
+
+        assertEquals(2, limited.recommend(1, 10).length);
+    }
+
+    @Test
+    @DisplayName("Выбрать наиболее частые ключи счётчика без упаковки")
+    void shouldSelectTopKeys() {
+        LongIntCounter counter = new LongIntCounter(2);
+        for (long key = 1; key <= 100; key++) {
+            for (int i = 0; i < key % 7; i++) {
+                counter.increment(key);
+            }
+        }
+
+        assertEquals(6, counter.get(6));
+        assertArrayEquals(new long[]{6, 13, 20}, counter.top(3));
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+}
@@ -0,0 +1,233 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchQuery;
+import ru.yandex.practicum.filmorate.storage.StorageJournal;
+import ru.yandex.practicum.filmorate.storage.film.HotLikesProperties;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Проверить буферизацию лайков популярных фильмов")
+public class HotLikesTest {
+    private InMemoryFilmStorage filmStorage;
+    private long filmId;
+
+    @BeforeEach
+    void setUp() {
+        filmStorage = new InMemoryFilmStorage(StorageJournal.NOOP,
+                new HotLikesProperties(true, 32, Duration.ofSeconds(1), 4, 4, 8));
+        filmId = filmStorage.create(film("Hot")).getId();
+        assertTrue(filmStorage.markHot(filmId));
+    }
+
+    private static Film film(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(90);
+        return film;
+    }
+
+    @Test
+    @DisplayName("Сразу показывать пользователю его лайк")
+    void shouldReadOwnLikeImmediately() {
+        assertTrue(filmStorage.addLike(filmId, 1));
+        assertFalse(filmStorage.addLike(filmId, 1), "Повторный лайк учтён");
+        assertTrue(filmStorage.findById(filmId).getUserLikes().contains(1L));
+        assertTrue(filmStorage.findLikedFilmIds(1).contains(filmId));
+
+        assertTrue(filmStorage.removeLike(filmId, 1));
+        assertTrue(filmStorage.addLike(filmId, 1));
+        assertTrue(filmStorage.removeLike(filmId, 1));
+        assertFalse(filmStorage.removeLike(filmId, 1));
+        assertFalse(filmStorage.findById(filmId).getUserLikes().contains(1L));
+        assertTrue(filmStorage.findLikedFilmIds(1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Записать буферизованный лайк в журнал до подтверждения")
+    void shouldJournalBufferedLikeBeforeAcknowledging() {
+        List<String> records = new ArrayList<>();
+        StorageJournal journal = new StorageJournal() {
+            @Override
+            public void likeAdded(long filmId, long userId) {
+                records.add("+" + filmId + ":" + userId);
+            }
+
+            @Override
+            public void likeRemoved(long filmId, long userId) {
+                records.add("-" + filmId + ":" + userId);
+            }
+        };
+        InMemoryFilmStorage storage = new InMemoryFilmStorage(journal,
+                new HotLikesProperties(true, 32, Duration.ofSeconds(1), 4, 4, 8));
+        long hotId = storage.create(film("Hot")).getId();
+        assertTrue(storage.markHot(hotId));
+
+        assertTrue(storage.addLike(hotId, 1));
+        assertTrue(storage.addLike(hotId, 2));
+        assertTrue(storage.removeLike(hotId, 1));
+        assertFalse(storage.addLike(hotId, 2));
+        assertEquals(List.of("+" + hotId + ":1", "+" + hotId + ":2", "-" + hotId + ":1"), records,
+                "Лайк подтверждён без записи в журнал");
+
+        assertEquals(Set.of(2L), storage.findById(hotId).getUserLikes());
+        assertEquals(3, records.size(), "Свёртка буфера повторно записала лайки в журнал");
+    }
+
+    @Test
+    @DisplayName("Сохранять точное число лайков при конкурентных изменениях")
+    void shouldKeepExactCountUnderContention() throws InterruptedException {
+        int threads = 8;
+        int usersPerThread = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger effectiveChanges = new AtomicInteger();
+        List<Set<Long>> expected = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            long firstUser = (long) thread * usersPerThread + 1;
+            Set<Long> liked = new HashSet<>();
+            expected.add(liked);
+            SplittableRandom random = new SplittableRandom(thread);
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 5_000; i++) {
+                    long userId = firstUser + random.nextInt(usersPerThread);
+                    boolean like = random.nextBoolean();
+                    boolean changed = like ? filmStorage.addLike(filmId, userId)
+                            : filmStorage.removeLike(filmId, userId);
+                    assertEquals(like ? liked.add(userId) : liked.remove(userId), changed,
+                            "Неверный признак изменения для пользователя " + userId);
+                    if (changed) {
+                        effectiveChanges.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Set<Long> allLiked = new HashSet<>();
+        expected.forEach(allLiked::addAll);
+        assertEquals(allLiked, filmStorage.findById(filmId).getUserLikes());
+        assertEquals(allLiked.size(), filmStorage.findPopular(1).getFirst().getUserLikes().size());
+        for (long userId = 1; userId <= (long) threads * usersPerThread; userId++) {
+            assertEquals(allLiked.contains(userId), filmStorage.findLikedFilmIds(userId).contains(filmId),
+                    "Обратный индекс расходится для пользователя " + userId);
+        }
+        assertTrue(effectiveChanges.get() >= allLiked.size());
+    }
+
+    @Test
+    @DisplayName("Применить отложенные лайки и очистить индекс при удалении фильма")
+    void shouldFoldPendingLikesOnDelete() {
+        long other = filmStorage.create(film("Other")).getId();
+        filmStorage.addLike(filmId, 1);
+        filmStorage.addLike(filmId, 2);
+        filmStorage.addLike(other, 1);
+
+        filmStorage.delete(filmId);
+
+        assertEquals(Set.of(other), filmStorage.findLikedFilmIds(1));
+        assertTrue(filmStorage.findLikedFilmIds(2).isEmpty());
+        assertFalse(filmStorage.markHot(filmId));
+    }
+
+    @Test
+    @DisplayName("Учесть все буферизованные лайки и не оставить буфер при удалении во время лайков")
+    void shouldNotLeaveBufferForFilmDeletedUnderLikes() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filmStorage.bindTo(registry);
+        for (int i = 0; i < 200; i++) {
+            long racing = filmStorage.create(film("Racing " + i)).getId();
+            AtomicInteger liked = new AtomicInteger();
+            Thread liker = Thread.ofPlatform().start(() -> {
+                for (long userId = 1; ; userId++) {
+                    filmStorage.markHot(racing);
+                    try {
+                        if (filmStorage.addLike(racing, userId)) {
+                            liked.incrementAndGet();
+                        }
+                    } catch (NotFoundException e) {
+                        return;
+                    }
+                }
+            });
+            while (liked.get() < 10) {
+                Thread.onSpinWait();
+            }
+
+            int removed = filmStorage.delete(racing);
+            liker.join();
+            assertEquals(liked.get(), removed, "Потеряны буферизованные лайки удалённого фильма");
+            assertEquals(1, registry.get("filmorate.likes.hot.films").gauge().value(),
+                    "Остался буфер удалённого фильма");
+        }
+    }
+
+    @Test
+    @DisplayName("Не сворачивать буфер при чтениях, не затрагивающих фильм")
+    void shouldNotFoldOnUnrelatedReads() {
+        long other = filmStorage.create(film("Other")).getId();
+        Film hot = filmStorage.findById(filmId);
+        long version = hot.getVersion();
+        filmStorage.addLike(filmId, 1);
+        filmStorage.addLike(other, 2);
+
+        filmStorage.findAllByIds(List.of(other));
+        filmStorage.findPage(filmId, 10);
+        filmStorage.search(new FilmSearchQuery("Other", null, null, null, 0, 10));
+        assertEquals(Set.of(filmId), filmStorage.findLikedFilmIds(1));
+        assertEquals(Map.of(1L, Set.of(filmId), 2L, Set.of(other)),
+                filmStorage.findLikedFilmIdsByUsers(List.of(1L, 2L, 3L)));
+        assertEquals(version, hot.getVersion(), "Буфер свёрнут чтением другого фильма");
+
+        filmStorage.removeLikesByUser(1);
+        assertTrue(filmStorage.findLikedFilmIds(1).isEmpty());
+        assertEquals(Set.of(), filmStorage.findById(filmId).getUserLikes());
+    }
+
+    @Test
+    @DisplayName("Вернуть фильм в обычный режим после затухания нагрузки")
+    void shouldDemoteCooledFilm() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filmStorage.bindTo(registry);
+        assertEquals(1, registry.get("filmorate.likes.hot.films").gauge().value());
+
+        for (int i = 0; i < 100; i++) {
+            filmStorage.addLike(filmId, i + 1);
+            filmStorage.findById(filmId);
+        }
+
+        assertEquals(0, registry.get("filmorate.likes.hot.films").gauge().value());
+        assertEquals(100, filmStorage.findById(filmId).getUserLikes().size());
+        assertTrue(filmStorage.removeLike(filmId, 100));
+        assertEquals(99, filmStorage.findPopular(1).getFirst().getUserLikes().size());
+    }
+}
@@ -0,0 +1,143 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Logbook;
+import org.zalando.logbook.Origin;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+import org.zalando.logbook.servlet.LogbookFilter;
+import ru.yandex.practicum.filmorate.logging.AsyncSink;
+import ru.yandex.practicum.filmorate.logging.BodySizeFilter;
+import ru.yandex.practicum.filmorate.logging.BodySizeStrategy;
+import ru.yandex.practicum.filmorate.logging.HttpLoggingProperties;
+import ru.yandex.practicum.filmorate.logging.SamplingCondition;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Проверить асинхронное и выборочное логирование HTTP")
+public class HttpLoggingTest {
+
+    @Test
+    @DisplayName("Отбросить события при переполнении очереди и посчитать их")
+    void shouldCountDroppedEvents() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        Sink delegate = mock(Sink.class);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(delegate).write(any(Precorrelation.class), any(HttpRequest.class));
+
+        try (AsyncSink sink = new AsyncSink(delegate, properties(1, Map.of()), meterRegistry)) {
+            for (int i = 0; i < 5; i++) {
+                sink.write(mock(Precorrelation.class), request("/films"));
+            }
+
+            double dropped = meterRegistry.get("filmorate.http.logging.dropped").counter().count();
+            assertTrue(dropped >= 3, "Ожидалось не меньше трёх отброшенных событий, получено " + dropped);
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Применить частоту выборки по шаблону пути")
+    void shouldSampleByPath() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SamplingCondition condition = new SamplingCondition(
+                properties(16, Map.of("/actuator/**", 0.0)), meterRegistry);
+
+        assertFalse(condition.test(request("/actuator/prometheus")));
+        assertTrue(condition.test(request("/films/1")));
+        assertEquals(1, meterRegistry.get("filmorate.http.logging.sampled_out").counter().count());
+    }
+
+    @Test
+    @DisplayName("Не буферизовать тело ответа, превышающее лимит по Content-Length")
+    void shouldSkipLargeResponseBodyBeforeBuffering() throws Exception {
+        assertEquals("", loggedResponseBody("x".repeat(100)));
+        assertEquals("small", loggedResponseBody("small"));
+    }
+
+    @Test
+    @DisplayName("Считать размер тела неизвестным при некорректном Content-Length")
+    void shouldIgnoreMalformedContentLength() throws Exception {
+        HttpRequest request = request("/films");
+        when(request.getHeaders()).thenReturn(HttpHeaders.of("Content-Length", "many"));
+
+        new BodySizeStrategy(10).process(request);
+
+        verify(request).withBody();
+    }
+
+    private static String loggedResponseBody(String body) throws Exception {
+        Sink sink = mock(Sink.class);
+        when(sink.isActive()).thenReturn(true);
+        BodySizeStrategy strategy = new BodySizeStrategy(10) {
+            @Override
+            public void write(Correlation correlation, HttpRequest request, HttpResponse response, Sink sink)
+                    throws IOException {
+                sink.write(correlation, request, response);
+            }
+        };
+        Logbook logbook = Logbook.builder().strategy(strategy).sink(sink).build();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                response.setContentType("text/plain");
+                response.setContentLength(bytes.length);
+                response.getOutputStream().write(bytes);
+            }
+        };
+
+        new BodySizeFilter(new LogbookFilter(logbook), strategy).doFilter(new MockHttpServletRequest("GET", "/films"),
+                new MockHttpServletResponse(), new MockFilterChain(servlet));
+
+        ArgumentCaptor<HttpResponse> response = ArgumentCaptor.forClass(HttpResponse.class);
+        verify(sink).write(any(Correlation.class), any(HttpRequest.class), response.capture());
+        return response.getValue().getBodyAsString();
+    }
+
+    private static HttpLoggingProperties properties(int queueCapacity, Map<String, Double> sampling) {
+        return new HttpLoggingProperties(true, queueCapacity, 1.0, sampling, DataSize.ofKilobytes(64));
+    }
+
+    private static HttpRequest request(String path) throws Exception {
+        HttpRequest request = mock(HttpRequest.class);
+        when(request.getPath()).thenReturn(path);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getPort()).thenReturn(Optional.of(8080));
+        when(request.getOrigin()).thenReturn(Origin.REMOTE);
+        when(request.getHeaders()).thenReturn(HttpHeaders.empty());
+        when(request.getBody()).thenReturn(new byte[0]);
+        return request;
+    }
+}
@@ -0,0 +1,323 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchQuery;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.JdbcFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:filmorate-${random.uuid};DB_CLOSE_DELAY=-1")
+@ActiveProfiles("jdbc")
+@DisplayName("Проверить хранилища на базе JDBC")
+public class JdbcStorageTest {
+    @Autowired
+    private FilmStorage filmStorage;
+
+    @Autowired
+    private UserStorage userStorage;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Film createFilm(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setDescription("Some description");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(90);
+        return filmStorage.create(film);
+    }
+
+    private User createUser(String login) {
+        return userStorage.create(new User(null, login + "@email.com", login, null, LocalDate.of(2000, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("Использовать JDBC-хранилище в профиле jdbc")
+    void shouldUseJdbcStorageInJdbcProfile() {
+        assertInstanceOf(JdbcFilmStorage.class, filmStorage);
+    }
+
+    @Test
+    @DisplayName("Частично обновить фильм")
+    void shouldUpdateOnlyProvidedFilmFields() {
+        Film film = createFilm("Film");
+        Film update = new Film();
+        update.setId(film.getId());
+        update.setDuration(120);
+
+        Film updated = filmStorage.update(update);
+        assertEquals("Film", updated.getName(), "Название фильма изменилось");
+        assertEquals(120, updated.getDuration(), "Продолжительность фильма не обновлена");
+        assertThrows(NotFoundException.class, () -> filmStorage.findById(film.getId() + 100));
+    }
+
+    @Test
+    @DisplayName("Учитывать лайки в рейтинге популярных фильмов")
+    void shouldOrderPopularFilmsByLikes() {
+        Film first = createFilm("First");
+        Film second = createFilm("Second");
+        User user = createUser("user");
+        User other = createUser("other");
+
+        filmStorage.addLike(second.getId(), user.getId());
+        filmStorage.addLike(second.getId(), other.getId());
+        filmStorage.addLike(second.getId(), other.getId());
+        filmStorage.addLike(first.getId(), user.getId());
+
+        List<Film> popular = filmStorage.findPopular(2);
+        assertEquals(List.of(second.getId(), first.getId()), popular.stream().map(Film::getId).toList());
+        assertEquals(Set.of(user.getId(), other.getId()), popular.getFirst().getUserLikes());
+        assertEquals(Set.of(first.getId(), second.getId()), filmStorage.findLikedFilmIds(user.getId()));
+        assertEquals(Set.of(second.getId()),
+                filmStorage.findLikedFilmIdsByUsers(List.of(other.getId())).get(other.getId()));
+
+        filmStorage.removeLike(second.getId(), user.getId());
+        filmStorage.removeLike(second.getId(), other.getId());
+        assertEquals(first.getId(), filmStorage.findPopular(1).getFirst().getId(), "Рейтинг не обновлен");
+    }
+
+    @Test
+    @DisplayName("Увеличивать версии фильма, пользователя и рейтинга при изменениях")
+    void shouldBumpVersionsOnMutations() {
+        Film film = createFilm("Versioned");
+        User user = createUser("versioned");
+        User friend = createUser("versioned-friend");
+        long filmVersion = filmStorage.findById(film.getId()).getVersion();
+        long popularityVersion = filmStorage.popularityVersion(1_000);
+
+        filmStorage.addLike(film.getId(), user.getId());
+        assertEquals(filmVersion + 1, filmStorage.findById(film.getId()).getVersion(), "Лайк не изменил версию");
+        assertNotEquals(popularityVersion, filmStorage.popularityVersion(1_000), "Лайк не изменил версию рейтинга");
+        popularityVersion = filmStorage.popularityVersion(1_000);
+        filmStorage.addLike(film.getId(), user.getId());
+        assertEquals(filmVersion + 1, filmStorage.findById(film.getId()).getVersion(), "Повторный лайк изменил версию");
+        assertEquals(popularityVersion, filmStorage.popularityVersion(1_000), "Повторный лайк изменил версию рейтинга");
+        new JdbcFilmStorage(jdbc).addLike(film.getId(), friend.getId());
+        assertNotEquals(popularityVersion, filmStorage.popularityVersion(1_000),
+                "Лайк через другой экземпляр хранилища не изменил версию рейтинга");
+
+        long userVersion = userStorage.findById(user.getId()).getVersion();
+        userStorage.addFriend(user.getId(), friend.getId());
+        assertEquals(userVersion + 1, userStorage.findById(user.getId()).getVersion(), "Дружба не изменила версию");
+        userStorage.delete(friend.getId());
+        assertEquals(userVersion + 2, userStorage.findById(user.getId()).getVersion(),
+                "Удаление друга не изменило версию");
+    }
+
+    @Test
+    @DisplayName("Не блокировать лайк одного фильма открытой транзакцией с лайком другого")
+    void shouldNotSerializeLikesOnDifferentFilms() throws Exception {
+        Film first = createFilm("Locked");
+        Film second = createFilm("Free");
+        User user = createUser("locker");
+        User other = createUser("free-liker");
+        CountDownLatch liked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> {
+                        filmStorage.addLike(first.getId(), user.getId());
+                        liked.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        status.setRollbackOnly();
+                    }));
+            assertTrue(liked.await(5, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> filmStorage.addLike(second.getId(), other.getId()),
+                    "Лайк ждал чужую транзакцию");
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        assertEquals(Set.of(), filmStorage.findById(first.getId()).getUserLikes());
+        assertTrue(filmStorage.removeLike(second.getId(), other.getId()));
+    }
+
+    @Test
+    @DisplayName("Искать фильмы по словам, периоду релиза и продолжительности")
+    void shouldSearchFilms() {
+        Film hedgehog = createFilm("Ёжик в тумане");
+        Film other = createFilm("Ёжики и туманность");
+        Film update = new Film();
+        update.setId(other.getId());
+        update.setDuration(30);
+        filmStorage.update(update);
+
+        assertEquals(List.of(hedgehog.getId(), other.getId()), filmStorage.search(new FilmSearchQuery("ЕЖИК туман",
+                null, null, null, 0, 10)).stream().map(Film::getId).toList());
+        assertEquals(List.of(hedgehog.getId()), filmStorage.search(new FilmSearchQuery("ежик",
+                LocalDate.of(1999, 1, 1), LocalDate.of(2000, 1, 1), 60, 0, 10)).stream().map(Film::getId).toList());
+        assertEquals(List.of(other.getId()), filmStorage.search(new FilmSearchQuery("ежик",
+                null, null, null, hedgehog.getId(), 10)).stream().map(Film::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Найти фильмы пачкой в порядке запроса и перечислить отсутствующие")
+    void shouldFindFilmsByIdsInRequestOrder() {
+        Film first = createFilm("First");
+        Film second = createFilm("Second");
+
+        LookupResult<Film> lookup = filmStorage.findAllByIds(List.of(second.getId(), 999L, first.getId(), 998L));
+        assertEquals(List.of(second.getId(), first.getId()), lookup.found().stream().map(Film::getId).toList());
+        assertEquals(List.of(999L, 998L), lookup.missingIds());
+        assertEquals(Set.of(), lookup.found().getFirst().getUserLikes());
+    }
+
+    @Test
+    @DisplayName("Хранить дружбу в обе стороны и находить пользователей пачкой")
+    void shouldStoreFriendshipBothWays() {
+        User user = createUser("user");
+        User friend = createUser("friend");
+
+        userStorage.addFriend(user.getId(), friend.getId());
+        assertEquals(Set.of(friend.getId()), userStorage.findById(user.getId()).getFriends());
+        assertEquals(Set.of(user.getId()), userStorage.findById(friend.getId()).getFriends());
+
+        LookupResult<User> lookup = userStorage.findAllByIds(List.of(friend.getId(), 999L, user.getId()));
+        assertEquals(List.of(friend.getId(), user.getId()), lookup.found().stream().map(User::getId).toList());
+        assertEquals(List.of(999L), lookup.missingIds());
+
+        userStorage.removeFriend(friend.getId(), user.getId());
+        assertEquals(Set.of(), userStorage.findById(user.getId()).getFriends(), "Дружба не удалена");
+    }
+
+    @Test
+    @DisplayName("Сохранить связь имени и логина при обновлении пользователя")
+    void shouldRenameUserWhenLoginChangesAndNameIsLogin() {
+        User user = createUser("user");
+        User update = new User();
+        update.setId(user.getId());
+        update.setLogin("renamed");
+
+        User updated = userStorage.update(update);
+        assertEquals("renamed", updated.getName(), "Имя не последовало за логином");
+        assertEquals(List.of(updated), userStorage.findPage(user.getId() - 1, 1));
+    }
+
+    @Test
+    @DisplayName("Удалить фильм и пользователя вместе со связями")
+    void shouldCascadeDeletion() {
+        Film first = createFilm("First");
+        Film second = createFilm("Second");
+        User user = createUser("user");
+        User other = createUser("other");
+        User third = createUser("third");
+        userStorage.addFriend(user.getId(), other.getId());
+        userStorage.callLocked(user.getId(), () -> filmStorage.addLike(first.getId(), user.getId()));
+        filmStorage.addLike(first.getId(), other.getId());
+        filmStorage.addLike(second.getId(), other.getId());
+        filmStorage.addLike(second.getId(), third.getId());
+
+        assertEquals(Set.of(first.getId()),
+                userStorage.delete(user.getId(), () -> filmStorage.removeLikesByUser(user.getId())));
+        assertThrows(NotFoundException.class, () -> userStorage.findById(user.getId()));
+        assertThrows(NotFoundException.class, () -> userStorage.delete(user.getId()));
+        assertThrows(NotFoundException.class,
+                () -> userStorage.callLocked(user.getId(), () -> filmStorage.addLike(second.getId(), user.getId())));
+        assertEquals(Set.of(), userStorage.findById(other.getId()).getFriends(), "Дружба не удалена");
+        assertEquals(Set.of(other.getId()), filmStorage.findById(first.getId()).getUserLikes(), "Лайк не удалён");
+        assertEquals(second.getId(), filmStorage.findPopular(1).getFirst().getId(), "Рейтинг не пересчитан");
+
+        assertEquals(1, filmStorage.delete(first.getId()), "Не учтён лайк удалённого фильма");
+        assertThrows(NotFoundException.class, () -> filmStorage.findById(first.getId()));
+        assertEquals(Set.of(second.getId()), filmStorage.findLikedFilmIds(other.getId()));
+    }
+
+    @Test
+    @DisplayName("Создать фильмы пачкой с заданными и новыми ID")
+    void shouldCreateFilmsInBatch() {
+        Film explicit = new Film();
+        explicit.setId(1_000L);
+        explicit.setName("Explicit");
+        Film generated = new Film();
+        generated.setName("Generated");
+
+        filmStorage.createAll(List.of(explicit, generated));
+        assertEquals("Explicit", filmStorage.findById(1_000L).getName());
+        assertEquals(1_001L, generated.getId(), "Последовательность ID не сдвинута за импортированные");
+        assertEquals(1_002L, createFilm("Next").getId());
+
+        Film taken = new Film();
+        taken.setId(1_000L);
+        taken.setName("Taken");
+        Film repeated = new Film();
+        repeated.setId(1_003L);
+        repeated.setName("Repeated");
+        assertEquals(List.of(repeated), filmStorage.createAll(List.of(taken, repeated, repeated)));
+        assertEquals("Explicit", filmStorage.findById(1_000L).getName(), "Существующий фильм перезаписан");
+
+        User user = createUser("liker");
+        filmStorage.addLikes(List.of(new Like(generated.getId(), user.getId()), new Like(1_000L, user.getId())));
+        assertEquals(Set.of(1_000L, 1_001L), filmStorage.findLikedFilmIds(user.getId()));
+        assertEquals(Set.of(user.getId()), filmStorage.findById(1_000L).getUserLikes());
+    }
+
+    @Test
+    @DisplayName("Откатить пакетное создание фильмов с явными ID вместе с транзакцией")
+    void shouldRollBackBatchWithExplicitIds() {
+        Film film = new Film();
+        film.setId(2_000L);
+        film.setName("Rolled back");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            filmStorage.createAll(List.of(film));
+            status.setRollbackOnly();
+        });
+
+        assertFalse(filmStorage.exists(2_000L), "Фильм из откатанной транзакции сохранён");
+        assertTrue(createFilm("After rollback").getId() < 2_000L, "Счётчик ID сдвинут откатанной транзакцией");
+    }
+
+    @Test
+    @DisplayName("Пропускать при пакетном создании пользователей уже занятые ID")
+    void shouldSkipTakenUserIdsInBatch() {
+        User existing = createUser("existing");
+        User taken = new User(existing.getId(), "taken@email.com", "taken", null, LocalDate.of(2000, 1, 1));
+        User generated = new User(null, "generated@email.com", "generated", null, LocalDate.of(2000, 1, 1));
+
+        assertEquals(List.of(generated), userStorage.createAll(List.of(taken, generated)));
+        assertEquals("existing", userStorage.findById(existing.getId()).getLogin(), "Пользователь перезаписан");
+        assertEquals("generated", userStorage.findById(generated.getId()).getLogin());
+    }
+}
@@ -0,0 +1,146 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.stats.CardinalityEstimate;
+import ru.yandex.practicum.filmorate.stats.FrequencyEstimate;
+import ru.yandex.practicum.filmorate.stats.LikeHistogram;
+import ru.yandex.practicum.filmorate.stats.LikeStatistics;
+import ru.yandex.practicum.filmorate.stats.LikeStatisticsLoader;
+import ru.yandex.practicum.filmorate.stats.LikeTotals;
+import ru.yandex.practicum.filmorate.stats.StatsProperties;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.util.CountMinSketch;
+import ru.yandex.practicum.filmorate.util.HyperLogLog;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Проверить вероятностную статистику лайков")
+public class LikeStatisticsTest {
+    private static final long DAY = Duration.ofDays(1).toMillis();
+
+    private final AtomicLong now = new AtomicLong(1000 * DAY);
+    private final LikeStatistics statistics = new LikeStatistics(new StatsProperties(14, 7, 0.0005, 0.99), now::get);
+
+    @Test
+    @DisplayName("Оценить число уникальных значений в пределах погрешности")
+    void shouldEstimateCardinalityWithinError() {
+        for (int distinct : new int[]{10, 1_000, 100_000, 1_000_000}) {
+            HyperLogLog hyperLogLog = new HyperLogLog(14);
+            for (long value = 1; value <= distinct; value++) {
+                hyperLogLog.add(value);
+                hyperLogLog.add(value);
+            }
+
+            double error = Math.abs(hyperLogLog.estimate() - distinct) / (double) distinct;
+            assertTrue(error <= 3 * hyperLogLog.relativeStandardError(),
+                    "Ошибка " + error + " для " + distinct + " значений");
+        }
+    }
+
+    @Test
+    @DisplayName("Не занижать частоты и укладываться в гарантию Count-Min")
+    void shouldNeverUnderestimateFrequencies() {
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.99);
+        SplittableRandom random = new SplittableRandom(7);
+        long[] exact = new long[5_000];
+        for (int i = 0; i < 200_000; i++) {
+            int key = (int) Math.min(exact.length - 1, (long) (1 / (1 - random.nextDouble())) - 1);
+            exact[key]++;
+            sketch.add(key, 1);
+        }
+
+        int outOfBound = 0;
+        for (int key = 0; key < exact.length; key++) {
+            long estimate = sketch.estimate(key);
+            assertTrue(estimate >= exact[key], "Частота занижена для ключа " + key);
+            if (estimate - exact[key] > sketch.maxOverestimate()) {
+                outOfBound++;
+            }
+        }
+        assertTrue(outOfBound <= exact.length * (1 - sketch.confidence()), "Нарушений: " + outOfBound);
+        assertEquals(200_000, sketch.total());
+    }
+
+    @Test
+    @DisplayName("Вести итоги, частоты и гистограмму лайков по событиям")
+    void shouldTrackTotalsFrequenciesAndHistogram() {
+        for (long userId = 1; userId <= 5; userId++) {
+            statistics.likeAdded(1, userId);
+        }
+        statistics.likeAdded(2, 1);
+        statistics.likeAdded(3, 1);
+        statistics.likeAdded(3, 2);
+        statistics.likeRemoved(3);
+
+        LikeTotals totals = statistics.totals();
+        assertEquals(7, totals.likes());
+        assertEquals(8, totals.added());
+        assertEquals(1, totals.removed());
+        assertEquals(5, totals.uniqueLikers().estimate());
+
+        FrequencyEstimate film = statistics.filmLikes(1);
+        assertEquals(5, film.estimate());
+        assertTrue(film.lower() <= 5);
+        assertEquals(0, statistics.filmLikes(42).estimate());
+
+        LikeHistogram histogram = statistics.histogram();
+        assertEquals(List.of(new LikeHistogram.Bucket(1, 1, 2), new LikeHistogram.Bucket(4, 7, 1)),
+                histogram.buckets());
+    }
+
+    @Test
+    @DisplayName("Считать уникальных лайкеров по дням")
+    void shouldEstimateLikersPerDay() {
+        for (long userId = 1; userId <= 1_000; userId++) {
+            statistics.likeAdded(1, userId);
+        }
+        now.addAndGet(DAY);
+        for (long userId = 501; userId <= 2_000; userId++) {
+            statistics.likeAdded(2, userId);
+        }
+
+        CardinalityEstimate today = statistics.likers(1).likers();
+        CardinalityEstimate twoDays = statistics.likers(2).likers();
+        assertTrue(today.lower() <= 1_500 && 1_500 <= today.upper(), "Оценка за день: " + today);
+        assertTrue(twoDays.lower() <= 2_000 && 2_000 <= twoDays.upper(), "Оценка за два дня: " + twoDays);
+
+        now.addAndGet(7 * DAY);
+        statistics.likeAdded(3, 1);
+        assertEquals(1, statistics.likers(7).likers().estimate(), "Старые дни не вытеснены");
+        assertThrows(ValidationException.class, () -> statistics.likers(8));
+        assertTrue(statistics.sizeInBytes() < 512 * 1024);
+    }
+
+    @Test
+    @DisplayName("Загрузить лайки из хранилища при старте без учёта в дневной статистике")
+    void shouldLoadStoredLikes() {
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        Film film = new Film();
+        film.setName("Stored");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        long filmId = filmStorage.create(film).getId();
+        filmStorage.addLikes(List.of(new Like(filmId, 1L), new Like(filmId, 2L), new Like(filmId, 3L)));
+
+        new LikeStatisticsLoader(filmStorage, statistics).afterSingletonsInstantiated();
+        assertEquals(3, statistics.totals().likes());
+        assertEquals(3, statistics.totals().uniqueLikers().estimate());
+        assertEquals(0, statistics.likers(1).likers().estimate(), "Загруженные лайки учтены как сегодняшние");
+
+        statistics.likesRemoved(filmId, 3);
+        assertEquals(0, statistics.totals().likes());
+        assertEquals(0, statistics.filmLikes(filmId).estimate());
+        assertEquals(List.of(), statistics.histogram().buckets());
+    }
+}
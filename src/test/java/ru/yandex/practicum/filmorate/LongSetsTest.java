@@ -0,0 +1,65 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.util.LongSets;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Проверить пересечение множеств ID")
+public class LongSetsTest {
+    private final Random random = new Random(42);
+
+    private Set<Long> randomIds(int size, long bound) {
+        Set<Long> ids = new HashSet<>();
+        while (ids.size() < size) {
+            ids.add(random.nextLong(1, bound));
+        }
+        return ids;
+    }
+
+    private void assertIntersection(Set<Long> first, Set<Long> second) {
+        TreeSet<Long> expected = new TreeSet<>(first);
+        expected.retainAll(second);
+
+        LongSortedSet sorted = LongSets.intersection(LongSortedSet.copyOf(first), LongSortedSet.copyOf(second));
+        assertEquals(List.copyOf(expected), List.copyOf(sorted), "Некорректное пересечение отсортированных множеств");
+        assertEquals(expected.size(), LongSets.intersectionSize(LongSortedSet.copyOf(first),
+                LongSortedSet.copyOf(second)), "Некорректный размер пересечения");
+
+        LongSortedSet probed = LongSets.intersection(first, second);
+        assertEquals(List.copyOf(expected), List.copyOf(probed), "Некорректное пересечение хеш-множеств");
+    }
+
+    @Test
+    @DisplayName("Пересечь множества сопоставимого размера слиянием")
+    void shouldIntersectSetsOfComparableSize() {
+        for (int i = 0; i < 20; i++) {
+            assertIntersection(randomIds(500, 2_000), randomIds(700, 2_000));
+        }
+    }
+
+    @Test
+    @DisplayName("Пересечь маленькое множество с большим поиском с галопом")
+    void shouldIntersectSmallSetWithLargeSet() {
+        for (int i = 0; i < 20; i++) {
+            Set<Long> large = randomIds(20_000, 40_000);
+            Set<Long> small = randomIds(10, 40_000);
+            small.add(large.iterator().next());
+            assertIntersection(small, large);
+        }
+    }
+
+    @Test
+    @DisplayName("Вернуть пустое пересечение для пустого множества")
+    void shouldReturnEmptyIntersectionWhenSetIsEmpty() {
+        assertIntersection(Set.of(), randomIds(100, 1_000));
+    }
+}
@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.util.LongSortedSet;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Проверить множество примитивных ID")
+public class LongSortedSetTest {
+    private final ObjectMapper mapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    @Test
+    @DisplayName("Хранить ID отсортированными и без повторов")
+    void shouldKeepValuesSortedAndDistinct() {
+        LongSortedSet set = new LongSortedSet();
+        assertTrue(set.add(5L));
+        assertTrue(set.add(1L));
+        assertTrue(set.add(3L));
+        assertFalse(set.add(3L), "Повторный ID добавлен в множество");
+
+        assertArrayEquals(new long[]{1, 3, 5}, set.toLongArray(), "Некорректный порядок ID");
+        assertEquals(3, set.size(), "Некорректный размер множества");
+    }
+
+    @Test
+    @DisplayName("Удалять ID и отвечать на проверку вхождения")
+    void shouldRemoveValues() {
+        LongSortedSet set = LongSortedSet.copyOf(List.of(4L, 2L, 2L, 8L));
+
+        assertTrue(set.remove(2L));
+        assertFalse(set.remove(2L), "ID удален повторно");
+        assertFalse(set.contains(2L));
+        assertTrue(set.contains(8L));
+        assertEquals(Set.of(4L, 8L), set, "Множество не равно обычному Set с теми же ID");
+    }
+
+    @Test
+    @DisplayName("Применять пакет добавлений и удалений за один проход")
+    void shouldApplyBatchUpdate() {
+        LongSortedSet set = LongSortedSet.copyOf(List.of(2L, 4L, 6L, 8L));
+
+        set.update(new long[]{1, 4, 9, 0}, 3, new long[]{2, 8, 10}, 3);
+        assertArrayEquals(new long[]{1, 4, 6, 9}, set.toLongArray());
+
+        set.update(new long[0], 0, new long[]{1, 4, 6, 9}, 4);
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Сохранить JSON-представление лайков фильма")
+    void shouldSerializeLikesAsJsonArray() throws Exception {
+        Film film = new Film();
+        film.setId(1L);
+        film.setName("Test");
+        film.getUserLikes().add(2L);
+        film.getUserLikes().add(1L);
+
+        String json = mapper.writeValueAsString(film);
+        assertTrue(json.contains("\"userLikes\":[1,2]"), "Изменился формат поля userLikes: " + json);
+
+        Film restored = mapper.readValue(json, Film.class);
+        assertInstanceOf(LongSortedSet.class, restored.getUserLikes());
+        assertEquals(Set.of(1L, 2L), restored.getUserLikes(), "Лайки потеряны при десериализации");
+    }
+}
@@ -0,0 +1,113 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import ru.yandex.practicum.filmorate.error.ErrorHandler;
+import ru.yandex.practicum.filmorate.error.ErrorLoggingProperties;
+import ru.yandex.practicum.filmorate.error.ErrorResponse;
+import ru.yandex.practicum.filmorate.error.LogRateLimiter;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Проверить обработку обращений к несуществующим сущностям")
+public class LookupMissTest {
+    private InMemoryFilmStorage filmStorage;
+    private InMemoryUserStorage userStorage;
+
+    @BeforeEach
+    void setUp() {
+        filmStorage = new InMemoryFilmStorage();
+        userStorage = new InMemoryUserStorage();
+        userStorage.create(new User(null, "user@email.com", "user", null, LocalDate.of(2000, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("Вернуть пустой Optional вместо исключения")
+    void shouldReturnEmptyOptionalOnMiss() {
+        assertEquals(Optional.empty(), filmStorage.find(1));
+        assertEquals(Optional.empty(), userStorage.find(2));
+        assertTrue(userStorage.find(1).isPresent());
+        assertFalse(filmStorage.exists(1));
+        assertTrue(userStorage.exists(1));
+    }
+
+    @Test
+    @DisplayName("Найти сущности пачкой в порядке запроса и перечислить отсутствующие")
+    void shouldFindAllByIdsInRequestOrder() {
+        long second = userStorage.create(new User(null, "second@email.com", "second", null,
+                LocalDate.of(2000, 1, 1))).getId();
+        Film film = new Film();
+        film.setName("Film");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        long filmId = filmStorage.create(film).getId();
+
+        LookupResult<User> users = userStorage.findAllByIds(List.of(7L, second, 1L, 5L));
+        assertEquals(List.of(second, 1L), users.found().stream().map(User::getId).toList());
+        assertEquals(List.of(7L, 5L), users.missingIds());
+        assertTrue(users.hasMissing());
+
+        LookupResult<Film> films = filmStorage.findAllByIds(List.of(filmId, 3L));
+        assertEquals(List.of(filmId), films.found().stream().map(Film::getId).toList());
+        assertEquals(List.of(3L), films.missingIds());
+        assertFalse(filmStorage.findAllByIds(List.of(filmId)).hasMissing());
+    }
+
+    @Test
+    @DisplayName("Создавать исключение без стектрейса")
+    void shouldThrowStacklessException() {
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> userStorage.findById(2));
+
+        assertEquals("Пользователь с ID = 2 не найден", exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length, "Стектрейс был захвачен");
+        assertEquals(0, new NotFoundException("message", new IllegalStateException()).getStackTrace().length);
+    }
+
+    @Test
+    @DisplayName("Ограничить частоту предупреждений")
+    void shouldLimitWarningsPerInterval() {
+        AtomicLong now = new AtomicLong();
+        LogRateLimiter limiter = new LogRateLimiter(2, Duration.ofSeconds(1), now::get);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.drainSuppressed(), "Потеряно число пропущенных сообщений");
+        assertEquals(0, limiter.drainSuppressed());
+    }
+
+    @Test
+    @DisplayName("Отвечать 404 при любом числе промахов")
+    void shouldRespondNotFoundWhenWarningsSuppressed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ErrorHandler handler = new ErrorHandler(registry, new ErrorLoggingProperties(1, Duration.ofMinutes(1)));
+
+        for (int i = 0; i < 5; i++) {
+            ErrorResponse response = handler.handleNotFound(NotFoundException.film(i));
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatus());
+            assertEquals("Фильм с ID = " + i + " не найден", response.getDescription());
+        }
+        assertEquals(5, registry.get("filmorate.errors.not_found").counter().count());
+    }
+}
@@ -0,0 +1,129 @@
+package ru.yandex.practicum.filmorate;
+
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.metrics.MetricsProperties;
+import ru.yandex.practicum.filmorate.metrics.SetSizeStatistics;
+import ru.yandex.practicum.filmorate.metrics.StorageMetrics;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "filmorate.metrics.set-size-refresh=0s")
+@AutoConfigureMockMvc
+@DisplayName("Проверить метрики сервисов и хранилищ")
+public class MetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Посчитать обращения к несуществующим сущностям")
+    void shouldCountNotFound() throws Exception {
+        double before = meterRegistry.get("filmorate.errors.not_found").counter().count();
+
+        mockMvc.perform(get("/films/{id}", 100_000))
+                .andExpect(status().isNotFound());
+
+        assertEquals(before + 1, meterRegistry.get("filmorate.errors.not_found").counter().count());
+    }
+
+    @Test
+    @DisplayName("Замерить время выполнения методов сервиса")
+    void shouldTimeServiceMethods() throws Exception {
+        mockMvc.perform(get("/films/popular"))
+                .andExpect(status().isOk());
+
+        assertNotNull(meterRegistry.get("filmorate.service")
+                .tag("class", "ru.yandex.practicum.filmorate.service.FilmService")
+                .tag("method", "findPopular")
+                .timer());
+    }
+
+    @Test
+    @DisplayName("Показать размеры множеств лайков и самые популярные фильмы")
+    void shouldReportSetSizes() throws Exception {
+        long userId = createUser();
+        long filmId = createFilm();
+        mockMvc.perform(put("/films/{id}/like/{userId}", filmId, userId))
+                .andExpect(status().is2xxSuccessful());
+
+        assertTrue(meterRegistry.get("filmorate.films").gauge().value() >= 1);
+        assertTrue(meterRegistry.get("filmorate.film.likes").tag("statistic", "max").gauge().value() >= 1);
+        mockMvc.perform(get("/actuator/outliers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.filmLikes.outliers[0].size").isNumber());
+    }
+
+    @Test
+    @DisplayName("Обновлять размеры множеств порциями без обхода всего каталога")
+    void shouldRefreshSetSizesInBatches() {
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        for (int i = 0; i < 5; i++) {
+            Film film = new Film();
+            film.setName("Film " + i);
+            filmStorage.create(film);
+        }
+        filmStorage.addLike(1, 1);
+        filmStorage.addLike(1, 2);
+        filmStorage.addLike(1, 3);
+        filmStorage.addLike(4, 1);
+        StorageMetrics metrics = new StorageMetrics(filmStorage, new InMemoryUserStorage(),
+                new MetricsProperties(Duration.ZERO, 2, 10));
+
+        assertEquals(2, metrics.likes().count());
+        assertEquals(4, metrics.likes().count());
+        SetSizeStatistics full = metrics.likes();
+        assertEquals(5, full.count());
+        assertEquals(3, full.max());
+        assertEquals(0, full.median());
+        assertEquals(List.of(new SetSizeStatistics.Outlier(1, 3), new SetSizeStatistics.Outlier(4, 1)),
+                full.outliers());
+
+        filmStorage.delete(1);
+        SetSizeStatistics afterDelete = metrics.likes();
+        assertEquals(4, afterDelete.count());
+        assertEquals(1, afterDelete.max());
+        assertEquals(List.of(new SetSizeStatistics.Outlier(4, 1)), afterDelete.outliers());
+    }
+
+    private long createUser() throws Exception {
+        String response = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"metrics@email.com\",\"login\":\"metrics\",\"birthday\":\"2000-01-01\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.<Number>read(response, "$.id").longValue();
+    }
+
+    private long createFilm() throws Exception {
+        String response = mockMvc.perform(post("/films")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Metrics\",\"description\":\"Some description\"," +
+                                "\"releaseDate\":\"2000-01-01\",\"duration\":90}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.<Number>read(response, "$.id").longValue();
+    }
+}
@@ -0,0 +1,219 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.LookupResult;
+import ru.yandex.practicum.filmorate.storage.cache.CachingFilmStorage;
+import ru.yandex.practicum.filmorate.storage.cache.CachingUserStorage;
+import ru.yandex.practicum.filmorate.storage.cache.StorageCacheConfig;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.util.TinyLfuCache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Проверить кэш сущностей перед хранилищами")
+public class StorageCacheTest {
+    private CountingFilmStorage filmStorage;
+    private CachingFilmStorage cachedFilms;
+    private CachingUserStorage cachedUsers;
+
+    @BeforeEach
+    void setUp() {
+        filmStorage = new CountingFilmStorage();
+        cachedFilms = new CachingFilmStorage(filmStorage, 100);
+        cachedUsers = new CachingUserStorage(new InMemoryUserStorage(), 100);
+    }
+
+    private Film createFilm(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        return cachedFilms.create(film);
+    }
+
+    private User createUser(String login) {
+        return cachedUsers.create(new User(null, login + "@email.com", login, null, LocalDate.of(2000, 1, 1)));
+    }
+
+    private static void access(TinyLfuCache<Long> cache, long key) {
+        if (cache.getIfPresent(key) == null) {
+            cache.put(key, key, cache.stamp());
+        }
+    }
+
+    @Test
+    @DisplayName("Не превышать максимальный размер и учитывать вытеснения")
+    void shouldBoundSize() {
+        TinyLfuCache<Long> cache = new TinyLfuCache<>(100);
+        for (long key = 0; key < 1_000; key++) {
+            access(cache, key);
+        }
+
+        assertEquals(100, cache.size());
+        assertEquals(900, cache.evictions());
+        assertEquals(1_000, cache.misses());
+    }
+
+    @Test
+    @DisplayName("Сохранить часто читаемые записи при однократном сканировании")
+    void shouldResistScan() {
+        TinyLfuCache<Long> cache = new TinyLfuCache<>(100);
+        for (int round = 0; round < 20; round++) {
+            for (long key = 0; key < 50; key++) {
+                access(cache, key);
+            }
+        }
+        for (long key = 1_000; key < 11_000; key++) {
+            access(cache, key);
+        }
+
+        long retained = 0;
+        for (long key = 0; key < 50; key++) {
+            if (cache.getIfPresent(key) != null) {
+                retained++;
+            }
+        }
+        assertTrue(retained >= 45, "Сканирование вытеснило частые записи: осталось " + retained);
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    @DisplayName("Не сохранять значение, загруженное до инвалидации")
+    void shouldDropValueLoadedBeforeInvalidation() {
+        TinyLfuCache<Long> cache = new TinyLfuCache<>(10);
+        long stamp = cache.stamp();
+        cache.invalidate(1);
+        cache.put(1, 1L, stamp);
+
+        assertNull(cache.getIfPresent(1));
+    }
+
+    @Test
+    @DisplayName("Читать фильм из хранилища один раз до изменения")
+    void shouldReadThroughAndInvalidateFilms() {
+        long filmId = createFilm("Film").getId();
+        long otherId = createFilm("Other").getId();
+        long userId = createUser("user").getId();
+
+        cachedFilms.findById(filmId);
+        assertTrue(cachedFilms.exists(filmId));
+        assertEquals(1, filmStorage.loads.get());
+
+        cachedFilms.addLike(filmId, userId);
+        assertEquals(1, cachedFilms.findById(filmId).getUserLikes().size(), "Лайк не виден после инвалидации");
+        cachedFilms.addLike(filmId, userId);
+        cachedFilms.findById(filmId);
+        assertEquals(2, filmStorage.loads.get(), "Повторный лайк инвалидировал запись");
+
+        LookupResult<Film> lookup = cachedFilms.findAllByIds(List.of(otherId, filmId, 999L));
+        assertEquals(List.of(otherId, filmId), lookup.found().stream().map(Film::getId).toList());
+        assertEquals(List.of(999L), lookup.missingIds());
+        assertEquals(List.of(List.of(otherId, 999L)), filmStorage.batches, "Загружены закэшированные фильмы");
+
+        cachedFilms.removeLikesByUser(userId);
+        assertEquals(0, cachedFilms.findById(filmId).getUserLikes().size());
+        cachedFilms.findById(otherId);
+        assertEquals(3, filmStorage.loads.get(), "Инвалидирован фильм без лайка пользователя");
+
+        Film update = new Film();
+        update.setId(filmId);
+        update.setName("Renamed");
+        cachedFilms.update(update);
+        assertEquals("Renamed", cachedFilms.findById(filmId).getName());
+
+        cachedFilms.delete(filmId);
+        assertEquals(Optional.empty(), cachedFilms.find(filmId));
+    }
+
+    @Test
+    @DisplayName("Инвалидировать обоих пользователей при изменении дружбы")
+    void shouldInvalidateBothFriends() {
+        long userId = createUser("user").getId();
+        long friendId = createUser("friend").getId();
+        cachedUsers.findAllByIds(List.of(userId, friendId));
+
+        cachedUsers.addFriend(userId, friendId);
+        assertTrue(cachedUsers.findById(userId).getFriends().contains(friendId));
+        assertTrue(cachedUsers.findById(friendId).getFriends().contains(userId));
+
+        cachedUsers.delete(userId);
+        assertEquals(Optional.empty(), cachedUsers.find(userId));
+        assertEquals(0, cachedUsers.findById(friendId).getFriends().size(), "Друг удалённого пользователя устарел");
+    }
+
+    @Test
+    @DisplayName("Публиковать метрики попаданий, промахов и вытеснений")
+    void shouldExposeMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CachingFilmStorage films = new CachingFilmStorage(filmStorage, 1);
+        films.bindTo(registry);
+        long first = createFilm("First").getId();
+        long second = createFilm("Second").getId();
+
+        films.find(first);
+        films.find(first);
+        films.find(second);
+
+        assertEquals(1, registry.get("filmorate.cache.gets").tags("cache", "films", "result", "hit")
+                .functionCounter().count());
+        assertEquals(2, registry.get("filmorate.cache.gets").tags("cache", "films", "result", "miss")
+                .functionCounter().count());
+        assertEquals(1, registry.get("filmorate.cache.evictions").functionCounter().count());
+        assertEquals(1, registry.get("filmorate.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Подключать кэш перед любым хранилищем через конфигурацию")
+    void shouldDecorateStoragesWhenEnabled() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withUserConfiguration(StorageCacheConfig.class, InMemoryFilmStorage.class,
+                        InMemoryUserStorage.class);
+
+        runner.run(context -> assertEquals(1, context.getBeansOfType(FilmStorage.class).size()));
+        runner.withPropertyValues("filmorate.storage.cache.enabled=true", "filmorate.storage.cache.max-users=5")
+                .run(context -> {
+                    CachingFilmStorage films = assertInstanceOf(CachingFilmStorage.class,
+                            context.getBean(FilmStorage.class));
+                    CachingUserStorage users = assertInstanceOf(CachingUserStorage.class,
+                            context.getBean(UserStorage.class));
+                    assertSame(context.getBean(InMemoryFilmStorage.class), films.delegate());
+                    assertSame(context.getBean(InMemoryUserStorage.class), users.delegate());
+                });
+    }
+
+    private static class CountingFilmStorage extends InMemoryFilmStorage {
+        private final AtomicInteger loads = new AtomicInteger();
+        private final List<List<Long>> batches = new ArrayList<>();
+
+        @Override
+        public Optional<Film> find(long filmId) {
+            loads.incrementAndGet();
+            return super.find(filmId);
+        }
+
+        @Override
+        public LookupResult<Film> findAllByIds(Collection<Long> filmIds) {
+            batches.add(List.copyOf(filmIds));
+            return super.findAllByIds(filmIds);
+        }
+    }
+}
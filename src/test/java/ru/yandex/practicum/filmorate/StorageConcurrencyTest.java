@@ -0,0 +1,260 @@
+package ru.yandex.practicum.filmorate;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSearchQuery;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.StorageJournal;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Проверить хранилища при конкурентном доступе")
+public class StorageConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 2_000;
+
+    private static Film newFilm(int number) {
+        Film film = new Film();
+        film.setName("Film " + number);
+        film.setDescription("Some description");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(90);
+        return film;
+    }
+
+    private static User newUser(int number) {
+        return new User(null, "user" + number + "@email.com", "user" + number, null, LocalDate.of(2000, 1, 1));
+    }
+
+    private static void runConcurrently(IntTask task) throws Exception {
+        runConcurrently(Executors.newFixedThreadPool(THREADS), task);
+    }
+
+    private static void runConcurrently(ExecutorService executor, IntTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int threadNumber = thread;
+                Callable<Void> worker = () -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        task.run(threadNumber, i);
+                    }
+                    return null;
+                };
+                futures.add(executor.submit(worker));
+            }
+
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Выдать уникальные ID без потерь при параллельном создании")
+    void shouldNotLoseWritesWhenCreatingConcurrently() throws Exception {
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+
+        runConcurrently((thread, i) -> {
+            filmStorage.create(newFilm(i));
+            userStorage.create(newUser(i));
+        });
+
+        int expected = THREADS * OPERATIONS_PER_THREAD;
+        assertEquals(expected, filmStorage.findAll().size(), "Потеряны созданные фильмы");
+        assertEquals(expected, userStorage.findAll().size(), "Потеряны созданные пользователи");
+        assertEquals(expected, filmStorage.findAll().stream().map(Film::getId).collect(Collectors.toSet()).size(),
+                "ID фильмов повторяются");
+        assertEquals(expected, userStorage.findAll().stream().map(User::getId).collect(Collectors.toSet()).size(),
+                "ID пользователей повторяются");
+    }
+
+    @Test
+    @DisplayName("Сохранить все лайки и порядок популярных фильмов при параллельных лайках")
+    void shouldNotLoseLikesWhenLikingConcurrently() throws Exception {
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        int filmCount = 10;
+        for (int i = 0; i < filmCount; i++) {
+            filmStorage.create(newFilm(i));
+        }
+
+        runConcurrently((thread, i) -> {
+            long filmId = (i / 2) % filmCount + 1;
+            long userId = (long) thread * OPERATIONS_PER_THREAD + i;
+            filmStorage.addLike(filmId, userId);
+            if (i % 2 == 0) {
+                filmStorage.removeLike(filmId, userId);
+            }
+        });
+
+        int expectedLikes = THREADS * OPERATIONS_PER_THREAD / 2 / filmCount;
+        for (Film film : filmStorage.findAll()) {
+            assertEquals(expectedLikes, film.getUserLikes().size(), "Потеряны лайки фильма " + film.getId());
+        }
+
+        List<Film> popular = filmStorage.findPopular(filmCount * 2);
+        assertEquals(filmCount, popular.size(), "Индекс популярности рассинхронизирован с хранилищем");
+    }
+
+    @Test
+    @DisplayName("Сохранить симметричную дружбу при параллельном добавлении друзей")
+    void shouldKeepFriendshipSymmetricWhenAddingConcurrently() throws Exception {
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        int userCount = 50;
+        for (int i = 0; i < userCount; i++) {
+            userStorage.create(newUser(i));
+        }
+
+        runConcurrently((thread, i) -> {
+            long userId = (thread + i) % userCount + 1;
+            long friendId = (thread * 7L + i * 3L) % userCount + 1;
+            if (userId != friendId) {
+                userStorage.addFriend(userId, friendId);
+            }
+        });
+
+        for (User user : userStorage.findAll()) {
+            for (Long friendId : user.getFriends()) {
+                assertTrue(userStorage.findById(friendId).getFriends().contains(user.getId()),
+                        "Дружба пользователей " + user.getId() + " и " + friendId + " несимметрична");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Не обновлять фильм и пользователя, удалённых во время обновления")
+    void shouldNotUpdateEntitiesDeletedConcurrently() throws Exception {
+        Set<Long> deletedFilms = ConcurrentHashMap.newKeySet();
+        Set<Long> deletedUsers = ConcurrentHashMap.newKeySet();
+        List<Long> updatedAfterDeletion = new CopyOnWriteArrayList<>();
+        StorageJournal journal = new StorageJournal() {
+            @Override
+            public void filmUpdated(Film film) {
+                if (deletedFilms.contains(film.getId())) {
+                    updatedAfterDeletion.add(film.getId());
+                }
+            }
+
+            @Override
+            public void filmDeleted(long filmId) {
+                deletedFilms.add(filmId);
+            }
+
+            @Override
+            public void userUpdated(User user) {
+                if (deletedUsers.contains(user.getId())) {
+                    updatedAfterDeletion.add(user.getId());
+                }
+            }
+
+            @Override
+            public void userDeleted(long userId) {
+                deletedUsers.add(userId);
+            }
+        };
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(journal);
+        InMemoryUserStorage userStorage = new InMemoryUserStorage(journal);
+        for (int i = 0; i < THREADS / 2 * OPERATIONS_PER_THREAD; i++) {
+            filmStorage.create(newFilm(i));
+            userStorage.create(newUser(i));
+        }
+
+        runConcurrently((thread, i) -> {
+            long id = (long) (thread / 2) * OPERATIONS_PER_THREAD + i + 1;
+            if (thread % 2 == 0) {
+                filmStorage.delete(id);
+                userStorage.delete(id);
+                return;
+            }
+
+            Film film = new Film();
+            film.setId(id);
+            film.setName("Переименован");
+            try {
+                filmStorage.update(film);
+            } catch (NotFoundException ignored) {
+            }
+            try {
+                userStorage.update(new User(id, null, null, "Переименован", null));
+            } catch (NotFoundException ignored) {
+            }
+        });
+
+        assertTrue(updatedAfterDeletion.isEmpty(), "Обновления записаны после удаления: " + updatedAfterDeletion);
+        assertEquals(List.of(), filmStorage.search(new FilmSearchQuery("Переименован", null, null, null, 0, 10)),
+                "Удалённый фильм остался в поисковом индексе");
+    }
+
+    @Test
+    @DisplayName("Не закреплять виртуальные потоки за платформенными при блокировке внутри хранилищ")
+    void shouldNotPinVirtualThreads() throws Exception {
+        StorageJournal slowJournal = new StorageJournal() {
+            @Override
+            public void likeAdded(long filmId, long userId) {
+                LockSupport.parkNanos(10_000);
+            }
+
+            @Override
+            public void friendAdded(long userId, long friendId) {
+                LockSupport.parkNanos(10_000);
+            }
+        };
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(slowJournal);
+        InMemoryUserStorage userStorage = new InMemoryUserStorage(slowJournal);
+        int entityCount = 4;
+        for (int i = 0; i < entityCount; i++) {
+            filmStorage.create(newFilm(i));
+            userStorage.create(newUser(i));
+        }
+
+        List<RecordedEvent> pinnedEvents = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinnedEvents::add);
+            recording.startAsync();
+
+            runConcurrently(Executors.newVirtualThreadPerTaskExecutor(), (thread, i) -> {
+                long id = i % entityCount + 1;
+                filmStorage.addLike(id, (long) thread * OPERATIONS_PER_THREAD + i);
+                userStorage.addFriend(id, (id + thread) % entityCount + 1);
+                filmStorage.findPopular(entityCount);
+            });
+            recording.stop();
+        }
+
+        assertTrue(pinnedEvents.isEmpty(), "Виртуальные потоки закреплялись: " + pinnedEvents);
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        void run(int thread, int iteration);
+    }
+}
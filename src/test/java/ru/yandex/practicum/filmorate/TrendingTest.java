@@ -0,0 +1,254 @@
+package ru.yandex.practicum.filmorate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmRecommendationProperties;
+import ru.yandex.practicum.filmorate.service.FilmRecommender;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.FriendRecommendationProperties;
+import ru.yandex.practicum.filmorate.service.FriendRecommender;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.stats.LikeStatistics;
+import ru.yandex.practicum.filmorate.stats.StatsProperties;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.trending.LikeEventRing;
+import ru.yandex.practicum.filmorate.trending.Ranking;
+import ru.yandex.practicum.filmorate.trending.TrendingPipeline;
+import ru.yandex.practicum.filmorate.trending.TrendingProperties;
+import ru.yandex.practicum.filmorate.trending.TrendingWindow;
+import ru.yandex.practicum.filmorate.validator.ModelValidator;
+import ru.yandex.practicum.filmorate.validator.ValidationProperties;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Проверить тренды фильмов по скользящим окнам")
+public class TrendingTest {
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private final AtomicLong now = new AtomicLong(Duration.ofDays(365).toMillis());
+    private SimpleMeterRegistry registry;
+    private TrendingPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        pipeline = pipeline(1024, 3);
+    }
+
+    private TrendingPipeline pipeline(int ringCapacity, int topSize) {
+        return new TrendingPipeline(new TrendingProperties(ringCapacity, topSize, Duration.ofSeconds(1),
+                Duration.ofMillis(1)), registry, now::get);
+    }
+
+    private void likes(long filmId, int count) {
+        for (int i = 0; i < count; i++) {
+            pipeline.likeAdded(filmId);
+        }
+    }
+
+    private Ranking rank(TrendingWindow window) {
+        pipeline.processPending();
+        pipeline.refresh();
+        return pipeline.ranking(window);
+    }
+
+    @Test
+    @DisplayName("Считать лайки только внутри окна")
+    void shouldCountLikesWithinWindow() {
+        likes(1, 5);
+        now.addAndGet(2 * HOUR);
+        likes(2, 3);
+        likes(3, 1);
+
+        assertArrayEquals(new long[]{2, 3}, rank(TrendingWindow.HOUR).filmIds());
+        assertArrayEquals(new long[]{1, 2, 3}, rank(TrendingWindow.DAY).filmIds());
+        assertArrayEquals(new int[]{5, 3, 1}, rank(TrendingWindow.WEEK).likes());
+
+        now.addAndGet(23 * HOUR);
+        assertArrayEquals(new long[0], rank(TrendingWindow.HOUR).filmIds());
+        assertArrayEquals(new long[]{2, 3}, rank(TrendingWindow.DAY).filmIds());
+        assertArrayEquals(new long[]{1, 2, 3}, rank(TrendingWindow.WEEK).filmIds());
+
+        now.addAndGet(7 * 24 * HOUR);
+        assertEquals(0, rank(TrendingWindow.WEEK).size());
+    }
+
+    @Test
+    @DisplayName("Учитывать удаление лайков и ограничивать размер топа")
+    void shouldApplyUnlikesAndKeepTopK() {
+        likes(1, 2);
+        likes(2, 4);
+        likes(3, 3);
+        likes(4, 1);
+        pipeline.likeRemoved(2);
+        pipeline.likeRemoved(2);
+        pipeline.likeRemoved(5);
+
+        Ranking ranking = rank(TrendingWindow.HOUR);
+        assertArrayEquals(new long[]{3, 1, 2}, ranking.filmIds(), "Ничьи упорядочиваются по ID");
+        assertArrayEquals(new int[]{3, 2, 2}, ranking.likes());
+        assertArrayEquals(new long[]{3}, ranking.head(1));
+    }
+
+    @Test
+    @DisplayName("Отбрасывать события при переполнении буфера")
+    void shouldDropEventsWhenRingIsFull() {
+        registry = new SimpleMeterRegistry();
+        pipeline = pipeline(4, 3);
+        likes(1, 10);
+
+        assertEquals(6, registry.get("filmorate.trending.dropped").counter().count());
+        assertEquals(4, registry.get("filmorate.trending.queue").gauge().value());
+        assertArrayEquals(new int[]{4}, rank(TrendingWindow.HOUR).likes());
+        assertEquals(0, registry.get("filmorate.trending.queue").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Не терять события нескольких производителей")
+    void shouldDeliverEventsFromConcurrentProducers() throws InterruptedException {
+        LikeEventRing ring = new LikeEventRing(64);
+        int producers = 4;
+        int perProducer = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int producer = 0; producer < producers; producer++) {
+            long filmId = producer + 1;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(filmId, 1, i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+
+        long[] received = new long[producers + 1];
+        long[] lastTimestamp = new long[producers + 1];
+        Arrays.fill(lastTimestamp, -1);
+        long total = 0;
+        while (total < (long) producers * perProducer) {
+            total += ring.drain((filmId, delta, timestamp) -> {
+                assertEquals(lastTimestamp[(int) filmId] + 1, timestamp, "Нарушен порядок событий производителя");
+                lastTimestamp[(int) filmId] = timestamp;
+                received[(int) filmId] += delta;
+            }, 16);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int producer = 1; producer <= producers; producer++) {
+            assertEquals(perProducer, received[producer]);
+        }
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    @DisplayName("Публиковать события только при изменении лайков")
+    void shouldPublishOnlyEffectiveLikes() {
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        FilmService filmService = new FilmService(filmStorage, userStorage,
+                new FilmRecommender(filmStorage, new FilmRecommendationProperties(500, 1000, 200_000, 50, 100_000)),
+                new ModelValidator(Validation.buildDefaultValidatorFactory().getValidator(),
+                        new ValidationProperties(true)), pipeline,
+                new LikeStatistics(new StatsProperties(14, 7, 0.0005, 0.99)));
+        Film film = new Film();
+        film.setName("Film");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(90);
+        long filmId = filmService.create(film).getId();
+        long userId = userStorage.create(new User(null, "user@email.com", "user", null, LocalDate.of(2000, 1, 1)))
+                .getId();
+
+        filmService.addLike(filmId, userId);
+        filmService.addLike(filmId, userId);
+        assertArrayEquals(new int[]{1}, rank(TrendingWindow.DAY).likes());
+
+        filmService.removeLike(filmId, userId);
+        filmService.removeLike(filmId, userId);
+        assertEquals(0, rank(TrendingWindow.DAY).size());
+
+        filmService.addLike(filmId, userId);
+        pipeline.processPending();
+        pipeline.refresh();
+        assertEquals(List.of(filmId), filmService.findTrending("24H", 10).stream().map(Film::getId).toList());
+        assertThrows(ValidationException.class, () -> filmService.findTrending("2h", 10));
+        assertFalse(filmService.findTrending("7d", 10).isEmpty());
+        assertTrue(filmService.findTrending("1h", 10).size() <= 1);
+    }
+
+    @Test
+    @DisplayName("Убирать из трендов лайки удалённых пользователей и фильмов")
+    void shouldRemoveLikesOfDeletedUsersAndFilms() {
+        InMemoryFilmStorage filmStorage = new InMemoryFilmStorage();
+        InMemoryUserStorage userStorage = new InMemoryUserStorage();
+        ModelValidator modelValidator = new ModelValidator(Validation.buildDefaultValidatorFactory().getValidator(),
+                new ValidationProperties(true));
+        LikeStatistics likeStatistics = new LikeStatistics(new StatsProperties(14, 7, 0.0005, 0.99));
+        FilmService filmService = new FilmService(filmStorage, userStorage,
+                new FilmRecommender(filmStorage, new FilmRecommendationProperties(500, 1000, 200_000, 50, 100_000)),
+                modelValidator, pipeline, likeStatistics);
+        UserService userService = new UserService(userStorage, filmStorage, new FriendRecommender(userStorage,
+                new FriendRecommendationProperties(500, 500, 100_000, 50, 1_000)), modelValidator, pipeline,
+                likeStatistics);
+        for (int i = 1; i <= 2; i++) {
+            Film film = new Film();
+            film.setName("Film " + i);
+            film.setReleaseDate(LocalDate.of(2000, 1, 1));
+            film.setDuration(90);
+            filmService.create(film);
+            userStorage.create(new User(null, "user" + i + "@email.com", "user" + i, null, LocalDate.of(2000, 1, 1)));
+        }
+        filmService.addLike(1, 1);
+        filmService.addLike(1, 2);
+        filmService.addLike(2, 1);
+        filmService.addLike(2, 2);
+
+        userService.delete(1);
+        assertArrayEquals(new int[]{1, 1}, rank(TrendingWindow.DAY).likes(), "Лайки удалённого пользователя в трендах");
+
+        filmService.delete(1);
+        Ranking ranking = rank(TrendingWindow.DAY);
+        assertArrayEquals(new long[]{2}, ranking.head(10), "Удалённый фильм остался в трендах");
+        assertArrayEquals(new int[]{1}, ranking.likes());
+    }
+
+    @Test
+    @DisplayName("Будить простаивающий агрегатор новым событием")
+    void shouldWakeIdleAggregatorOnNewEvent() throws InterruptedException {
+        SimpleMeterRegistry started = new SimpleMeterRegistry();
+        TrendingPipeline background = new TrendingPipeline(new TrendingProperties(1024, 3, Duration.ofMinutes(1),
+                Duration.ofMinutes(1)), started, now::get);
+        background.start();
+        try {
+            Thread.sleep(100);
+            background.likeAdded(1);
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (started.get("filmorate.trending.queue").gauge().value() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(0, started.get("filmorate.trending.queue").gauge().value(), "Агрегатор не проснулся");
+        } finally {
+            background.close();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package ru.yandex.practicum.filmorate;
+
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
+import ru.yandex.practicum.filmorate.exception.ModelValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.validator.ModelValidator;
+import ru.yandex.practicum.filmorate.validator.ValidationProperties;
+import ru.yandex.practicum.filmorate.validator.group.Create;
+import ru.yandex.practicum.filmorate.validator.group.Default;
+import ru.yandex.practicum.filmorate.validator.group.Update;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Проверить совпадение предвычисленной валидации с прокси валидации Spring")
+public class ValidationEquivalenceTest {
+    private static final int CASES = 5_000;
+    private static final String[] NAMES = {null, "", " ", "\t", " ", "Film", " Film "};
+    private static final String[] LOGINS = {null, "", " ", "login", "lo gin", "lo\tgin", "логин"};
+    private static final String[] EMAILS = {null, "", " ", "user@email.com", "user.name+tag@mail.example.ru",
+        "@email.com", "user@", "user@@email.com", "user@email", "user..name@email.com", ".user@email.com",
+        "user.@email.com", "user@-email.com", "user@email-.com", "user@email..com", "user name@email.com",
+        "\"quoted\"@email.com", "пользователь@почта.рф", "user@[127.0.0.1]", "user@email.com.",
+        "a".repeat(64) + "@email.com", "a".repeat(65) + "@email.com", "user@" + "d".repeat(64) + ".com",
+        "user!#$&'*/=?^`{|}~@email.com"};
+    private static final LocalDate[] RELEASE_DATES = {null, LocalDate.of(1895, 12, 27), LocalDate.of(1895, 12, 28),
+        LocalDate.of(2000, 1, 1), LocalDate.now().plusDays(1)};
+    private static final LocalDate[] BIRTHDAYS = {null, LocalDate.of(1900, 1, 1), LocalDate.now(),
+        LocalDate.now().plusDays(1)};
+    private static final Long[] IDS = {null, -1L, 0L, 1L, Long.MAX_VALUE};
+    private static final Integer[] DURATIONS = {null, Integer.MIN_VALUE, -1, 0, 1, 90};
+
+    private Validator validator;
+    private ModelValidator modelValidator;
+    private LegacyService legacy;
+    private SplittableRandom random;
+
+    @BeforeEach
+    void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        modelValidator = new ModelValidator(validator, new ValidationProperties(true));
+
+        ProxyFactory proxyFactory = new ProxyFactory(new LegacyService());
+        proxyFactory.addAdvice(new MethodValidationInterceptor(validator));
+        legacy = (LegacyService) proxyFactory.getProxy();
+        random = new SplittableRandom(42);
+    }
+
+    private <T> T pick(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private Film randomFilm() {
+        Film film = new Film();
+        film.setId(pick(IDS));
+        film.setName(pick(NAMES));
+        int descriptionLength = random.nextInt(4) == 0 ? 199 + random.nextInt(3) : random.nextInt(20);
+        film.setDescription(random.nextInt(5) == 0 ? null : "d".repeat(descriptionLength));
+        film.setReleaseDate(pick(RELEASE_DATES));
+        film.setDuration(pick(DURATIONS));
+        return film;
+    }
+
+    private User randomUser() {
+        User user = new User();
+        user.setId(pick(IDS));
+        user.setEmail(pick(EMAILS));
+        user.setLogin(pick(LOGINS));
+        user.setName(pick(NAMES));
+        user.setBirthday(pick(BIRTHDAYS));
+        return user;
+    }
+
+    private static Set<String> legacyViolations(Runnable call) {
+        try {
+            call.run();
+            return Set.of();
+        } catch (ConstraintViolationException e) {
+            return e.getConstraintViolations().stream()
+                    .map(violation -> violation.getPropertyPath() + " -> " + violation.getMessage())
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    private static Set<String> precompiledViolations(Runnable call) {
+        try {
+            call.run();
+            return Set.of();
+        } catch (ModelValidationException e) {
+            return e.getViolations().stream()
+                    .map(violation -> violation.getFieldName() + " -> " + violation.getMessage())
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    private <T> int assertEquivalent(Supplier<T> generator, Consumer<T> legacyCall, Consumer<T> precompiledCall) {
+        int invalid = 0;
+        for (int i = 0; i < CASES; i++) {
+            T model = generator.get();
+            Set<String> expected = legacyViolations(() -> legacyCall.accept(model));
+            assertEquals(expected, precompiledViolations(() -> precompiledCall.accept(model)),
+                    "Ответы валидации разошлись для " + model);
+            if (!expected.isEmpty()) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    @Test
+    @DisplayName("Совпасть с прокси при создании и обновлении фильма")
+    void shouldMatchLegacyFilmValidation() {
+        int invalidOnCreate = assertEquivalent(this::randomFilm, legacy::createFilm,
+                film -> modelValidator.validate(film, "createFilm.film", Create.class, Default.class));
+        int invalidOnUpdate = assertEquivalent(this::randomFilm, legacy::updateFilm,
+                film -> modelValidator.validate(film, "updateFilm.newFilm", Update.class, Default.class));
+
+        assertTrue(invalidOnCreate > 0 && invalidOnCreate < CASES, "Выборка не покрывает обе ветки");
+        assertTrue(invalidOnUpdate > 0 && invalidOnUpdate < CASES, "Выборка не покрывает обе ветки");
+    }
+
+    @Test
+    @DisplayName("Совпасть с прокси при создании и обновлении пользователя")
+    void shouldMatchLegacyUserValidation() {
+        int invalidOnCreate = assertEquivalent(this::randomUser, legacy::createUser,
+                user -> modelValidator.validate(user, "createUser.user", Default.class, Create.class));
+        int invalidOnUpdate = assertEquivalent(this::randomUser, legacy::updateUser,
+                user -> modelValidator.validate(user, "updateUser.newUser", Default.class, Update.class));
+
+        assertTrue(invalidOnCreate > 0 && invalidOnCreate < CASES, "Выборка не покрывает обе ветки");
+        assertTrue(invalidOnUpdate > 0 && invalidOnUpdate < CASES, "Выборка не покрывает обе ветки");
+    }
+
+    @Test
+    @DisplayName("Не обращаться к Hibernate Validator для корректной модели")
+    void shouldSkipValidatorForValidModel() {
+        AtomicInteger calls = new AtomicInteger();
+        Validator counting = (Validator) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Validator.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("validate")) {
+                        calls.incrementAndGet();
+                    }
+                    return method.invoke(validator, args);
+                });
+        ModelValidator fastPath = new ModelValidator(counting, new ValidationProperties(true));
+
+        Film film = new Film();
+        film.setName("Film");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(90);
+        User user = new User(null, "user@email.com", "user", null, LocalDate.of(2000, 1, 1));
+        for (int i = 0; i < 10; i++) {
+            assertDoesNotThrow(() -> fastPath.validate(film, "create.film", Create.class, Default.class));
+            assertDoesNotThrow(() -> fastPath.validate(user, "create.user", Default.class, Create.class));
+        }
+        assertEquals(0, calls.get(), "Корректная модель прошла через Hibernate Validator");
+
+        film.setDuration(-1);
+        assertEquals(legacyViolations(() -> legacy.createFilm(film)).stream()
+                        .map(violation -> violation.replace("createFilm.", "create."))
+                        .collect(Collectors.toSet()),
+                precompiledViolations(() -> fastPath.validate(film, "create.film", Create.class, Default.class)));
+        assertEquals(1, calls.get(), "Ошибка не была передана Hibernate Validator");
+    }
+
+    public static class LegacyService {
+        @Validated({Create.class, Default.class})
+        public void createFilm(@Valid Film film) {
+        }
+
+        @Validated({Update.class, Default.class})
+        public void updateFilm(@Valid Film newFilm) {
+        }
+
+        @Validated({Default.class, Create.class})
+        public void createUser(@Valid User user) {
+        }
+
+        @Validated({Default.class, Update.class})
+        public void updateUser(@Valid User newUser) {
+        }
+    }
+}
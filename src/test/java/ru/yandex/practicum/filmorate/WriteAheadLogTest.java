@@ -0,0 +1,187 @@
+package ru.yandex.practicum.filmorate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+import ru.yandex.practicum.filmorate.storage.wal.SnapshotManager;
+import ru.yandex.practicum.filmorate.storage.wal.WalProperties;
+import ru.yandex.practicum.filmorate.storage.wal.WriteAheadLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Проверить журнал упреждающей записи и снимки хранилища")
+public class WriteAheadLogTest {
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES + Byte.BYTES;
+
+    @TempDir
+    private Path directory;
+
+    private WalProperties properties() {
+        return new WalProperties(true, directory, DataSize.ofKilobytes(4), Duration.ofMillis(5), false,
+                Duration.ofHours(1));
+    }
+
+    private static Film newFilm(String name) {
+        Film film = new Film();
+        film.setName(name);
+        film.setDescription("Some description");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(90);
+        return film;
+    }
+
+    private static User newUser(String login) {
+        return new User(null, login + "@email.com", login, null, LocalDate.of(2000, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Восстановить состояние из снимка и хвоста журнала после перезапуска")
+    void shouldRecoverStateFromSnapshotAndLogTail() throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(properties())) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(wal);
+            InMemoryUserStorage userStorage = new InMemoryUserStorage(wal);
+            SnapshotManager snapshotManager = new SnapshotManager(directory, wal, filmStorage, userStorage);
+            snapshotManager.recover();
+
+            for (int i = 0; i < 50; i++) {
+                userStorage.create(newUser("user" + i));
+                filmStorage.create(newFilm("Film " + i));
+            }
+            userStorage.addFriend(1, 2);
+            filmStorage.addLike(3, 1);
+            filmStorage.addLike(3, 2);
+
+            snapshotManager.snapshot();
+
+            Film update = new Film();
+            update.setId(3L);
+            update.setName("Renamed");
+            filmStorage.update(update);
+            filmStorage.removeLike(3, 1);
+            filmStorage.addLike(4, 5);
+            userStorage.addFriend(2, 3);
+            userStorage.removeFriend(1, 2);
+            userStorage.create(newUser("late"));
+            filmStorage.delete(10);
+            userStorage.addFriend(3, 7);
+            filmStorage.addLike(5, 7);
+            filmStorage.removeLikesByUser(7);
+            userStorage.delete(7);
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(properties())) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(wal);
+            InMemoryUserStorage userStorage = new InMemoryUserStorage(wal);
+            new SnapshotManager(directory, wal, filmStorage, userStorage).recover();
+
+            assertEquals(49, filmStorage.findAll().size(), "Потеряны фильмы");
+            assertEquals(50, userStorage.findAll().size(), "Потеряны пользователи");
+            assertThrows(NotFoundException.class, () -> filmStorage.findById(10), "Потеряно удаление фильма");
+            assertThrows(NotFoundException.class, () -> userStorage.findById(7), "Потеряно удаление пользователя");
+            assertEquals(Set.of(2L), userStorage.findById(3).getFriends(), "Удалённый пользователь остался в друзьях");
+            assertEquals(Set.of(), filmStorage.findById(5).getUserLikes(), "Лайк удалённого пользователя остался");
+            assertEquals("Renamed", filmStorage.findById(3).getName(), "Потеряно обновление фильма");
+            assertEquals(Set.of(2L), filmStorage.findById(3).getUserLikes(), "Потеряны изменения лайков");
+            assertEquals(Set.of(3L), userStorage.findById(2).getFriends(), "Потеряны изменения дружбы");
+            assertEquals(Set.of(), userStorage.findById(1).getFriends(), "Потеряно удаление друга");
+            assertEquals(List.of(3L, 4L), filmStorage.findPopular(2).stream().map(Film::getId).toList(),
+                    "Индекс популярности не восстановлен");
+
+            assertEquals(52L, userStorage.create(newUser("next")).getId(), "Счётчик ID не восстановлен");
+        }
+    }
+
+    @Test
+    @DisplayName("Остановить восстановление на первой повреждённой записи во всех сегментах")
+    void shouldStopReplayAtFirstCorruptRecord() throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(properties())) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(wal);
+            new SnapshotManager(directory, wal, filmStorage, new InMemoryUserStorage(wal)).recover();
+            for (int i = 0; i < 200; i++) {
+                filmStorage.create(newFilm("Film " + i));
+            }
+        }
+
+        List<Path> segments = segments();
+        assertTrue(segments.size() > 2, "Журнал не разбит на сегменты");
+        try (FileChannel channel = FileChannel.open(segments.get(0), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(length, 0);
+            long second = RECORD_HEADER_SIZE + length.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), second + RECORD_HEADER_SIZE + 1);
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(properties())) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(wal);
+            new SnapshotManager(directory, wal, filmStorage, new InMemoryUserStorage(wal)).recover();
+
+            assertEquals(List.of(1L), filmStorage.findAll().stream().map(Film::getId).toList(),
+                    "Воспроизведены записи после повреждения");
+            List<Path> remaining = segments();
+            assertTrue(segments.subList(1, segments.size()).stream()
+                    .allMatch(path -> Files.exists(path.resolveSibling(path.getFileName() + ".corrupt"))
+                            && !remaining.contains(path)), "Сегменты после повреждения не отложены");
+            assertEquals(2L, filmStorage.create(newFilm("Next")).getId(), "Счётчик ID не восстановлен");
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(properties())) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(wal);
+            new SnapshotManager(directory, wal, filmStorage, new InMemoryUserStorage(wal)).recover();
+
+            assertEquals(List.of("Film 0", "Next"), filmStorage.findAll().stream().map(Film::getName).toList(),
+                    "Записи после восстановления потеряны");
+        }
+    }
+
+    @Test
+    @DisplayName("Ждать синхронной фиксации без блокировки фильма")
+    void shouldAwaitSyncCommitOutsideStorageLock() throws Exception {
+        WalProperties properties = new WalProperties(true, directory, DataSize.ofKilobytes(4), Duration.ofSeconds(1),
+                true, Duration.ofHours(1));
+        try (WriteAheadLog wal = new WriteAheadLog(properties)) {
+            InMemoryFilmStorage filmStorage = new InMemoryFilmStorage(wal);
+            new SnapshotManager(directory, wal, filmStorage, new InMemoryUserStorage(wal)).recover();
+            long filmId = filmStorage.create(newFilm("Synced")).getId();
+
+            CompletableFuture<Boolean> liked = CompletableFuture.supplyAsync(() -> filmStorage.addLike(filmId, 1));
+            Thread.sleep(100);
+            assertFalse(liked.isDone(), "Лайк подтверждён до сброса журнала");
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> filmStorage.removeLike(filmId, 2),
+                    "Ожидание фиксации удерживает блокировку фильма");
+
+            wal.flush();
+            assertTrue(liked.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}